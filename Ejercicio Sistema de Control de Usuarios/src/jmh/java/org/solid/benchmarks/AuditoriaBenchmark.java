@@ -0,0 +1,132 @@
+package org.solid.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.solid.auditoria.PoliticaLlenado;
+import org.solid.auditoria.RegistroAuditoria;
+import org.solid.interfaces.IAuditoria;
+import org.solid.models.TipoEvento;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+
+/**
+ * Costo de auditar un login en el hilo de la petición: publicar en {@link RegistroAuditoria}
+ * (buffer circular con política BLOQUEAR, así no se miden descartes) frente a escribir la
+ * línea en el archivo GZIP desde el mismo hilo, bajo un bloqueo y con flush por evento
+ * como haría un registro síncrono. El número de hilos se ajusta con {@code -t N}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Threads(4)
+public class AuditoriaBenchmark {
+
+
+    @Param({"anillo", "sincrono"})
+    private String variante;
+
+    private Path directorio;
+    private IAuditoria auditoria;
+    private RegistroAuditoria registro;
+
+
+    @Setup
+    public void preparar() throws IOException {
+        directorio = Files.createTempDirectory("auditoria");
+        if ("anillo".equals(variante)) {
+            registro = new RegistroAuditoria(directorio, RegistroAuditoria.CAPACIDAD_POR_DEFECTO,
+                    PoliticaLlenado.BLOQUEAR, RegistroAuditoria.BYTES_POR_ARCHIVO_POR_DEFECTO);
+            auditoria = registro;
+        } else {
+            auditoria = new AuditoriaSincrona(directorio.resolve("auditoria.log.gz"));
+        }
+    }
+
+
+    @TearDown
+    public void borrar() throws IOException {
+        if (registro != null) {
+            registro.close();
+        } else {
+            ((AuditoriaSincrona) auditoria).cerrar();
+        }
+        try (Stream<Path> archivos = Files.walk(directorio)) {
+            for (Path archivo : archivos.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(archivo);
+            }
+        }
+    }
+
+
+    @Benchmark
+    public boolean publicarLogin() {
+        return auditoria.publicar(TipoEvento.LOGIN_FALLIDO, "usuario_123", "192.168.0.10");
+    }
+
+
+    /**
+     * Registro síncrono de referencia: formatea y escribe en el hilo llamador.
+     */
+    private static final class AuditoriaSincrona implements IAuditoria {
+
+
+        private final Writer salida;
+
+
+        AuditoriaSincrona(Path ruta) throws IOException {
+            this.salida = new BufferedWriter(new OutputStreamWriter(
+                    new GZIPOutputStream(Files.newOutputStream(ruta), 64 * 1024, true), StandardCharsets.UTF_8));
+        }
+
+
+        @Override
+        public synchronized boolean publicar(TipoEvento tipo, CharSequence username, CharSequence origen) {
+            try {
+                salida.write(Instant.now().toString());
+                salida.write('\t');
+                salida.write(tipo.name());
+                salida.write('\t');
+                salida.append(username);
+                salida.write('\t');
+                salida.append(origen);
+                salida.write('\n');
+                salida.flush();
+                return true;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+
+        synchronized void cerrar() throws IOException {
+            salida.close();
+        }
+    }
+}
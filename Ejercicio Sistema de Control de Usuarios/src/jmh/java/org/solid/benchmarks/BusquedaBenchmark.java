@@ -0,0 +1,84 @@
+package org.solid.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.solid.interfaces.IUsuarioRepositorio;
+import org.solid.models.Usuario;
+
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Búsqueda por username con 1K, 100K y 1M usuarios cargados.
+ * {@code buscarConMayusculas} mide la búsqueda sin distinguir mayúsculas, que normaliza la clave.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class BusquedaBenchmark {
+
+
+    @Param({"1000", "100000", "1000000"})
+    private int usuarios;
+
+    @Param({"memoria", "concurrente", "compacto"})
+    private String repositorio;
+
+    private IUsuarioRepositorio repo;
+    private String[] nombres;
+    private String[] nombresMayusculas;
+
+
+    @Setup
+    public void preparar() {
+        repo = DatosBenchmark.crearRepositorio(repositorio);
+        nombres = DatosBenchmark.poblar(repo, usuarios, DatosBenchmark.ITERACIONES_MINIMAS);
+        nombresMayusculas = new String[nombres.length];
+        for (int i = 0; i < nombres.length; i++) {
+            nombresMayusculas[i] = nombres[i].toUpperCase(Locale.ROOT);
+        }
+    }
+
+
+    @Benchmark
+    public Usuario buscarExistente() {
+        return repo.buscarPorUsername(nombres[ThreadLocalRandom.current().nextInt(nombres.length)]);
+    }
+
+
+    /**
+     * Como llega en una petición: un String recién decodificado, sin el hash calculado y
+     * sin compartir el arreglo de bytes con el username guardado en el repositorio.
+     */
+    @Benchmark
+    public Usuario buscarCopia() {
+        char[] recibido = nombres[ThreadLocalRandom.current().nextInt(nombres.length)].toCharArray();
+        return repo.buscarPorUsername(new String(recibido));
+    }
+
+
+    @Benchmark
+    public Usuario buscarConMayusculas() {
+        return repo.buscarPorUsername(nombresMayusculas[ThreadLocalRandom.current().nextInt(nombresMayusculas.length)]);
+    }
+
+
+    @Benchmark
+    public Usuario buscarInexistente() {
+        return repo.buscarPorUsername("no_registrado");
+    }
+}
@@ -0,0 +1,82 @@
+package org.solid.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.solid.interfaces.IUsuarioRepositorio;
+import org.solid.models.Usuario;
+import org.solid.repositories.UsuarioRepositorioArchivo;
+import org.solid.repositories.UsuarioRepositorioCache;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Búsquedas sobre el repositorio en archivo con 100K usuarios, con y sin
+ * {@link UsuarioRepositorioCache} de 1K entradas. El 90% de las búsquedas va a un
+ * conjunto de 1K usuarios frecuentes; {@code buscarInexistente} simula una enumeración.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class CacheBenchmark {
+
+
+    private static final int USUARIOS = 100_000;
+    private static final int FRECUENTES = 1_000;
+
+
+    @Param({"sin-cache", "con-cache"})
+    private String variante;
+
+    private Path archivo;
+    private UsuarioRepositorioArchivo almacenamiento;
+    private IUsuarioRepositorio repo;
+    private String[] nombres;
+
+
+    @Setup
+    public void preparar() throws IOException {
+        archivo = Files.createTempFile("cache", ".log");
+        almacenamiento = new UsuarioRepositorioArchivo(archivo);
+        nombres = DatosBenchmark.poblar(almacenamiento, USUARIOS, DatosBenchmark.ITERACIONES_MINIMAS);
+        repo = "con-cache".equals(variante) ? new UsuarioRepositorioCache(almacenamiento, FRECUENTES) : almacenamiento;
+    }
+
+
+    @TearDown
+    public void borrar() throws IOException {
+        almacenamiento.close();
+        Files.deleteIfExists(archivo);
+    }
+
+
+    @Benchmark
+    public Usuario buscarFrecuentes() {
+        ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+        int i = aleatorio.nextInt(10) < 9 ? aleatorio.nextInt(FRECUENTES) : aleatorio.nextInt(USUARIOS);
+        return repo.buscarPorUsername(nombres[i]);
+    }
+
+
+    @Benchmark
+    public Usuario buscarInexistente() {
+        return repo.buscarPorUsername("no_registrado_" + ThreadLocalRandom.current().nextInt(FRECUENTES));
+    }
+}
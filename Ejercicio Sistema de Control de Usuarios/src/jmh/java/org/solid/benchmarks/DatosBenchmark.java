@@ -0,0 +1,85 @@
+package org.solid.benchmarks;
+
+import org.solid.interfaces.IUsuarioRepositorio;
+import org.solid.models.Rol;
+import org.solid.models.TipoRol;
+import org.solid.models.Usuario;
+import org.solid.repositories.UsuarioRepositorioCompacto;
+import org.solid.repositories.UsuarioRepositorioConcurrente;
+import org.solid.repositories.UsuarioRepositorioJdbc;
+import org.solid.repositories.UsuarioRepositorioMemoria;
+import org.solid.repositories.UsuarioRepositorioParticionado;
+import org.solid.services.HashContrasenasService;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * Utilidades compartidas para preparar datos de los benchmarks.
+ */
+final class DatosBenchmark {
+
+
+    static final String PASSWORD = "clave1234";
+
+    /**
+     * Iteraciones mínimas de PBKDF2 para benchmarks centrados en el repositorio,
+     * donde el costo del hash ocultaría lo que se quiere medir.
+     */
+    static final int ITERACIONES_MINIMAS = 1;
+
+    private static final TipoRol[] ROLES = TipoRol.values();
+
+    /** Numera las bases H2 en memoria para que cada repositorio JDBC empiece vacío */
+    private static final AtomicInteger BASES = new AtomicInteger();
+
+
+    private DatosBenchmark() {
+    }
+
+
+    /**
+     * Crea una implementación de repositorio a partir de su nombre corto.
+     *
+     * @param tipo "memoria", "concurrente", "compacto", "particionado" o "jdbc" (H2 en memoria;
+     *             el llamador debe cerrarlo)
+     * @return Repositorio vacío
+     */
+    static IUsuarioRepositorio crearRepositorio(String tipo) {
+        return switch (tipo) {
+            case "memoria" -> new UsuarioRepositorioMemoria();
+            case "concurrente" -> new UsuarioRepositorioConcurrente();
+            case "compacto" -> new UsuarioRepositorioCompacto();
+            case "particionado" -> new UsuarioRepositorioParticionado();
+            case "jdbc" -> new UsuarioRepositorioJdbc("jdbc:h2:mem:benchmark" + BASES.incrementAndGet() + ";MODE=PostgreSQL");
+            default -> throw new IllegalArgumentException("Repositorio desconocido: " + tipo);
+        };
+    }
+
+
+    /**
+     * Agrega {@code cantidad} usuarios directamente al repositorio, todos con la misma
+     * credencial de {@link #PASSWORD} derivada una sola vez con el costo indicado.
+     *
+     * @return Los usernames registrados, indexados por posición
+     */
+    static String[] poblar(IUsuarioRepositorio repo, int cantidad, int iteraciones) {
+        String credencial = new HashContrasenasService(iteraciones).generar(PASSWORD.toCharArray());
+        String[] nombres = new String[cantidad];
+        for (int i = 0; i < cantidad; i++) {
+            nombres[i] = nombre(i);
+            repo.agregarUsuario(new Usuario(nombres[i], credencial, rol(i)));
+        }
+        return nombres;
+    }
+
+
+    static String nombre(long i) {
+        return "usuario_" + i;
+    }
+
+
+    static Rol rol(long i) {
+        return ROLES[(int) (i % ROLES.length)].getRol();
+    }
+}
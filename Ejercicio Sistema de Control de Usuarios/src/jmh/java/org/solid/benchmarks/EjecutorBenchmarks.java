@@ -0,0 +1,33 @@
+package org.solid.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+
+/**
+ * Punto de entrada del jar de benchmarks.
+ * Acepta los mismos argumentos que la línea de comandos de JMH y agrega
+ * siempre el GCProfiler para reportar la tasa de asignación junto al throughput.
+ *
+ * <p>Ejemplo: {@code java -jar target/benchmarks.jar Busqueda -t 4}</p>
+ */
+public final class EjecutorBenchmarks {
+
+
+    private EjecutorBenchmarks() {
+    }
+
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        Options opciones = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(opciones).run();
+    }
+}
@@ -0,0 +1,110 @@
+package org.solid.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.solid.interfaces.IUsuarioRepositorio;
+import org.solid.models.Usuario;
+import org.solid.services.HashContrasenasService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Tiempo para registrar 1M cuentas nuevas repartidas entre 1 a 64 hilos, en el repositorio
+ * concurrente frente al particionado. Los usuarios se crean antes de medir, así que solo
+ * se mide la inserción; las altas por segundo son 1M dividido por el tiempo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class EscalabilidadBenchmark {
+
+
+    private static final int ALTAS = 1_000_000;
+
+
+    @Param({"1", "2", "4", "8", "16", "32", "64"})
+    private int hilos;
+
+    @Param({"concurrente", "particionado"})
+    private String repositorio;
+
+    private Usuario[] usuarios;
+    private ExecutorService executor;
+    private IUsuarioRepositorio repo;
+
+
+    @Setup(Level.Trial)
+    public void crearUsuarios() {
+        String credencial = new HashContrasenasService(DatosBenchmark.ITERACIONES_MINIMAS)
+                .generar(DatosBenchmark.PASSWORD.toCharArray());
+        usuarios = new Usuario[ALTAS];
+        for (int i = 0; i < ALTAS; i++) {
+            usuarios[i] = new Usuario(DatosBenchmark.nombre(i), credencial, DatosBenchmark.rol(i));
+            usuarios[i].getNombre(); // la clave canónica se calcula una vez, fuera de la medición
+        }
+        executor = Executors.newFixedThreadPool(hilos);
+    }
+
+
+    @Setup(Level.Iteration)
+    public void vaciar() {
+        repo = DatosBenchmark.crearRepositorio(repositorio);
+    }
+
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        executor.shutdownNow();
+    }
+
+
+    /**
+     * Cada hilo registra un tramo contiguo de las cuentas.
+     *
+     * @return Cuentas agregadas
+     */
+    @Benchmark
+    public int registrar() throws Exception {
+        int porHilo = (ALTAS + hilos - 1) / hilos;
+        List<Future<Integer>> tareas = new ArrayList<>(hilos);
+        for (int h = 0; h < hilos; h++) {
+            int desde = h * porHilo;
+            int hasta = Math.min(ALTAS, desde + porHilo);
+            tareas.add(executor.submit(() -> {
+                int agregadas = 0;
+                for (int i = desde; i < hasta; i++) {
+                    if (repo.agregarSiAusente(usuarios[i])) {
+                        agregadas++;
+                    }
+                }
+                return agregadas;
+            }));
+        }
+
+        int total = 0;
+        for (Future<Integer> tarea : tareas) {
+            total += tarea.get();
+        }
+        return total;
+    }
+}
@@ -0,0 +1,86 @@
+package org.solid.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.solid.interfaces.IUsuarioRepositorio;
+import org.solid.models.Usuario;
+import org.solid.repositories.UsuarioRepositorioArchivo;
+import org.solid.repositories.UsuarioRepositorioFiltrado;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Búsquedas sobre el repositorio en archivo con 100K usuarios, con y sin
+ * {@link UsuarioRepositorioFiltrado} (1% de falsos positivos). {@code buscarInexistente}
+ * representa los logins y registros con usernames que no existen.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class FiltroBenchmark {
+
+
+    private static final int USUARIOS = 100_000;
+
+
+    @Param({"sin-filtro", "con-filtro"})
+    private String variante;
+
+    private Path archivo;
+    private UsuarioRepositorioArchivo almacenamiento;
+    private IUsuarioRepositorio repo;
+    private String[] nombres;
+    private String[] inexistentes;
+
+
+    @Setup
+    public void preparar() throws IOException {
+        archivo = Files.createTempFile("filtro", ".log");
+        almacenamiento = new UsuarioRepositorioArchivo(archivo);
+        nombres = DatosBenchmark.poblar(almacenamiento, USUARIOS, DatosBenchmark.ITERACIONES_MINIMAS);
+        repo = "con-filtro".equals(variante) ? new UsuarioRepositorioFiltrado(almacenamiento, USUARIOS) : almacenamiento;
+
+        // Generados de antemano para no medir la concatenación
+        inexistentes = new String[USUARIOS];
+        for (int i = 0; i < USUARIOS; i++) {
+            inexistentes[i] = "no_registrado_" + i;
+        }
+    }
+
+
+    @TearDown
+    public void borrar() throws IOException {
+        almacenamiento.close();
+        Files.deleteIfExists(archivo);
+    }
+
+
+    @Benchmark
+    public Usuario buscarExistente() {
+        return repo.buscarPorUsername(nombres[ThreadLocalRandom.current().nextInt(nombres.length)]);
+    }
+
+
+    @Benchmark
+    public Usuario buscarInexistente() {
+        return repo.buscarPorUsername(inexistentes[ThreadLocalRandom.current().nextInt(inexistentes.length)]);
+    }
+}
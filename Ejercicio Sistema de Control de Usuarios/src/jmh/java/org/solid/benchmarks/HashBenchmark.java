@@ -0,0 +1,54 @@
+package org.solid.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.solid.services.HashContrasenasService;
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Costo de verificar una contraseña según las iteraciones de PBKDF2.
+ * El resultado (ops/s por hilo) es el techo de logins por segundo por núcleo
+ * sin caché; multiplicarlo por los núcleos disponibles y compararlo contra el
+ * objetivo de throughput de login para elegir el costo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HashBenchmark {
+
+
+    @Param({"10000", "100000", "210000", "600000"})
+    private int iteraciones;
+
+    private HashContrasenasService hasher;
+    private String credencial;
+    private char[] password;
+
+
+    @Setup
+    public void preparar() {
+        hasher = new HashContrasenasService(iteraciones);
+        password = DatosBenchmark.PASSWORD.toCharArray();
+        credencial = hasher.generar(password);
+    }
+
+
+    @Benchmark
+    public boolean verificar() {
+        return hasher.verificar(password, credencial);
+    }
+}
@@ -0,0 +1,78 @@
+package org.solid.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.solid.interfaces.IUsuarioRepositorio;
+import org.solid.models.Rol;
+import org.solid.models.TipoRol;
+import org.solid.models.Usuario;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Consultas por rol: índice secundario frente a recorrer {@code obtenerTodos()}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class IndiceRolBenchmark {
+
+
+    private static final TipoRol ROL = TipoRol.ADMINISTRADOR;
+
+
+    @Param({"1000000"})
+    private int usuarios;
+
+    @Param({"concurrente", "compacto"})
+    private String repositorio;
+
+    private IUsuarioRepositorio repo;
+
+
+    @Setup
+    public void preparar() {
+        repo = DatosBenchmark.crearRepositorio(repositorio);
+        DatosBenchmark.poblar(repo, usuarios, DatosBenchmark.ITERACIONES_MINIMAS);
+    }
+
+
+    @Benchmark
+    public long contarConIndice() {
+        return repo.contarPorRol(ROL);
+    }
+
+
+    @Benchmark
+    public long contarRecorriendo() {
+        Rol rol = ROL.getRol();
+        return repo.obtenerTodos().stream().filter(u -> u.getRol() == rol).count();
+    }
+
+
+    @Benchmark
+    public List<Usuario> listarConIndice() {
+        return repo.flujoPorRol(ROL).toList();
+    }
+
+
+    @Benchmark
+    public List<Usuario> listarRecorriendo() {
+        Rol rol = ROL.getRol();
+        return repo.obtenerTodos().stream().filter(u -> u.getRol() == rol).toList();
+    }
+}
@@ -0,0 +1,118 @@
+package org.solid.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.solid.interfaces.IUsuarioRepositorio;
+import org.solid.models.Usuario;
+import org.solid.services.HashContrasenasService;
+import org.solid.services.UsuarioService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * Repositorio JDBC sobre H2 en memoria frente a {@code UsuarioRepositorioMemoria}, con 10K
+ * usuarios precargados. {@code buscarYAgregar} reproduce la búsqueda previa seguida de la
+ * inserción, que {@code agregarSiAusente} resuelve en una sola sentencia; {@code agregarLote}
+ * mide un lote de 1K usuarios nuevos (un batch JDBC por lote). {@code crearUsuario} registra
+ * un usuario nuevo a través de {@link UsuarioService} (con el costo mínimo de PBKDF2), que
+ * sobre JDBC omite la búsqueda previa.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class JdbcBenchmark {
+
+
+    private static final int PRECARGADOS = 10_000;
+    private static final int TAMANO_LOTE = 1_000;
+
+
+    @Param({"memoria", "jdbc"})
+    private String repositorio;
+
+    private IUsuarioRepositorio repo;
+    private UsuarioService servicio;
+    private String[] nombres;
+    private String credencial;
+    private AtomicLong secuencia;
+
+
+    @Setup(Level.Iteration)
+    public void preparar() {
+        repo = DatosBenchmark.crearRepositorio(repositorio);
+        nombres = DatosBenchmark.poblar(repo, PRECARGADOS, DatosBenchmark.ITERACIONES_MINIMAS);
+        credencial = new HashContrasenasService(DatosBenchmark.ITERACIONES_MINIMAS)
+                .generar(DatosBenchmark.PASSWORD.toCharArray());
+        secuencia = new AtomicLong(PRECARGADOS);
+        servicio = new UsuarioService(repo, new HashContrasenasService(DatosBenchmark.ITERACIONES_MINIMAS));
+    }
+
+
+    @TearDown(Level.Iteration)
+    public void cerrar() throws Exception {
+        if (repo instanceof AutoCloseable cerrable) {
+            cerrable.close();
+        }
+    }
+
+
+    @Benchmark
+    public Usuario buscar() {
+        return repo.buscarPorUsername(nombres[ThreadLocalRandom.current().nextInt(nombres.length)]);
+    }
+
+
+    @Benchmark
+    public boolean agregarSiAusente() {
+        return repo.agregarSiAusente(nuevo());
+    }
+
+
+    @Benchmark
+    public boolean buscarYAgregar() {
+        Usuario usuario = nuevo();
+        return repo.buscarPorUsername(usuario.getUsername()) == null && repo.agregarSiAusente(usuario);
+    }
+
+
+    @Benchmark
+    public boolean crearUsuario() {
+        long i = secuencia.getAndIncrement();
+        return servicio.crearUsuario(DatosBenchmark.nombre(i), DatosBenchmark.PASSWORD, DatosBenchmark.rol(i));
+    }
+
+
+    @Benchmark
+    public List<Usuario> agregarLote() {
+        List<Usuario> lote = new ArrayList<>(TAMANO_LOTE);
+        for (int i = 0; i < TAMANO_LOTE; i++) {
+            lote.add(nuevo());
+        }
+        return repo.agregarLote(lote);
+    }
+
+
+    private Usuario nuevo() {
+        long i = secuencia.getAndIncrement();
+        return new Usuario(DatosBenchmark.nombre(i), credencial, DatosBenchmark.rol(i));
+    }
+}
@@ -0,0 +1,79 @@
+package org.solid.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.solid.interfaces.IUsuarioRepositorio;
+import org.solid.models.Usuario;
+import org.solid.services.AutenticacionService;
+import org.solid.services.CacheVerificaciones;
+import org.solid.services.HashContrasenasService;
+import org.solid.services.UsuarioService;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Ciclo completo de login: búsqueda en el servicio y autenticación,
+ * con distintos costos de PBKDF2 y con o sin caché de verificaciones.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class LoginBenchmark {
+
+
+    @Param({"1000", "100000"})
+    private int usuarios;
+
+    @Param({"1", "100000"})
+    private int iteraciones;
+
+    @Param({"false", "true"})
+    private boolean cache;
+
+    @Param({"memoria", "concurrente"})
+    private String repositorio;
+
+    private UsuarioService usuarioService;
+    private AutenticacionService authService;
+    private String[] nombres;
+
+
+    @Setup
+    public void preparar() {
+        IUsuarioRepositorio repo = DatosBenchmark.crearRepositorio(repositorio);
+        HashContrasenasService hasher = new HashContrasenasService(iteraciones);
+        usuarioService = new UsuarioService(repo, hasher);
+        authService = new AutenticacionService(hasher, cache ? new CacheVerificaciones(usuarios, 60_000) : null);
+        nombres = DatosBenchmark.poblar(repo, usuarios, iteraciones);
+    }
+
+
+    @Benchmark
+    public boolean loginCorrecto() {
+        String username = nombres[ThreadLocalRandom.current().nextInt(nombres.length)];
+        Usuario usuario = usuarioService.obtenerUsuario(username);
+        return authService.autenticar(usuario, username, DatosBenchmark.PASSWORD);
+    }
+
+
+    @Benchmark
+    public boolean loginPasswordIncorrecta() {
+        String username = nombres[ThreadLocalRandom.current().nextInt(nombres.length)];
+        Usuario usuario = usuarioService.obtenerUsuario(username);
+        return authService.autenticar(usuario, username, "incorrecta");
+    }
+}
@@ -0,0 +1,91 @@
+package org.solid.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.solid.interfaces.IPermisosAdmin;
+import org.solid.interfaces.IPermisosBasicos;
+import org.solid.interfaces.IPermisosInvitado;
+import org.solid.models.Permiso;
+import org.solid.models.Rol;
+import org.solid.models.Usuario;
+import org.solid.services.AutorizacionService;
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Resolución de permisos: cadena de instanceof frente a la máscara precalculada del rol.
+ * Los usuarios alternan entre los tres roles para que los sitios de llamada sean
+ * polimórficos, como en un servidor real.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PermisosBenchmark {
+
+
+    private static final int USUARIOS = 1024;
+
+
+    private Usuario[] usuarios;
+    private AutorizacionService autorizacion;
+    private int siguiente;
+
+
+    @Setup
+    public void preparar() {
+        usuarios = new Usuario[USUARIOS];
+        for (int i = 0; i < USUARIOS; i++) {
+            usuarios[i] = new Usuario(DatosBenchmark.nombre(i), DatosBenchmark.PASSWORD, DatosBenchmark.rol(i));
+        }
+        autorizacion = new AutorizacionService();
+    }
+
+
+    @Benchmark
+    public boolean autorizarInstanceof() {
+        return siguienteUsuario().getRol() instanceof IPermisosAdmin;
+    }
+
+
+    @Benchmark
+    public boolean autorizarMascara() {
+        return autorizacion.autorizar(siguienteUsuario(), Permiso.GESTIONAR_USUARIOS);
+    }
+
+
+    @Benchmark
+    public void resolverTodosInstanceof(Blackhole bh) {
+        Rol rol = siguienteUsuario().getRol();
+        bh.consume(rol instanceof IPermisosBasicos);
+        bh.consume(rol instanceof IPermisosAdmin);
+        bh.consume(rol instanceof IPermisosInvitado);
+    }
+
+
+    @Benchmark
+    public void resolverTodosMascara(Blackhole bh) {
+        Rol rol = siguienteUsuario().getRol();
+        bh.consume(rol.tienePermiso(Permiso.ACCEDER));
+        bh.consume(rol.tienePermiso(Permiso.GESTIONAR_USUARIOS));
+        bh.consume(rol.tienePermiso(Permiso.VISTA_PUBLICA));
+    }
+
+
+    private Usuario siguienteUsuario() {
+        siguiente = (siguiente + 1) & (USUARIOS - 1);
+        return usuarios[siguiente];
+    }
+}
@@ -0,0 +1,67 @@
+package org.solid.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.solid.interfaces.IUsuarioRepositorio;
+import org.solid.models.Usuario;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Búsqueda por prefijo (top 10) con 1M usuarios: índice ordenado del repositorio
+ * concurrente frente al recorrido completo de la implementación por defecto.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class PrefijoBenchmark {
+
+
+    private static final int LIMITE = 10;
+
+
+    @Param({"1000000"})
+    private int usuarios;
+
+    /** "concurrente" usa la skip list; "compacto" usa el recorrido por defecto */
+    @Param({"concurrente", "compacto"})
+    private String repositorio;
+
+    private IUsuarioRepositorio repo;
+
+
+    @Setup
+    public void preparar() {
+        repo = DatosBenchmark.crearRepositorio(repositorio);
+        DatosBenchmark.poblar(repo, usuarios, DatosBenchmark.ITERACIONES_MINIMAS);
+    }
+
+
+    /** Prefijo con unas decenas de coincidencias (por ejemplo "usuario_4242") */
+    @Benchmark
+    public List<Usuario> prefijoSelectivo() {
+        return repo.buscarPorPrefijo(DatosBenchmark.nombre(ThreadLocalRandom.current().nextInt(1_000, 10_000)), LIMITE);
+    }
+
+
+    /** Prefijo que coincide con todos los usuarios: el límite corta la búsqueda */
+    @Benchmark
+    public List<Usuario> prefijoAmplio() {
+        return repo.buscarPorPrefijo("usuario_", LIMITE);
+    }
+}
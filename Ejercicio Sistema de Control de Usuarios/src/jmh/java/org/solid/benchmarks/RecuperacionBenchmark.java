@@ -0,0 +1,94 @@
+package org.solid.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.solid.models.Usuario;
+import org.solid.repositories.UsuarioRepositorioDurable;
+import org.solid.services.HashContrasenasService;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+
+/**
+ * Tiempo de arranque del repositorio durable: recuperar el estado desde una
+ * instantánea o reaplicando solo el diario.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class RecuperacionBenchmark {
+
+
+    private static final int TAMANO_LOTE = 10_000;
+
+
+    @Param({"100000", "1000000"})
+    private int usuarios;
+
+    /** "instantanea": todo el estado en la instantánea; "diario": todo en el diario */
+    @Param({"instantanea", "diario"})
+    private String origen;
+
+    private Path directorio;
+
+
+    @Setup
+    public void preparar() throws IOException {
+        directorio = Files.createTempDirectory("recuperacion");
+        String credencial = new HashContrasenasService(DatosBenchmark.ITERACIONES_MINIMAS)
+                .generar(DatosBenchmark.PASSWORD.toCharArray());
+
+        try (UsuarioRepositorioDurable repo = new UsuarioRepositorioDurable(directorio)) {
+            List<Usuario> lote = new ArrayList<>(TAMANO_LOTE);
+            for (int i = 0; i < usuarios; i++) {
+                lote.add(new Usuario(DatosBenchmark.nombre(i), credencial, DatosBenchmark.rol(i)));
+                if (lote.size() == TAMANO_LOTE) {
+                    repo.agregarLote(lote);
+                    lote.clear();
+                }
+            }
+            repo.agregarLote(lote);
+            if ("instantanea".equals(origen)) {
+                repo.tomarInstantanea();
+            }
+        }
+    }
+
+
+    @Benchmark
+    public int recuperar() throws IOException {
+        try (UsuarioRepositorioDurable repo = new UsuarioRepositorioDurable(directorio)) {
+            return repo.obtenerTodos().size();
+        }
+    }
+
+
+    @TearDown
+    public void limpiar() throws IOException {
+        try (Stream<Path> rutas = Files.walk(directorio)) {
+            for (Path ruta : rutas.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(ruta);
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package org.solid.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.solid.interfaces.IUsuarioRepositorio;
+import org.solid.services.HashContrasenasService;
+import org.solid.services.UsuarioService;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * Registro concurrente de usuarios desde varios hilos.
+ * El número de hilos se ajusta con {@code -t N}. El hash usa el costo mínimo
+ * para que domine la contención del repositorio.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Threads(4)
+public class RegistroBenchmark {
+
+
+    /** Usuarios precargados con los que compiten los registros duplicados */
+    private static final int PRECARGADOS = 10_000;
+
+
+    @Param({"memoria", "concurrente"})
+    private String repositorio;
+
+    private UsuarioService service;
+    private AtomicLong secuencia;
+
+
+    @Setup(Level.Iteration)
+    public void preparar() {
+        IUsuarioRepositorio repo = DatosBenchmark.crearRepositorio(repositorio);
+        service = new UsuarioService(repo, new HashContrasenasService(DatosBenchmark.ITERACIONES_MINIMAS));
+        DatosBenchmark.poblar(repo, PRECARGADOS, DatosBenchmark.ITERACIONES_MINIMAS);
+        secuencia = new AtomicLong(PRECARGADOS);
+    }
+
+
+    @Benchmark
+    public boolean registrarNuevo() {
+        long i = secuencia.getAndIncrement();
+        return service.crearUsuario(DatosBenchmark.nombre(i), DatosBenchmark.PASSWORD, DatosBenchmark.rol(i));
+    }
+
+
+    @Benchmark
+    public boolean registrarDuplicado() {
+        long i = secuencia.getAndIncrement() % PRECARGADOS;
+        return service.crearUsuario(DatosBenchmark.nombre(i), DatosBenchmark.PASSWORD, DatosBenchmark.rol(i));
+    }
+}
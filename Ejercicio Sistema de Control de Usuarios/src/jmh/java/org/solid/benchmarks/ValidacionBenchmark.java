@@ -0,0 +1,91 @@
+package org.solid.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.solid.services.ErrorValidacion;
+import org.solid.services.ValidadorRegistro;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+
+/**
+ * Validación del formulario de registro: {@link ValidadorRegistro} frente a la versión
+ * anterior de RegistroFrame, que copiaba las contraseñas a String, usaba {@code ^\w+$}
+ * y formateaba los mensajes con {@code String.format}.
+ *
+ * <p>Ejecutar con {@code -prof gc} para ver las asignaciones por operación.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidacionBenchmark {
+
+
+    private static final Pattern USERNAME_PATTERN = Pattern.compile("^\\w+$");
+    private static final String MSG_USERNAME_MAX = "El usuario no puede exceder %d caracteres.";
+    private static final String MSG_USERNAME_PATTERN = "El usuario solo puede contener letras, números y guión bajo.";
+    private static final String MSG_PASSWORD_MAX = "La contraseña no puede exceder %d caracteres.";
+    private static final String MSG_PASSWORD_NO_MATCH = "Las contraseñas no coinciden.";
+
+
+    /** "valido" recorre todas las reglas; "largo" falla en la longitud del username */
+    @Param({"valido", "caracteres", "largo"})
+    private String caso;
+
+    private String username;
+    private char[] password;
+    private char[] confirmacion;
+
+
+    @Setup
+    public void preparar() {
+        username = switch (caso) {
+            case "valido" -> "usuario_12345";
+            case "caracteres" -> "usuario-12345";
+            default -> "usuario_con_nombre_demasiado_largo";
+        };
+        password = DatosBenchmark.PASSWORD.toCharArray();
+        confirmacion = DatosBenchmark.PASSWORD.toCharArray();
+    }
+
+
+    @Benchmark
+    public ErrorValidacion validador() {
+        return ValidadorRegistro.validarRegistro(username, password, confirmacion);
+    }
+
+
+    @Benchmark
+    public String regex() {
+        return validarConRegex(username, new String(password), new String(confirmacion));
+    }
+
+
+    /** Reglas de RegistroFrame antes de ValidadorRegistro; devuelve el mensaje o null */
+    private static String validarConRegex(String username, String password, String confirmacion) {
+        String usernameTrim = username.trim();
+        if (usernameTrim.length() > ValidadorRegistro.MAX_USERNAME) {
+            return String.format(MSG_USERNAME_MAX, ValidadorRegistro.MAX_USERNAME);
+        }
+        if (!USERNAME_PATTERN.matcher(usernameTrim).matches()) {
+            return MSG_USERNAME_PATTERN;
+        }
+        if (password.length() > ValidadorRegistro.MAX_PASSWORD) {
+            return String.format(MSG_PASSWORD_MAX, ValidadorRegistro.MAX_PASSWORD);
+        }
+        return password.equals(confirmacion) ? null : MSG_PASSWORD_NO_MATCH;
+    }
+}
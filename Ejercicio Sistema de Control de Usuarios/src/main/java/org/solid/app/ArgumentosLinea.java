@@ -0,0 +1,64 @@
+package org.solid.app;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+
+/**
+ * Lectura mínima de argumentos {@code --clave valor} y banderas {@code --bandera}
+ * para los puntos de entrada sin interfaz gráfica.
+ */
+final class ArgumentosLinea {
+
+
+    private final Map<String, String> valores = new HashMap<>();
+    private final Set<String> banderas = new HashSet<>();
+
+
+    /**
+     * @param args     Argumentos de {@code main}
+     * @param banderas Opciones que no llevan valor
+     * @throws IllegalArgumentException si un argumento no tiene el formato esperado
+     */
+    ArgumentosLinea(String[] args, Set<String> banderas) {
+        for (int i = 0; i < args.length; i++) {
+            String argumento = args[i];
+            if (!argumento.startsWith("--")) {
+                throw new IllegalArgumentException("Argumento inesperado: " + argumento);
+            }
+            String clave = argumento.substring(2);
+            if (banderas.contains(clave)) {
+                this.banderas.add(clave);
+            } else if (i + 1 < args.length) {
+                valores.put(clave, args[++i]);
+            } else {
+                throw new IllegalArgumentException("Falta el valor de " + argumento);
+            }
+        }
+    }
+
+
+    String texto(String clave, String porDefecto) {
+        return valores.getOrDefault(clave, porDefecto);
+    }
+
+
+    int entero(String clave, int porDefecto) {
+        String valor = valores.get(clave);
+        if (valor == null) {
+            return porDefecto;
+        }
+        try {
+            return Integer.parseInt(valor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("--" + clave + " debe ser un número entero: " + valor, e);
+        }
+    }
+
+
+    boolean bandera(String clave) {
+        return banderas.contains(clave);
+    }
+}
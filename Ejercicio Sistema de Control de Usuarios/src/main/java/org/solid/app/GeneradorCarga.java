@@ -0,0 +1,215 @@
+package org.solid.app;
+
+import org.solid.metricas.HistogramaLatencia;
+import org.solid.metricas.RegistroMetricas;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Cliente de carga para {@link ServidorLogin}: mide peticiones por segundo y latencia.
+ *
+ * <p>Primero registra un conjunto de usuarios de prueba y luego cada cliente concurrente
+ * repite la operación elegida hasta agotar el tiempo. Al final informa el total, los
+ * errores, el rendimiento y los percentiles p50, p90, p99 y p99.9.</p>
+ *
+ * <p>Opciones:</p>
+ * <ul>
+ *   <li>{@code --url U}: servidor (http://localhost:8080 por defecto)</li>
+ *   <li>{@code --operacion login|consulta|registro}: operación medida (login por defecto)</li>
+ *   <li>{@code --clientes N}: clientes concurrentes (64)</li>
+ *   <li>{@code --segundos N}: duración de la medición (10)</li>
+ *   <li>{@code --usuarios N}: usuarios de prueba registrados antes de medir (100)</li>
+ * </ul>
+ *
+ * <p>Para medir logins, el servidor debe iniciarse con {@code --sin-limitador}; de lo
+ * contrario la limitación por origen rechaza casi todos los intentos.</p>
+ */
+public class GeneradorCarga {
+
+
+    private static final String PASSWORD = "Carga123!";
+    private static final String ROL = "Usuario";
+
+
+    private final HttpClient cliente;
+    private final String url;
+    private final String prefijo;
+    private final int usuarios;
+
+    private final HistogramaLatencia latencia;
+    private final LongAdder exitos = new LongAdder();
+    private final LongAdder errores = new LongAdder();
+    private final LongAdder registrados = new LongAdder();
+
+    private volatile String tokenConsulta;
+
+
+    private GeneradorCarga(HttpClient cliente, String url, int usuarios) {
+        this.cliente = cliente;
+        this.url = url;
+        this.usuarios = usuarios;
+        // Corto y sin guiones para cumplir las reglas de ValidadorRegistro
+        this.prefijo = "c" + Long.toString(System.currentTimeMillis() / 1000 % 1_679_616L, 36) + "_";
+        this.latencia = new RegistroMetricas().histograma("carga");
+    }
+
+
+    public static void main(String[] args) throws Exception {
+        ArgumentosLinea argumentos = new ArgumentosLinea(args, Set.of());
+        String url = argumentos.texto("url", "http://localhost:8080");
+        String operacion = argumentos.texto("operacion", "login");
+        int clientes = argumentos.entero("clientes", 64);
+        int segundos = argumentos.entero("segundos", 10);
+        int usuarios = argumentos.entero("usuarios", 100);
+        if (!Set.of("login", "consulta", "registro").contains(operacion)) {
+            throw new IllegalArgumentException("Operación desconocida: " + operacion);
+        }
+        if (clientes <= 0 || segundos <= 0 || usuarios <= 0) {
+            throw new IllegalArgumentException("clientes, segundos y usuarios deben ser positivos");
+        }
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient cliente = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .executor(executor)
+                     .build()) {
+            GeneradorCarga generador = new GeneradorCarga(cliente, url, usuarios);
+            generador.preparar(executor, clientes);
+            generador.medir(executor, operacion, clientes, segundos);
+        }
+    }
+
+
+    /**
+     * Registra los usuarios de prueba y abre la sesión usada por las consultas.
+     */
+    private void preparar(ExecutorService executor, int clientes) throws Exception {
+        System.out.printf("Registrando %d usuarios de prueba...%n", usuarios);
+        List<Future<?>> tareas = new ArrayList<>();
+        for (int c = 0; c < clientes; c++) {
+            int inicio = c;
+            tareas.add(executor.submit(() -> {
+                for (int i = inicio; i < usuarios; i += clientes) {
+                    if (enviar(formulario("/registro", nombre(i), PASSWORD, ROL)).statusCode() != 201) {
+                        throw new IllegalStateException("No se pudo registrar " + nombre(i));
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> tarea : tareas) {
+            tarea.get();
+        }
+
+        HttpResponse<String> login = enviar(formulario("/login", nombre(0), PASSWORD, null));
+        if (login.statusCode() != 200) {
+            throw new IllegalStateException("El login de preparación falló con estado " + login.statusCode());
+        }
+        tokenConsulta = login.body();
+    }
+
+
+    private void medir(ExecutorService executor, String operacion, int clientes, int segundos) throws Exception {
+        System.out.printf("Midiendo '%s' con %d clientes durante %d s...%n", operacion, clientes, segundos);
+        long inicio = System.nanoTime();
+        long fin = inicio + TimeUnit.SECONDS.toNanos(segundos);
+
+        List<Future<?>> tareas = new ArrayList<>();
+        for (int c = 0; c < clientes; c++) {
+            int idCliente = c;
+            tareas.add(executor.submit(() -> {
+                for (int k = 0; System.nanoTime() < fin; k++) {
+                    ejecutar(operacion, idCliente, k);
+                }
+                return null;
+            }));
+        }
+        for (Future<?> tarea : tareas) {
+            tarea.get();
+        }
+        informar(System.nanoTime() - inicio);
+    }
+
+
+    private void ejecutar(String operacion, int idCliente, int secuencia) {
+        int i = ThreadLocalRandom.current().nextInt(usuarios);
+        HttpRequest peticion = switch (operacion) {
+            case "login" -> formulario("/login", nombre(i), PASSWORD, null);
+            case "consulta" -> HttpRequest.newBuilder(URI.create(url + "/usuarios/" + nombre(i)))
+                    .header("Authorization", "Bearer " + tokenConsulta)
+                    .GET()
+                    .build();
+            default -> formulario("/registro", prefijo + idCliente + "_" + secuencia, PASSWORD, ROL);
+        };
+        int esperado = "registro".equals(operacion) ? 201 : 200;
+
+        long inicio = System.nanoTime();
+        try {
+            int estado = enviar(peticion).statusCode();
+            latencia.registrar(System.nanoTime() - inicio);
+            (estado == esperado ? exitos : errores).increment();
+        } catch (IOException e) {
+            errores.increment();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            errores.increment();
+        }
+    }
+
+
+    private void informar(long duracionNanos) {
+        HistogramaLatencia.Instantanea datos = latencia.instantanea();
+        double segundos = duracionNanos / 1e9;
+        long total = exitos.sum() + errores.sum();
+
+        System.out.printf(Locale.ROOT, "Peticiones: %d (%d errores)%n", total, errores.sum());
+        System.out.printf(Locale.ROOT, "Rendimiento: %.1f peticiones/s%n", total / segundos);
+        System.out.printf(Locale.ROOT, "Latencia (ms): promedio %.2f | p50 %.2f | p90 %.2f | p99 %.2f | p99.9 %.2f%n",
+                datos.getPromedio() / 1e6,
+                datos.percentil(0.5) / 1e6,
+                datos.percentil(0.9) / 1e6,
+                datos.percentil(0.99) / 1e6,
+                datos.percentil(0.999) / 1e6);
+    }
+
+
+    private HttpResponse<String> enviar(HttpRequest peticion) throws IOException, InterruptedException {
+        return cliente.send(peticion, HttpResponse.BodyHandlers.ofString());
+    }
+
+
+    private HttpRequest formulario(String ruta, String username, String password, String rol) {
+        StringBuilder cuerpo = new StringBuilder()
+                .append("username=").append(URLEncoder.encode(username, StandardCharsets.UTF_8))
+                .append("&password=").append(URLEncoder.encode(password, StandardCharsets.UTF_8));
+        if (rol != null) {
+            cuerpo.append("&rol=").append(URLEncoder.encode(rol, StandardCharsets.UTF_8));
+        }
+        return HttpRequest.newBuilder(URI.create(url + ruta))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(cuerpo.toString()))
+                .build();
+    }
+
+
+    private String nombre(int i) {
+        return prefijo + "u" + i;
+    }
+}
@@ -2,17 +2,19 @@ package org.solid.app;
 
 import org.solid.models.*;
 import org.solid.services.AutenticacionService;
+import org.solid.services.HashContrasenasService;
 
 
 public class Main_simple {
     public static void main(String[] args) {
 
 
-        AutenticacionService auth = new AutenticacionService();
+        HashContrasenasService hasher = new HashContrasenasService();
+        AutenticacionService auth = new AutenticacionService(hasher, null);
 
 
-        Usuario admin = new Usuario("maria", "1234", new Administrador());
-        Usuario invitado = new Usuario("juan", "1111", new Invitado());
+        Usuario admin = new Usuario("maria", hasher.generar("1234".toCharArray()), new Administrador());
+        Usuario invitado = new Usuario("juan", hasher.generar("1111".toCharArray()), new Invitado());
 
 
         if (auth.autenticar(admin, "maria", "1234")) {
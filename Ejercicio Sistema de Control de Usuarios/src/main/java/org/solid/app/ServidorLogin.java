@@ -0,0 +1,96 @@
+package org.solid.app;
+
+import org.solid.auditoria.RegistroAuditoria;
+import org.solid.interfaces.IAuditoria;
+import org.solid.interfaces.IAutenticacion;
+import org.solid.interfaces.IUsuarioRepositorio;
+import org.solid.metricas.Metricas;
+import org.solid.metricas.RegistroMetricas;
+import org.solid.repositories.UsuarioRepositorioConcurrente;
+import org.solid.repositories.UsuarioRepositorioInstrumentado;
+import org.solid.services.AutenticacionAuditada;
+import org.solid.services.AutenticacionInstrumentada;
+import org.solid.services.AutenticacionLimitada;
+import org.solid.services.AutenticacionService;
+import org.solid.services.GestorSesiones;
+import org.solid.services.HashContrasenasService;
+import org.solid.services.UsuarioService;
+import org.solid.services.UsuarioServiceInstrumentado;
+import org.solid.servidor.ServidorUsuarios;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Set;
+
+
+/**
+ * Punto de entrada sin interfaz gráfica: expone registro, login y consulta por HTTP
+ * (ver {@link ServidorUsuarios}) con las mismas piezas que usa la interfaz Swing.
+ *
+ * <p>Opciones:</p>
+ * <ul>
+ *   <li>{@code --puerto N}: puerto de escucha (8080 por defecto)</li>
+ *   <li>{@code --iteraciones N}: iteraciones PBKDF2 de las contraseñas nuevas</li>
+ *   <li>{@code --sin-limitador}: desactiva la limitación de intentos de login,
+ *       necesario para pruebas de carga desde un único origen</li>
+ *   <li>{@code --auditoria DIR}: guarda logins y altas de usuarios en archivos GZIP
+ *       rotativos dentro del directorio (ver {@link RegistroAuditoria})</li>
+ * </ul>
+ */
+public class ServidorLogin {
+
+
+    private static final int PUERTO_POR_DEFECTO = 8080;
+    private static final String PROPIEDAD_NODELAY = "sun.net.httpserver.nodelay";
+
+
+    public static void main(String[] args) throws IOException {
+        // Sin TCP_NODELAY, Nagle y el ACK retardado agregan ~40 ms a cada respuesta pequeña.
+        // El servidor del JDK lee la propiedad una sola vez, al crear el primer HttpServer
+        if (System.getProperty(PROPIEDAD_NODELAY) == null) {
+            System.setProperty(PROPIEDAD_NODELAY, "true");
+        }
+
+        ArgumentosLinea argumentos = new ArgumentosLinea(args, Set.of("sin-limitador"));
+        int puerto = argumentos.entero("puerto", PUERTO_POR_DEFECTO);
+        int iteraciones = argumentos.entero("iteraciones", HashContrasenasService.ITERACIONES_POR_DEFECTO);
+
+        RegistroMetricas metricas = new RegistroMetricas();
+        Metricas.publicarJmx(metricas);
+
+        String directorioAuditoria = argumentos.texto("auditoria", null);
+        RegistroAuditoria registroAuditoria = directorioAuditoria == null
+                ? null : new RegistroAuditoria(Path.of(directorioAuditoria));
+        IAuditoria auditoria = registroAuditoria == null ? IAuditoria.NINGUNA : registroAuditoria;
+
+        HashContrasenasService hasher = new HashContrasenasService(iteraciones);
+        IUsuarioRepositorio repo = new UsuarioRepositorioInstrumentado(new UsuarioRepositorioConcurrente(), metricas);
+        UsuarioService usuarioService = new UsuarioServiceInstrumentado(repo, hasher, metricas, auditoria);
+
+        IAutenticacion autenticacion = new AutenticacionService(hasher, null);
+        AutenticacionLimitada limitador = argumentos.bandera("sin-limitador")
+                ? null : new AutenticacionLimitada(autenticacion);
+        if (limitador != null) {
+            autenticacion = limitador;
+        }
+        autenticacion = new AutenticacionAuditada(autenticacion, auditoria);
+        autenticacion = new AutenticacionInstrumentada(autenticacion, metricas);
+
+        GestorSesiones sesiones = new GestorSesiones(autenticacion);
+        ServidorUsuarios servidor = new ServidorUsuarios(usuarioService, sesiones, puerto, metricas);
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            servidor.close();
+            sesiones.close();
+            if (limitador != null) {
+                limitador.close();
+            }
+            if (registroAuditoria != null) {
+                registroAuditoria.close();
+            }
+        }, "cierre-servidor"));
+
+        System.out.println("Servidor escuchando en http://localhost:" + servidor.getPuerto()
+                + " (métricas en /metricas)");
+    }
+}
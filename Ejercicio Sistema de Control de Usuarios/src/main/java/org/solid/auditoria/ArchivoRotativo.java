@@ -0,0 +1,169 @@
+package org.solid.auditoria;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.zip.GZIPOutputStream;
+
+
+/**
+ * Archivos de auditoría comprimidos con GZIP que se rotan por tamaño.
+ *
+ * <p>Cada archivo ({@code auditoria-000001.log.gz}, {@code auditoria-000002.log.gz}, ...) se
+ * crea nuevo y solo crece al final; al reabrir el directorio se continúa con el número
+ * siguiente al mayor existente, sin tocar los anteriores. Cada línea es
+ * {@code instante<TAB>tipo<TAB>username<TAB>origen}, con "-" para los campos desconocidos.</p>
+ *
+ * <p>Lo usa solo el hilo consumidor de {@link RegistroAuditoria}.</p>
+ */
+final class ArchivoRotativo implements Closeable {
+
+
+    private static final String PREFIJO = "auditoria-";
+    private static final String EXTENSION = ".log.gz";
+
+    private static final DateTimeFormatter FORMATO_SEGUNDO =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.").withZone(ZoneOffset.UTC);
+
+
+    private final Path directorio;
+    private final long bytesPorArchivo;
+
+    private int numero;
+    private Writer salida;
+    private long escritos;
+    private boolean sinVaciar;
+
+    /** Segundo del último instante escrito y su texto ISO-8601 hasta el punto decimal */
+    private long segundo = Long.MIN_VALUE;
+    private String prefijoSegundo;
+
+
+    /**
+     * @param bytesPorArchivo Tamaño sin comprimir a partir del cual se pasa al archivo siguiente
+     */
+    ArchivoRotativo(Path directorio, long bytesPorArchivo) throws IOException {
+        this.directorio = Files.createDirectories(directorio);
+        this.bytesPorArchivo = bytesPorArchivo;
+        this.numero = mayorExistente(directorio);
+    }
+
+
+    void escribir(long instante, String tipo, char[] username, int largoUsername,
+                  char[] origen, int largoOrigen) throws IOException {
+        if (salida == null) {
+            abrirSiguiente();
+        }
+        escribirInstante(instante);
+        salida.write('\t');
+        salida.write(tipo);
+        salida.write('\t');
+        escribirCampo(username, largoUsername);
+        salida.write('\t');
+        escribirCampo(origen, largoOrigen);
+        salida.write('\n');
+        sinVaciar = true;
+
+        // Aproximado: instante de 24 caracteres, 4 separadores y un byte por carácter
+        escritos += 28 + tipo.length() + Math.max(1, largoUsername) + Math.max(1, largoOrigen);
+        if (escritos >= bytesPorArchivo) {
+            cerrarActual();
+        }
+    }
+
+
+    /**
+     * Lleva lo escrito hasta el archivo (flush de GZIP con sincronización), para que un
+     * corte abrupto pierda solo los eventos posteriores.
+     */
+    void vaciar() throws IOException {
+        if (salida != null && sinVaciar) {
+            sinVaciar = false;
+            salida.flush();
+        }
+    }
+
+
+    /**
+     * Cierra el archivo actual; la próxima escritura abre el siguiente.
+     */
+    void cerrarActual() throws IOException {
+        if (salida != null) {
+            Writer actual = salida;
+            salida = null;
+            actual.close();
+        }
+    }
+
+
+    @Override
+    public void close() throws IOException {
+        cerrarActual();
+    }
+
+
+    /**
+     * Escribe el instante como {@code 2024-01-31T12:00:00.123Z}. Los eventos llegan casi
+     * siempre dentro del mismo segundo: la parte hasta los segundos se formatea una vez por
+     * segundo y los milisegundos se escriben a mano, sin crear objetos por evento.
+     */
+    private void escribirInstante(long instante) throws IOException {
+        long segundoEvento = Math.floorDiv(instante, 1000L);
+        if (segundoEvento != segundo) {
+            segundo = segundoEvento;
+            prefijoSegundo = FORMATO_SEGUNDO.format(Instant.ofEpochSecond(segundoEvento));
+        }
+        int milisegundos = (int) Math.floorMod(instante, 1000L);
+        salida.write(prefijoSegundo);
+        salida.write('0' + milisegundos / 100);
+        salida.write('0' + milisegundos / 10 % 10);
+        salida.write('0' + milisegundos % 10);
+        salida.write('Z');
+    }
+
+
+    private void escribirCampo(char[] campo, int largo) throws IOException {
+        if (largo == 0) {
+            salida.write('-');
+        } else {
+            salida.write(campo, 0, largo);
+        }
+    }
+
+
+    private void abrirSiguiente() throws IOException {
+        numero++;
+        Path ruta = directorio.resolve(String.format("%s%06d%s", PREFIJO, numero, EXTENSION));
+        GZIPOutputStream gzip = new GZIPOutputStream(
+                Files.newOutputStream(ruta, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE), 64 * 1024, true);
+        salida = new BufferedWriter(new OutputStreamWriter(gzip, StandardCharsets.UTF_8), 64 * 1024);
+        escritos = 0;
+    }
+
+
+    private static int mayorExistente(Path directorio) throws IOException {
+        int mayor = 0;
+        try (DirectoryStream<Path> archivos = Files.newDirectoryStream(directorio, PREFIJO + "*" + EXTENSION)) {
+            for (Path archivo : archivos) {
+                String nombre = archivo.getFileName().toString();
+                String numero = nombre.substring(PREFIJO.length(), nombre.length() - EXTENSION.length());
+                try {
+                    mayor = Math.max(mayor, Integer.parseInt(numero));
+                } catch (NumberFormatException e) {
+                    // Archivo ajeno con el mismo prefijo: no cuenta para la numeración
+                }
+            }
+        }
+        return mayor;
+    }
+}
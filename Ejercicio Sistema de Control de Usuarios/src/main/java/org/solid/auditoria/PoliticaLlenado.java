@@ -0,0 +1,14 @@
+package org.solid.auditoria;
+
+
+/**
+ * Qué hace {@link RegistroAuditoria#publicar} cuando el buffer está lleno.
+ */
+public enum PoliticaLlenado {
+
+    /** Descarta el evento y lo cuenta: el hilo llamador nunca espera */
+    DESCARTAR,
+
+    /** Espera a que el consumidor libere lugar: no se pierden eventos, pero la escritura frena a los llamadores */
+    BLOQUEAR
+}
@@ -0,0 +1,316 @@
+package org.solid.auditoria;
+
+import org.solid.interfaces.IAuditoria;
+import org.solid.models.TipoEvento;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+
+/**
+ * Auditoría asíncrona: los hilos de autenticación y registro dejan cada evento en un buffer
+ * circular y un único hilo de fondo los escribe en archivos GZIP rotativos
+ * ({@link ArchivoRotativo}), así la E/S nunca queda en el camino de la petición.
+ *
+ * <p>El buffer es un arreglo de ranuras preasignadas. Cada productor reserva una secuencia
+ * con un CAS, copia los campos en la ranura (el username y el origen se copian como
+ * caracteres, truncados a {@value #MAX_CARACTERES}) y la publica escribiendo su secuencia
+ * en la ranura. Publicar no toma bloqueos ni reserva memoria. El consumidor lee en orden
+ * las ranuras ya publicadas, en lotes de hasta {@value #LOTE_MAXIMO}, y recién después
+ * libera ese lugar para los productores.</p>
+ *
+ * <p>Con el buffer lleno se aplica la {@link PoliticaLlenado} configurada. Los caracteres de
+ * control del username y del origen se reemplazan por '?', para que un username no pueda
+ * inventar líneas en el archivo.</p>
+ *
+ * <p>{@link #close()} deja de aceptar eventos, escribe los pendientes y cierra el archivo.
+ * Un evento publicado al mismo tiempo que el cierre puede perderse.</p>
+ */
+public class RegistroAuditoria implements IAuditoria, AutoCloseable {
+
+
+    public static final int CAPACIDAD_POR_DEFECTO = 1 << 16;
+    public static final long BYTES_POR_ARCHIVO_POR_DEFECTO = 64L * 1024 * 1024;
+
+    /** Caracteres guardados del username y del origen; el resto se trunca */
+    public static final int MAX_CARACTERES = 64;
+
+    private static final int LOTE_MAXIMO = 512;
+
+    /** Pausa del consumidor cuando no hay eventos y de un productor bloqueado con el buffer lleno */
+    private static final long ESPERA_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long ESPERA_CIERRE_MILLIS = 10_000L;
+
+
+    private final Evento[] eventos;
+    private final int mascara;
+
+    /** Secuencia publicada en cada ranura; -1 mientras no se publicó ninguna */
+    private final AtomicLongArray publicados;
+
+    /** Próxima secuencia a reservar por un productor */
+    private final AtomicLong reservado = new AtomicLong();
+
+    /** Próxima secuencia que leerá el consumidor: las anteriores ya liberaron su ranura */
+    private volatile long consumido;
+
+    private final PoliticaLlenado politica;
+    private final ArchivoRotativo archivo;
+    private final Thread consumidor;
+    private volatile boolean cerrado;
+
+    private final LongAdder descartados = new LongAdder();
+
+    /** Los escribe solo el consumidor */
+    private volatile long escritos;
+    private volatile long errores;
+    private volatile IOException ultimoError;
+
+
+    /**
+     * Buffer de {@value #CAPACIDAD_POR_DEFECTO} eventos que descarta cuando se llena,
+     * con archivos de 64 MB sin comprimir.
+     */
+    public RegistroAuditoria(Path directorio) {
+        this(directorio, CAPACIDAD_POR_DEFECTO, PoliticaLlenado.DESCARTAR, BYTES_POR_ARCHIVO_POR_DEFECTO);
+    }
+
+
+    /**
+     * @param directorio      Directorio de los archivos de auditoría; se crea si no existe
+     * @param capacidad       Eventos en espera como máximo; se redondea a la potencia de 2 siguiente
+     * @param politica        Qué hacer cuando el buffer está lleno
+     * @param bytesPorArchivo Tamaño sin comprimir a partir del cual se rota el archivo
+     * @throws IllegalArgumentException si la capacidad o el tamaño no son positivos
+     * @throws UncheckedIOException     si el directorio no puede crearse o leerse
+     */
+    public RegistroAuditoria(Path directorio, int capacidad, PoliticaLlenado politica, long bytesPorArchivo) {
+        if (capacidad <= 0 || capacidad > 1 << 30 || bytesPorArchivo <= 0) {
+            throw new IllegalArgumentException("Parámetros de auditoría inválidos");
+        }
+        int ranuras = capacidad == 1 ? 1 : Integer.highestOneBit(capacidad - 1) << 1;
+        this.eventos = new Evento[ranuras];
+        this.publicados = new AtomicLongArray(ranuras);
+        for (int i = 0; i < ranuras; i++) {
+            eventos[i] = new Evento();
+            publicados.set(i, -1);
+        }
+        this.mascara = ranuras - 1;
+        this.politica = politica;
+
+        try {
+            this.archivo = new ArchivoRotativo(directorio, bytesPorArchivo);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo abrir el directorio de auditoría: " + directorio, e);
+        }
+
+        this.consumidor = new Thread(this::consumir, "auditoria");
+        consumidor.setDaemon(true);
+        consumidor.start();
+    }
+
+
+    /**
+     * @return false si el evento se descartó por buffer lleno o registro cerrado
+     */
+    @Override
+    public boolean publicar(TipoEvento tipo, CharSequence username, CharSequence origen) {
+        long secuencia;
+        while (true) {
+            if (cerrado) {
+                descartados.increment();
+                return false;
+            }
+            secuencia = reservado.get();
+            if (secuencia - consumido >= eventos.length) {
+                if (politica == PoliticaLlenado.DESCARTAR) {
+                    descartados.increment();
+                    return false;
+                }
+                LockSupport.parkNanos(ESPERA_NANOS);
+            } else if (reservado.compareAndSet(secuencia, secuencia + 1)) {
+                break;
+            }
+        }
+
+        int indice = (int) secuencia & mascara;
+        eventos[indice].cargar(System.currentTimeMillis(), tipo, username, origen);
+        // Escritura con semántica release: el consumidor que vea la secuencia ve los campos
+        publicados.lazySet(indice, secuencia);
+        return true;
+    }
+
+
+    /**
+     * @return Eventos aceptados en el buffer desde la creación
+     */
+    public long getPublicados() {
+        return reservado.get();
+    }
+
+
+    /**
+     * @return Eventos descartados por buffer lleno o registro cerrado
+     */
+    public long getDescartados() {
+        return descartados.sum();
+    }
+
+
+    /**
+     * @return Eventos entregados al archivo
+     */
+    public long getEscritos() {
+        return escritos;
+    }
+
+
+    /**
+     * @return Eventos aceptados que todavía no se escribieron
+     */
+    public long getPendientes() {
+        return reservado.get() - consumido;
+    }
+
+
+    /**
+     * @return Escrituras de archivo fallidas; cada una pierde su evento o lo no vaciado del archivo
+     */
+    public long getErrores() {
+        return errores;
+    }
+
+
+    /**
+     * @return Último error de escritura, o null si no hubo
+     */
+    public IOException getUltimoError() {
+        return ultimoError;
+    }
+
+
+    /**
+     * Deja de aceptar eventos y espera a que el consumidor escriba los pendientes.
+     */
+    @Override
+    public void close() {
+        cerrado = true;
+        LockSupport.unpark(consumidor);
+        try {
+            consumidor.join(ESPERA_CIERRE_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+
+    private void consumir() {
+        long siguiente = 0;
+        while (true) {
+            int leidos = 0;
+            while (leidos < LOTE_MAXIMO) {
+                int indice = (int) siguiente & mascara;
+                if (publicados.get(indice) != siguiente) {
+                    break;
+                }
+                escribir(eventos[indice]);
+                siguiente++;
+                leidos++;
+            }
+            if (leidos > 0) {
+                consumido = siguiente;
+                continue;
+            }
+
+            // Sin eventos nuevos: se aprovecha para llevar el lote al disco
+            try {
+                archivo.vaciar();
+            } catch (IOException e) {
+                registrarError(e);
+            }
+            if (cerrado && siguiente == reservado.get()) {
+                break;
+            }
+            LockSupport.parkNanos(ESPERA_NANOS);
+        }
+
+        try {
+            archivo.close();
+        } catch (IOException e) {
+            registrarError(e);
+        }
+    }
+
+
+    /**
+     * Un evento que no pudo escribirse se da por perdido, para no reintentarlo para siempre.
+     */
+    private void escribir(Evento evento) {
+        try {
+            evento.escribirEn(archivo);
+            escritos++;
+        } catch (IOException e) {
+            registrarError(e);
+        }
+    }
+
+
+    private void registrarError(IOException e) {
+        errores++;
+        ultimoError = e;
+        try {
+            // El archivo pudo quedar a medio escribir: se sigue en uno nuevo
+            archivo.cerrarActual();
+        } catch (IOException ignorada) {
+            // Ya se registró el error original
+        }
+    }
+
+
+    /**
+     * Ranura preasignada del buffer. La escribe el productor que la reservó y la lee el
+     * consumidor después de ver su secuencia publicada.
+     */
+    private static final class Evento {
+
+
+        private long instante;
+        private TipoEvento tipo;
+        private final char[] username = new char[MAX_CARACTERES];
+        private int largoUsername;
+        private final char[] origen = new char[MAX_CARACTERES];
+        private int largoOrigen;
+
+
+        void cargar(long instante, TipoEvento tipo, CharSequence username, CharSequence origen) {
+            this.instante = instante;
+            this.tipo = tipo;
+            this.largoUsername = copiar(username, this.username);
+            this.largoOrigen = copiar(origen, this.origen);
+        }
+
+
+        void escribirEn(ArchivoRotativo archivo) throws IOException {
+            archivo.escribir(instante, tipo.name(), username, largoUsername, origen, largoOrigen);
+        }
+
+
+        private static int copiar(CharSequence texto, char[] destino) {
+            if (texto == null) {
+                return 0;
+            }
+            int largo = Math.min(texto.length(), destino.length);
+            for (int i = 0; i < largo; i++) {
+                char c = texto.charAt(i);
+                destino[i] = c < ' ' || c == 0x7F ? '?' : c;
+            }
+            return largo;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package org.solid.interfaces;
+
+import org.solid.models.TipoEvento;
+
+
+/**
+ * Destino de los eventos de auditoría de autenticación y registro.
+ * Aplica DIP: los servicios publican sin conocer cómo ni dónde se guardan.
+ */
+public interface IAuditoria {
+
+    /** Auditoría que no guarda nada, para cuando no se configura una */
+    IAuditoria NINGUNA = (tipo, username, origen) -> true;
+
+    /**
+     * Publica un evento. Las implementaciones no deben hacer E/S en el hilo llamador.
+     *
+     * @param tipo     Tipo de evento
+     * @param username Username tal como llegó, o null
+     * @param origen   Origen del intento (por ejemplo, la IP del cliente), o null si no se conoce
+     * @return false si el evento se descartó
+     */
+    boolean publicar(TipoEvento tipo, CharSequence username, CharSequence origen);
+}
@@ -9,4 +9,12 @@ import org.solid.models.Usuario;
  */
 public interface IAutenticacion {
     boolean autenticar(Usuario usuario, String username, String password);
+
+    /**
+     * Variante que informa el origen del intento (por ejemplo, la IP del cliente).
+     * Por defecto el origen se ignora.
+     */
+    default boolean autenticar(Usuario usuario, String username, String password, String origen) {
+        return autenticar(usuario, username, password);
+    }
 }
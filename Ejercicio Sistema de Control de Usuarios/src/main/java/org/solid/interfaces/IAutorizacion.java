@@ -0,0 +1,13 @@
+package org.solid.interfaces;
+
+import org.solid.models.Permiso;
+import org.solid.models.Usuario;
+
+
+/**
+ * Interface para autorización.
+ * Aplica DIP: las clases dependen de abstracciones.
+ */
+public interface IAutorizacion {
+    boolean autorizar(Usuario usuario, Permiso permiso);
+}
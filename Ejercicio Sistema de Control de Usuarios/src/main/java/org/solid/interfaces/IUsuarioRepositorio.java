@@ -1,15 +1,145 @@
 package org.solid.interfaces;
 
+import org.solid.models.NombreUsuario;
+import org.solid.models.PaginaUsuarios;
+import org.solid.models.TipoRol;
 import org.solid.models.Usuario;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.stream.Stream;
 
 
 /**
  * Repositorio abstracto para manejar usuarios.
  * Aplica DIP: las capas superiores dependen de esta abstracción.
+ *
+ * <p>Los usernames se comparan por su forma canónica ({@link NombreUsuario}): "Maria" y
+ * "maria" son la misma cuenta, tanto al buscar como al detectar duplicados.</p>
  */
 public interface IUsuarioRepositorio {
     void agregarUsuario(Usuario usuario);
+
+    /**
+     * Agrega el usuario solo si no existe otro con el mismo username.
+     * La comprobación y la inserción ocurren de forma atómica.
+     *
+     * @return true si el usuario fue agregado, false si el username ya existía
+     */
+    boolean agregarSiAusente(Usuario usuario);
+
+    /**
+     * Indica si conviene buscar el username antes de {@link #agregarSiAusente}, para no
+     * preparar (por ejemplo, derivar la credencial de) una cuenta que va a ser rechazada.
+     * Por defecto true: buscar un username inexistente no sale de la memoria. Un repositorio
+     * donde esa búsqueda es otro viaje al almacenamiento devuelve false, porque el alta ya
+     * detecta el duplicado en la misma operación.
+     */
+    default boolean buscarAntesDeAgregar() {
+        return true;
+    }
+
+    /**
+     * Agrega un lote de usuarios en una sola pasada.
+     * Se descartan los que ya existen en el repositorio y los repetidos dentro del lote
+     * (gana la primera aparición).
+     *
+     * @param lote Usuarios a agregar
+     * @return Usuarios no agregados, en el mismo orden del lote
+     */
+    default List<Usuario> agregarLote(List<Usuario> lote) {
+        List<Usuario> rechazados = new ArrayList<>();
+        for (Usuario usuario : lote) {
+            if (!agregarSiAusente(usuario)) {
+                rechazados.add(usuario);
+            }
+        }
+        return rechazados;
+    }
+
+    /**
+     * @param username Username en cualquier forma equivalente a la canónica
+     * @return Usuario, o null si no existe o el username es null
+     */
     Usuario buscarPorUsername(String username);
     List<Usuario> obtenerTodos();
+
+    /**
+     * Recorre los usuarios sin exigir una lista completa en memoria.
+     * Por defecto recorre la copia que entrega {@link #obtenerTodos()}; las implementaciones
+     * que pueden recorrer una instantánea sin copiarla lo sobrescriben.
+     */
+    default Stream<Usuario> flujo() {
+        return obtenerTodos().stream();
+    }
+
+    /**
+     * Variante de {@link #flujo()} con solo los usuarios del rol indicado.
+     */
+    default Stream<Usuario> flujoPorRol(TipoRol rol) {
+        return flujo().filter(usuario -> usuario.getRol() == rol.getRol());
+    }
+
+    /**
+     * Cantidad de usuarios con el rol indicado. Por defecto recorre {@link #flujoPorRol};
+     * las implementaciones con índice por rol lo responden sin recorrer.
+     */
+    default long contarPorRol(TipoRol rol) {
+        return flujoPorRol(rol).count();
+    }
+
+    /**
+     * Búsqueda para autocompletar: usuarios cuyo username empieza con el prefijo,
+     * en orden lexicográfico de su forma canónica. Por defecto recorre todo el repositorio; las implementaciones
+     * con un índice ordenado lo resuelven recorriendo solo las coincidencias.
+     *
+     * @param prefijo Inicio del username; se normaliza como el username, "" coincide con todos
+     * @param limite  Máximo de resultados
+     * @throws IllegalArgumentException si el prefijo es nulo o el límite no es positivo
+     */
+    default List<Usuario> buscarPorPrefijo(String prefijo, int limite) {
+        validarPrefijo(prefijo, limite);
+        String clave = NombreUsuario.normalizar(prefijo);
+        return flujo()
+                .filter(usuario -> usuario.getNombre().empiezaCon(clave))
+                .sorted(Comparator.comparing(Usuario::getNombre))
+                .limit(limite)
+                .toList();
+    }
+
+    /**
+     * Devuelve hasta {@code tamano} usuarios a partir del cursor.
+     * El recorrido completo comienza en {@link PaginaUsuarios#INICIO} y sigue con
+     * {@link PaginaUsuarios#siguienteCursor()}.
+     *
+     * <p>Por defecto el cursor es la posición en {@link #obtenerTodos()}, lo que solo es estable
+     * si esa lista conserva el orden entre llamadas; las implementaciones sin ese orden lo sobrescriben.</p>
+     *
+     * @throws IllegalArgumentException si el cursor es negativo o el tamaño no es positivo
+     */
+    default PaginaUsuarios paginar(long cursor, int tamano) {
+        validarPagina(cursor, tamano);
+        List<Usuario> todos = obtenerTodos();
+        int desde = (int) Math.min(cursor, todos.size());
+        int hasta = (int) Math.min((long) desde + tamano, todos.size());
+        return new PaginaUsuarios(todos.subList(desde, hasta), hasta, hasta < todos.size());
+    }
+
+    /**
+     * @throws IllegalArgumentException si el cursor es negativo o el tamaño no es positivo
+     */
+    static void validarPagina(long cursor, int tamano) {
+        if (cursor < 0 || tamano <= 0) {
+            throw new IllegalArgumentException("Cursor o tamaño de página inválido");
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException si el prefijo es nulo o el límite no es positivo
+     */
+    static void validarPrefijo(String prefijo, int limite) {
+        if (prefijo == null || limite <= 0) {
+            throw new IllegalArgumentException("Prefijo o límite de búsqueda inválido");
+        }
+    }
 }
@@ -0,0 +1,153 @@
+package org.solid.metricas;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+
+/**
+ * Histograma de latencias con cubetas log-lineales (al estilo HDR).
+ *
+ * <p>Los valores menores a 32 tienen cubeta propia; por encima, cada potencia de dos se
+ * divide en 16 sub-cubetas, lo que da un error relativo máximo de ~6% en cualquier
+ * magnitud, de nanosegundos a horas, con 960 cubetas fijas.</p>
+ *
+ * <p>Registrar no asigna memoria ni toma bloqueos: cada hilo incrementa su propia franja
+ * (elegida por el id del hilo) de un arreglo atómico, y las franjas se suman solo al
+ * leer. Así los hilos que miden en paralelo no compiten por la misma línea de caché.</p>
+ */
+public final class HistogramaLatencia {
+
+
+    private static final int BITS_SUB_CUBETA = 4;
+    private static final int SUB_CUBETAS = 1 << BITS_SUB_CUBETA;
+    private static final int LINEALES = 2 * SUB_CUBETAS;
+    private static final int CUBETAS = LINEALES + (63 - (BITS_SUB_CUBETA + 1)) * SUB_CUBETAS;
+
+    /** Posiciones extra al final de cada franja: cantidad y suma */
+    private static final int POS_CANTIDAD = CUBETAS;
+    private static final int POS_SUMA = CUBETAS + 1;
+    private static final int ANCHO_FRANJA = CUBETAS + 2;
+
+
+    private final String nombre;
+    private final int mascaraFranjas;
+    private final AtomicLongArray[] franjas;
+
+
+    HistogramaLatencia(String nombre) {
+        this.nombre = nombre;
+        int cantidad = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors()) * 2 - 1);
+        this.mascaraFranjas = cantidad - 1;
+        this.franjas = new AtomicLongArray[cantidad];
+        for (int i = 0; i < cantidad; i++) {
+            franjas[i] = new AtomicLongArray(ANCHO_FRANJA);
+        }
+    }
+
+
+    public String getNombre() {
+        return nombre;
+    }
+
+
+    /**
+     * Registra una duración en nanosegundos. Los valores negativos cuentan como cero.
+     */
+    public void registrar(long nanos) {
+        AtomicLongArray franja = franjas[(int) Thread.currentThread().threadId() & mascaraFranjas];
+        long valor = Math.max(0, nanos);
+        franja.incrementAndGet(indice(valor));
+        franja.incrementAndGet(POS_CANTIDAD);
+        franja.addAndGet(POS_SUMA, valor);
+    }
+
+
+    /**
+     * Suma todas las franjas en una instantánea. Solo se usa al leer, fuera del camino caliente.
+     */
+    public Instantanea instantanea() {
+        long[] conteos = new long[CUBETAS];
+        long cantidad = 0;
+        long suma = 0;
+        for (AtomicLongArray franja : franjas) {
+            for (int i = 0; i < CUBETAS; i++) {
+                conteos[i] += franja.get(i);
+            }
+            cantidad += franja.get(POS_CANTIDAD);
+            suma += franja.get(POS_SUMA);
+        }
+        return new Instantanea(conteos, cantidad, suma);
+    }
+
+
+    static int indice(long valor) {
+        if (valor < LINEALES) {
+            return (int) valor;
+        }
+        int exponente = 63 - Long.numberOfLeadingZeros(valor);
+        int sub = (int) (valor >>> (exponente - BITS_SUB_CUBETA)) & (SUB_CUBETAS - 1);
+        return LINEALES + (exponente - BITS_SUB_CUBETA - 1) * SUB_CUBETAS + sub;
+    }
+
+
+    /**
+     * @return Límite superior (inclusive) de los valores que caen en la cubeta
+     */
+    static long limiteSuperior(int indice) {
+        if (indice < LINEALES) {
+            return indice;
+        }
+        int relativo = indice - LINEALES;
+        int exponente = relativo / SUB_CUBETAS + BITS_SUB_CUBETA + 1;
+        long inicio = (long) (SUB_CUBETAS + relativo % SUB_CUBETAS) << (exponente - BITS_SUB_CUBETA);
+        return inicio + (1L << (exponente - BITS_SUB_CUBETA)) - 1;
+    }
+
+
+    /**
+     * Conteos sumados en un instante, con el cálculo de percentiles.
+     */
+    public static final class Instantanea {
+
+
+        private final long[] conteos;
+        private final long cantidad;
+        private final long suma;
+
+
+        Instantanea(long[] conteos, long cantidad, long suma) {
+            this.conteos = conteos;
+            this.cantidad = cantidad;
+            this.suma = suma;
+        }
+
+
+        public long getCantidad() {
+            return cantidad;
+        }
+
+
+        public double getPromedio() {
+            return cantidad == 0 ? 0 : (double) suma / cantidad;
+        }
+
+
+        /**
+         * @param cuantil Valor entre 0 y 1 (por ejemplo 0.99)
+         * @return Límite superior de la cubeta que contiene el cuantil, o 0 sin datos
+         */
+        public long percentil(double cuantil) {
+            if (cantidad == 0) {
+                return 0;
+            }
+            long objetivo = Math.max(1, (long) Math.ceil(cuantil * cantidad));
+            long acumulado = 0;
+            for (int i = 0; i < conteos.length; i++) {
+                acumulado += conteos[i];
+                if (acumulado >= objetivo) {
+                    return limiteSuperior(i);
+                }
+            }
+            return limiteSuperior(conteos.length - 1);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package org.solid.metricas;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+
+
+/**
+ * Implementación JMX que lee del registro en cada consulta.
+ */
+public class Metricas implements MetricasMXBean {
+
+
+    /** Nombre JMX por defecto */
+    public static final String NOMBRE_JMX = "org.solid:type=Metricas";
+
+
+    private final RegistroMetricas registro;
+
+
+    public Metricas(RegistroMetricas registro) {
+        this.registro = registro;
+    }
+
+
+    /**
+     * Publica el registro en el servidor JMX de la plataforma.
+     *
+     * @return El nombre bajo el que quedó registrado
+     * @throws IllegalStateException si el nombre ya está en uso o no es válido
+     */
+    public static ObjectName publicarJmx(RegistroMetricas registro) {
+        try {
+            ObjectName nombre = new ObjectName(NOMBRE_JMX);
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new Metricas(registro), nombre);
+            return nombre;
+        } catch (JMException e) {
+            throw new IllegalStateException("No se pudieron publicar las métricas por JMX", e);
+        }
+    }
+
+
+    @Override
+    public Map<String, Long> getContadores() {
+        return registro.valoresContadores();
+    }
+
+
+    @Override
+    public Map<String, Double> getLatencias() {
+        return registro.resumenHistogramas();
+    }
+}
@@ -0,0 +1,12 @@
+package org.solid.metricas;
+
+import java.util.Map;
+
+
+/**
+ * Vista JMX de un {@link RegistroMetricas} (visible en JConsole / VisualVM).
+ */
+public interface MetricasMXBean {
+    Map<String, Long> getContadores();
+    Map<String, Double> getLatencias();
+}
@@ -0,0 +1,98 @@
+package org.solid.metricas;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Registro central de contadores e histogramas.
+ *
+ * <p>Las métricas se crean una sola vez al armar los decoradores; el camino caliente solo
+ * usa las referencias ya obtenidas. Los nombres siguen el formato de Prometheus
+ * ({@code [a-z_]+}).</p>
+ */
+public class RegistroMetricas {
+
+
+    private static final double[] CUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+
+    private final Map<String, LongAdder> contadores = new ConcurrentSkipListMap<>();
+    private final Map<String, HistogramaLatencia> histogramas = new ConcurrentHashMap<>();
+
+
+    /**
+     * @return El contador con ese nombre, creándolo si no existe
+     */
+    public LongAdder contador(String nombre) {
+        return contadores.computeIfAbsent(nombre, n -> new LongAdder());
+    }
+
+
+    /**
+     * @return El histograma con ese nombre, creándolo si no existe
+     */
+    public HistogramaLatencia histograma(String nombre) {
+        return histogramas.computeIfAbsent(nombre, HistogramaLatencia::new);
+    }
+
+
+    /**
+     * @return Valor actual de cada contador, ordenado por nombre
+     */
+    public Map<String, Long> valoresContadores() {
+        Map<String, Long> valores = new ConcurrentSkipListMap<>();
+        contadores.forEach((nombre, contador) -> valores.put(nombre, contador.sum()));
+        return valores;
+    }
+
+
+    /**
+     * @return Percentiles, cantidad y promedio de cada histograma en microsegundos,
+     *         con claves {@code <histograma>_p99}, {@code <histograma>_count}, etc.
+     */
+    public Map<String, Double> resumenHistogramas() {
+        Map<String, Double> resumen = new ConcurrentSkipListMap<>();
+        histogramas.forEach((nombre, histograma) -> {
+            HistogramaLatencia.Instantanea datos = histograma.instantanea();
+            resumen.put(nombre + "_count", (double) datos.getCantidad());
+            resumen.put(nombre + "_mean_us", datos.getPromedio() / 1_000.0);
+            for (double cuantil : CUANTILES) {
+                resumen.put(nombre + "_p" + etiquetaCuantil(cuantil) + "_us", datos.percentil(cuantil) / 1_000.0);
+            }
+        });
+        return resumen;
+    }
+
+
+    /**
+     * Exporta todas las métricas en el formato de texto de Prometheus.
+     * Las latencias se publican en segundos como resúmenes con cuantiles.
+     */
+    public String exportarTexto() {
+        StringBuilder texto = new StringBuilder();
+        contadores.forEach((nombre, contador) -> texto
+                .append("# TYPE ").append(nombre).append(" counter\n")
+                .append(nombre).append(' ').append(contador.sum()).append('\n'));
+
+        new ConcurrentSkipListMap<>(histogramas).forEach((nombre, histograma) -> {
+            HistogramaLatencia.Instantanea datos = histograma.instantanea();
+            texto.append("# TYPE ").append(nombre).append(" summary\n");
+            for (double cuantil : CUANTILES) {
+                texto.append(nombre).append("{quantile=\"").append(cuantil).append("\"} ")
+                        .append(datos.percentil(cuantil) / 1e9).append('\n');
+            }
+            texto.append(nombre).append("_count ").append(datos.getCantidad()).append('\n');
+            texto.append(nombre).append("_sum ").append(datos.getPromedio() * datos.getCantidad() / 1e9).append('\n');
+        });
+        return texto.toString();
+    }
+
+
+    private static String etiquetaCuantil(double cuantil) {
+        String texto = Double.toString(cuantil * 100);
+        return texto.endsWith(".0") ? texto.substring(0, texto.length() - 2) : texto.replace('.', '_');
+    }
+}
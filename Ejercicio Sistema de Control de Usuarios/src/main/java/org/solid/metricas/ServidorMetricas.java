@@ -0,0 +1,75 @@
+package org.solid.metricas;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+
+/**
+ * Endpoint HTTP de solo lectura con las métricas en formato de texto de Prometheus,
+ * usando el servidor HTTP incluido en el JDK.
+ *
+ * <p>Responde en {@value #RUTA}; el scraper consulta cuando quiere (modelo pull).</p>
+ */
+public class ServidorMetricas implements AutoCloseable {
+
+
+    public static final String RUTA = "/metricas";
+
+    private static final int HTTP_OK = 200;
+    private static final int HTTP_METODO_NO_PERMITIDO = 405;
+
+
+    private final HttpServer servidor;
+
+
+    /**
+     * Inicia el servidor en el puerto indicado (0 = puerto libre cualquiera).
+     *
+     * @throws IOException si el puerto no está disponible
+     */
+    public ServidorMetricas(RegistroMetricas registro, int puerto) throws IOException {
+        this.servidor = HttpServer.create(new InetSocketAddress(puerto), 0);
+        servidor.createContext(RUTA, intercambio -> responder(intercambio, registro));
+        servidor.start();
+    }
+
+
+    /**
+     * Agrega el endpoint a un servidor HTTP existente.
+     */
+    public static void montar(HttpServer servidor, RegistroMetricas registro) {
+        servidor.createContext(RUTA, intercambio -> responder(intercambio, registro));
+    }
+
+
+    public int getPuerto() {
+        return servidor.getAddress().getPort();
+    }
+
+
+    @Override
+    public void close() {
+        servidor.stop(0);
+    }
+
+
+    private static void responder(HttpExchange intercambio, RegistroMetricas registro) throws IOException {
+        try (intercambio) {
+            if (!"GET".equals(intercambio.getRequestMethod())) {
+                intercambio.sendResponseHeaders(HTTP_METODO_NO_PERMITIDO, -1);
+                return;
+            }
+            byte[] cuerpo = registro.exportarTexto().getBytes(StandardCharsets.UTF_8);
+            intercambio.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+            intercambio.sendResponseHeaders(HTTP_OK, cuerpo.length);
+            try (OutputStream salida = intercambio.getResponseBody()) {
+                salida.write(cuerpo);
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package org.solid.models;
+
+import java.util.Base64;
+
+
+/**
+ * Contraseña derivada con PBKDF2, tal como se guarda en {@link Usuario}.
+ *
+ * <p>Formato textual: {@code pbkdf2-sha256$<iteraciones>$<sal base64>$<hash base64>}.</p>
+ *
+ * @param iteraciones Costo usado al derivar el hash
+ * @param sal         Sal aleatoria
+ * @param hash        Resultado de la derivación
+ */
+public record Credencial(int iteraciones, byte[] sal, byte[] hash) {
+
+
+    /** Prefijo que identifica el formato */
+    public static final String ALGORITMO = "pbkdf2-sha256";
+
+    private static final char SEPARADOR = '$';
+
+
+    /**
+     * Interpreta una credencial almacenada.
+     *
+     * @param texto Valor guardado en el usuario
+     * @return La credencial, o null si el texto no tiene el formato PBKDF2
+     *         o las iteraciones no son positivas
+     */
+    public static Credencial desdeTexto(String texto) {
+        if (texto == null || !texto.startsWith(ALGORITMO + SEPARADOR)) {
+            return null;
+        }
+        String[] partes = texto.split("\\$");
+        if (partes.length != 4) {
+            return null;
+        }
+        try {
+            int iteraciones = Integer.parseInt(partes[1]);
+            if (iteraciones <= 0) {
+                return null;
+            }
+            return new Credencial(iteraciones,
+                    Base64.getDecoder().decode(partes[2]),
+                    Base64.getDecoder().decode(partes[3]));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+
+    /**
+     * @return Representación textual para guardar en el usuario
+     */
+    public String aTexto() {
+        Base64.Encoder base64 = Base64.getEncoder().withoutPadding();
+        return ALGORITMO + SEPARADOR + iteraciones + SEPARADOR
+                + base64.encodeToString(sal) + SEPARADOR + base64.encodeToString(hash);
+    }
+}
@@ -0,0 +1,176 @@
+package org.solid.models;
+
+import java.text.Normalizer;
+import java.util.Locale;
+
+
+/**
+ * Forma canónica de un username, usada como clave de los índices de los repositorios.
+ *
+ * <p>Dos usernames son la misma cuenta si coinciden después de quitar los espacios de
+ * los extremos, aplicar Unicode NFKC y pasar a minúsculas con {@link Locale#ROOT}: así
+ * "Maria", " maria " y "ｍａｒｉａ" (ancho completo) no pueden registrarse por separado.
+ * El {@link Usuario} conserva el username tal como se escribió para mostrarlo.</p>
+ *
+ * <p>La normalización se hace una sola vez, al construir la clave, y el hash queda
+ * calculado. El caso habitual, ASCII en minúsculas sin espacios, no copia el texto;
+ * {@link #coincideCon} compara contra texto sin normalizar sin crear objetos.</p>
+ */
+public final class NombreUsuario implements Comparable<NombreUsuario> {
+
+
+    private final String clave;
+    private final int hash;
+
+
+    private NombreUsuario(String clave) {
+        this.clave = clave;
+        this.hash = clave.hashCode();
+    }
+
+
+    /**
+     * @throws NullPointerException si el username es null
+     */
+    public static NombreUsuario de(CharSequence username) {
+        return new NombreUsuario(normalizar(username));
+    }
+
+
+    /**
+     * Texto canónico del username. Si ya es canónico y ASCII devuelve la misma instancia.
+     *
+     * @throws NullPointerException si el username es null
+     */
+    public static String normalizar(CharSequence username) {
+        int inicio = inicioSinEspacios(username);
+        int fin = finSinEspacios(username, inicio);
+
+        boolean minusculas = true;
+        for (int i = inicio; i < fin; i++) {
+            char c = username.charAt(i);
+            if (c >= 0x80) {
+                return normalizarUnicode(username.subSequence(inicio, fin));
+            }
+            minusculas &= !esMayusculaAscii(c);
+        }
+
+        if (minusculas && inicio == 0 && fin == username.length() && username instanceof String texto) {
+            return texto;
+        }
+        char[] caracteres = new char[fin - inicio];
+        for (int i = inicio; i < fin; i++) {
+            caracteres[i - inicio] = minusculaAscii(username.charAt(i));
+        }
+        return new String(caracteres);
+    }
+
+
+    public String getClave() {
+        return clave;
+    }
+
+
+    /**
+     * Indica si el texto sin normalizar corresponde a este username. Para texto ASCII
+     * compara carácter a carácter sin crear objetos; el resto pasa por {@link #normalizar}.
+     */
+    public boolean coincideCon(CharSequence username) {
+        if (username == null) {
+            return false;
+        }
+        int inicio = inicioSinEspacios(username);
+        int fin = finSinEspacios(username, inicio);
+        for (int i = inicio; i < fin; i++) {
+            if (username.charAt(i) >= 0x80) {
+                return clave.equals(normalizar(username));
+            }
+        }
+
+        if (fin - inicio != clave.length()) {
+            return false;
+        }
+        for (int i = inicio; i < fin; i++) {
+            if (minusculaAscii(username.charAt(i)) != clave.charAt(i - inicio)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    /**
+     * @param prefijo Prefijo ya normalizado
+     */
+    public boolean empiezaCon(String prefijo) {
+        return clave.startsWith(prefijo);
+    }
+
+
+    @Override
+    public boolean equals(Object otro) {
+        return this == otro
+                || otro instanceof NombreUsuario nombre && hash == nombre.hash && clave.equals(nombre.clave);
+    }
+
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+
+    @Override
+    public int compareTo(NombreUsuario otro) {
+        return clave.compareTo(otro.clave);
+    }
+
+
+    @Override
+    public String toString() {
+        return clave;
+    }
+
+
+    /**
+     * Pasar a minúsculas puede dejar secuencias que NFKC compone distinto (y NFKC puede
+     * producir espacios en los extremos), así que se normaliza de nuevo si hubo cambios.
+     */
+    private static String normalizarUnicode(CharSequence texto) {
+        String compatible = Normalizer.normalize(texto, Normalizer.Form.NFKC);
+        String minusculas = compatible.toLowerCase(Locale.ROOT);
+        if (!minusculas.equals(compatible)) {
+            minusculas = Normalizer.normalize(minusculas, Normalizer.Form.NFKC);
+        }
+        return minusculas.trim();
+    }
+
+
+    /** Mismo criterio que {@link String#trim()} */
+    private static int inicioSinEspacios(CharSequence texto) {
+        int inicio = 0;
+        while (inicio < texto.length() && texto.charAt(inicio) <= ' ') {
+            inicio++;
+        }
+        return inicio;
+    }
+
+
+    private static int finSinEspacios(CharSequence texto, int inicio) {
+        int fin = texto.length();
+        while (fin > inicio && texto.charAt(fin - 1) <= ' ') {
+            fin--;
+        }
+        return fin;
+    }
+
+
+    private static boolean esMayusculaAscii(char c) {
+        return c >= 'A' && c <= 'Z';
+    }
+
+
+    private static char minusculaAscii(char c) {
+        return esMayusculaAscii(c) ? (char) (c + ('a' - 'A')) : c;
+    }
+}
@@ -0,0 +1,24 @@
+package org.solid.models;
+
+import java.util.List;
+
+
+/**
+ * Página de un listado de usuarios recorrido con cursor.
+ *
+ * @param usuarios        Usuarios de la página, en el orden del repositorio
+ * @param siguienteCursor Cursor para pedir la página siguiente
+ * @param hayMas          false si la página llegó al final del repositorio al momento de leerla;
+ *                        con el mismo cursor pueden aparecer después usuarios agregados más tarde
+ */
+public record PaginaUsuarios(List<Usuario> usuarios, long siguienteCursor, boolean hayMas) {
+
+
+    /** Cursor de la primera página */
+    public static final long INICIO = 0;
+
+
+    public PaginaUsuarios {
+        usuarios = List.copyOf(usuarios);
+    }
+}
@@ -0,0 +1,73 @@
+package org.solid.models;
+
+import org.solid.interfaces.IPermisosAdmin;
+import org.solid.interfaces.IPermisosBasicos;
+import org.solid.interfaces.IPermisosInvitado;
+
+import java.util.EnumSet;
+
+
+/**
+ * Capacidades que un rol puede otorgar.
+ *
+ * <p>Cada permiso corresponde a una interfaz de permisos (ISP). Un rol tiene el permiso
+ * si implementa esa interfaz; la comprobación se hace una sola vez al crear el rol
+ * y queda guardada como máscara de bits (ver {@link Rol#tienePermiso(Permiso)}).</p>
+ */
+public enum Permiso {
+
+    ACCEDER(IPermisosBasicos.class),
+    GESTIONAR_USUARIOS(IPermisosAdmin.class),
+    VISTA_PUBLICA(IPermisosInvitado.class);
+
+
+    /** Interfaz que otorga el permiso */
+    private final Class<?> interfaz;
+
+    /** Bit del permiso dentro de la máscara del rol */
+    private final int mascara;
+
+
+    Permiso(Class<?> interfaz) {
+        this.interfaz = interfaz;
+        this.mascara = 1 << ordinal();
+    }
+
+
+    public int getMascara() {
+        return mascara;
+    }
+
+
+    /**
+     * Texto que el rol ofrece para este permiso.
+     *
+     * @throws IllegalArgumentException si el rol no tiene el permiso
+     */
+    public String describir(Rol rol) {
+        if (!rol.tienePermiso(this)) {
+            throw new IllegalArgumentException("El rol " + rol.getNombre() + " no tiene el permiso " + this);
+        }
+        return switch (this) {
+            case ACCEDER -> ((IPermisosBasicos) rol).acceder();
+            case GESTIONAR_USUARIOS -> ((IPermisosAdmin) rol).gestionarUsuarios();
+            case VISTA_PUBLICA -> ((IPermisosInvitado) rol).vistaPublica();
+        };
+    }
+
+
+    /**
+     * Calcula los permisos de un rol según las interfaces que implementa su clase.
+     * Recibe la clase y no la instancia para que el constructor de {@link Rol} no
+     * entregue {@code this} antes de terminar.
+     */
+    static EnumSet<Permiso> calcular(Class<? extends Rol> tipo) {
+        EnumSet<Permiso> permisos = EnumSet.noneOf(Permiso.class);
+        for (Permiso permiso : values()) {
+            if (permiso.interfaz.isAssignableFrom(tipo)) {
+                permisos.add(permiso);
+            }
+        }
+        return permisos;
+    }
+}
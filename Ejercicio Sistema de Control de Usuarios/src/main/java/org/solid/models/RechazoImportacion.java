@@ -0,0 +1,11 @@
+package org.solid.models;
+
+/**
+ * Registro que no pudo importarse y el motivo.
+ *
+ * @param linea    Posición del registro en el origen
+ * @param username Nombre de usuario del registro (puede ser null)
+ * @param motivo   Descripción legible del rechazo
+ */
+public record RechazoImportacion(long linea, String username, String motivo) {
+}
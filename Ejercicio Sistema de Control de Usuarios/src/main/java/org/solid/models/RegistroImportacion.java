@@ -0,0 +1,13 @@
+package org.solid.models;
+
+/**
+ * Registro de entrada para la importación masiva de usuarios.
+ * Los campos pueden venir vacíos o nulos; el servicio decide si el registro es válido.
+ *
+ * @param linea    Posición del registro en el origen (1 = primera línea)
+ * @param username Nombre de usuario
+ * @param password Contraseña en texto plano
+ * @param rol      Rol resuelto, o null si no se reconoció
+ */
+public record RegistroImportacion(long linea, String username, String password, Rol rol) {
+}
@@ -0,0 +1,23 @@
+package org.solid.models;
+
+/**
+ * Resultado de un intento de autenticación.
+ *
+ * @param exitoso true si las credenciales fueron válidas
+ * @param usuario Usuario autenticado, o null si el intento falló
+ */
+public record ResultadoAutenticacion(boolean exitoso, Usuario usuario) {
+
+
+    private static final ResultadoAutenticacion FALLIDO = new ResultadoAutenticacion(false, null);
+
+
+    public static ResultadoAutenticacion exitoso(Usuario usuario) {
+        return new ResultadoAutenticacion(true, usuario);
+    }
+
+
+    public static ResultadoAutenticacion fallido() {
+        return FALLIDO;
+    }
+}
@@ -0,0 +1,23 @@
+package org.solid.models;
+
+import java.util.List;
+
+
+/**
+ * Resumen de una importación masiva.
+ *
+ * @param importados Cantidad de usuarios agregados al repositorio
+ * @param rechazos   Registros descartados; cada uno indica su línea de origen
+ */
+public record ResultadoImportacion(long importados, List<RechazoImportacion> rechazos) {
+
+
+    public ResultadoImportacion {
+        rechazos = List.copyOf(rechazos);
+    }
+
+
+    public long procesados() {
+        return importados + rechazos.size();
+    }
+}
@@ -1,10 +1,14 @@
 package org.solid.models;
 
+import java.util.Collections;
+import java.util.Set;
+
 /**
  * Clase base que representa un Rol dentro del sistema.
  * Principios aplicados:
  * - SRP: La clase solo representa información y comportamiento básico del Rol.
  * - LSP: Las subclases pueden reemplazar esta clase sin afectar el funcionamiento.
+ * Los permisos se calculan una vez a partir de las interfaces que implementa la subclase.
  */
 public abstract class Rol {
 
@@ -12,9 +16,22 @@ public abstract class Rol {
     /** Nombre del rol */
     private final String nombre;
 
+    /** Permisos otorgados, inmutables */
+    private final Set<Permiso> permisos;
+
+    /** Los mismos permisos como máscara de bits, para comprobaciones en un solo AND */
+    private final int mascaraPermisos;
+
 
     protected Rol(String nombre) {
         this.nombre = nombre;
+        Set<Permiso> calculados = Permiso.calcular(getClass());
+        int mascara = 0;
+        for (Permiso permiso : calculados) {
+            mascara |= permiso.getMascara();
+        }
+        this.permisos = Collections.unmodifiableSet(calculados);
+        this.mascaraPermisos = mascara;
     }
 
 
@@ -23,6 +40,16 @@ public abstract class Rol {
     }
 
 
+    public Set<Permiso> getPermisos() {
+        return permisos;
+    }
+
+
+    public boolean tienePermiso(Permiso permiso) {
+        return (mascaraPermisos & permiso.getMascara()) != 0;
+    }
+
+
     /** Acción genérica del rol */
     public abstract String descripcionRol();
 }
\ No newline at end of file
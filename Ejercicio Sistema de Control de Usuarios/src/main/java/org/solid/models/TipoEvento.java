@@ -0,0 +1,13 @@
+package org.solid.models;
+
+
+/**
+ * Resultados de autenticación y registro que se guardan en la auditoría.
+ */
+public enum TipoEvento {
+
+    LOGIN_EXITOSO,
+    LOGIN_FALLIDO,
+    USUARIO_CREADO,
+    USUARIO_IMPORTADO
+}
@@ -0,0 +1,112 @@
+package org.solid.models;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+
+/**
+ * Registro de los roles del sistema con una instancia canónica compartida por rol.
+ *
+ * <p>Los roles no tienen estado, así que todos los usuarios pueden apuntar a la misma
+ * instancia (Flyweight). Esto evita una instancia por usuario y permite comparar
+ * roles por identidad.</p>
+ *
+ * <p>El ordinal es estable y puede usarse como representación compacta del rol;
+ * los nuevos roles deben agregarse al final.</p>
+ */
+public enum TipoRol {
+
+    ADMINISTRADOR("Administrador", new Administrador()),
+    USUARIO_REGULAR("Usuario", new UsuarioRegular()),
+    INVITADO("Invitado", new Invitado());
+
+
+    private static final TipoRol[] POR_ORDINAL = values();
+    private static final Map<String, TipoRol> POR_NOMBRE = new HashMap<>();
+
+    static {
+        for (TipoRol tipo : POR_ORDINAL) {
+            POR_NOMBRE.put(clave(tipo.name()), tipo);
+            POR_NOMBRE.put(clave(tipo.etiqueta), tipo);
+            POR_NOMBRE.put(clave(tipo.rol.getNombre()), tipo);
+        }
+    }
+
+
+    /** Nombre corto para mostrar en selectores */
+    private final String etiqueta;
+
+    /** Instancia canónica del rol */
+    private final Rol rol;
+
+
+    TipoRol(String etiqueta, Rol rol) {
+        this.etiqueta = etiqueta;
+        this.rol = rol;
+    }
+
+
+    public String getEtiqueta() {
+        return etiqueta;
+    }
+
+
+    public Rol getRol() {
+        return rol;
+    }
+
+
+    /**
+     * Resuelve un rol por su etiqueta, su nombre o el nombre de la constante,
+     * sin distinguir mayúsculas.
+     *
+     * @return El tipo correspondiente, o null si no se reconoce
+     */
+    public static TipoRol porNombre(String nombre) {
+        return nombre == null ? null : POR_NOMBRE.get(clave(nombre));
+    }
+
+
+    /**
+     * @return El tipo con el ordinal dado
+     * @throws IllegalArgumentException si el ordinal no existe
+     */
+    public static TipoRol porOrdinal(int ordinal) {
+        if (ordinal < 0 || ordinal >= POR_ORDINAL.length) {
+            throw new IllegalArgumentException("Ordinal de rol inválido: " + ordinal);
+        }
+        return POR_ORDINAL[ordinal];
+    }
+
+
+    /**
+     * @return El tipo al que pertenece el rol, o null si es un rol no registrado
+     */
+    public static TipoRol de(Rol rol) {
+        if (rol == null) {
+            return null;
+        }
+        for (TipoRol tipo : POR_ORDINAL) {
+            if (tipo.rol == rol || tipo.rol.getClass() == rol.getClass()) {
+                return tipo;
+            }
+        }
+        return null;
+    }
+
+
+    /**
+     * Sustituye un rol por su instancia canónica. Los roles no registrados
+     * se devuelven sin cambios.
+     */
+    public static Rol canonico(Rol rol) {
+        TipoRol tipo = de(rol);
+        return tipo == null ? rol : tipo.rol;
+    }
+
+
+    private static String clave(String nombre) {
+        return nombre.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -3,6 +3,8 @@ package org.solid.models;
 /**
  * Clase Usuario que tiene información básica.
  * Principio SRP: solo almacena datos del usuario.
+ * El rol se guarda siempre en su instancia canónica (ver {@link TipoRol}).
+ * El username se conserva tal como se escribió; las búsquedas usan {@link #getNombre()}.
  */
 public class Usuario {
 
@@ -11,11 +13,14 @@ public class Usuario {
     private final String password;
     private final Rol rol;
 
+    /** Se calcula al primer uso; como NombreUsuario es inmutable, una carrera solo repite el cálculo */
+    private NombreUsuario nombre;
+
 
     public Usuario(String username, String password, Rol rol) {
         this.username = username;
         this.password = password;
-        this.rol = rol;
+        this.rol = TipoRol.canonico(rol);
     }
 
 
@@ -24,6 +29,22 @@ public class Usuario {
     }
 
 
+    /**
+     * @return Clave canónica del username, que identifica a la cuenta en los repositorios
+     */
+    public NombreUsuario getNombre() {
+        NombreUsuario calculado = nombre;
+        if (calculado == null) {
+            calculado = NombreUsuario.de(username);
+            nombre = calculado;
+        }
+        return calculado;
+    }
+
+
+    /**
+     * @return Credencial almacenada (ver {@link Credencial}), nunca la contraseña original
+     */
     public String getPassword() {
         return password;
     }
@@ -0,0 +1,89 @@
+package org.solid.repositories;
+
+import org.solid.models.Rol;
+import org.solid.models.TipoRol;
+import org.solid.models.Usuario;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+
+/**
+ * Serialización binaria de {@link Usuario} para los repositorios en archivo.
+ *
+ * <p>Formato: tres campos UTF-8 (username, password, nombre del rol),
+ * cada uno precedido por su longitud como {@code short}.</p>
+ */
+final class CodecUsuario {
+
+
+    private CodecUsuario() {
+    }
+
+
+    static byte[] codificar(Usuario usuario) {
+        byte[] username = usuario.getUsername().getBytes(StandardCharsets.UTF_8);
+        byte[] password = usuario.getPassword().getBytes(StandardCharsets.UTF_8);
+        byte[] rol = usuario.getRol().getNombre().getBytes(StandardCharsets.UTF_8);
+
+        ByteBuffer buffer = ByteBuffer.allocate(3 * Short.BYTES + username.length + password.length + rol.length);
+        escribirCampo(buffer, username);
+        escribirCampo(buffer, password);
+        escribirCampo(buffer, rol);
+        return buffer.array();
+    }
+
+
+    /**
+     * Decodifica un usuario leyendo en posiciones absolutas, sin modificar el buffer.
+     *
+     * @param buffer Buffer de origen
+     * @param inicio Posición del primer byte del registro
+     */
+    static Usuario decodificar(ByteBuffer buffer, int inicio) {
+        int posicion = inicio;
+
+        String username = leerCampo(buffer, posicion);
+        posicion += Short.BYTES + Short.toUnsignedInt(buffer.getShort(posicion));
+
+        String password = leerCampo(buffer, posicion);
+        posicion += Short.BYTES + Short.toUnsignedInt(buffer.getShort(posicion));
+
+        Rol rol = resolverRol(leerCampo(buffer, posicion));
+        return new Usuario(username, password, rol);
+    }
+
+
+    /**
+     * Lee solo el username, sin construir el usuario completo.
+     */
+    static String leerUsername(ByteBuffer buffer, int inicio) {
+        return leerCampo(buffer, inicio);
+    }
+
+
+    private static void escribirCampo(ByteBuffer buffer, byte[] campo) {
+        if (campo.length > 0xFFFF) {
+            throw new IllegalArgumentException("Campo demasiado largo: " + campo.length + " bytes");
+        }
+        buffer.putShort((short) campo.length);
+        buffer.put(campo);
+    }
+
+
+    private static String leerCampo(ByteBuffer buffer, int posicion) {
+        int longitud = Short.toUnsignedInt(buffer.getShort(posicion));
+        byte[] bytes = new byte[longitud];
+        buffer.get(posicion + Short.BYTES, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+
+    /**
+     * Los roles desconocidos (por ejemplo, de una versión posterior) se leen como usuario regular.
+     */
+    static Rol resolverRol(String nombre) {
+        TipoRol tipo = TipoRol.porNombre(nombre);
+        return (tipo == null ? TipoRol.USUARIO_REGULAR : tipo).getRol();
+    }
+}
@@ -0,0 +1,148 @@
+package org.solid.repositories;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+
+/**
+ * Filtro de Bloom sobre claves canónicas de username: responde "seguro que no está" o
+ * "puede estar", nunca da falsos negativos.
+ *
+ * <p>Es un filtro por bloques: los k bits de cada clave caen dentro de un mismo bloque de
+ * 512 bits (una línea de caché), así que una consulta lee memoria una sola vez en lugar de
+ * k veces en lugares dispersos. A cambio, con el mismo tamaño la tasa de falsos positivos
+ * es algo mayor que la de un filtro clásico, por eso se dimensiona con un margen.</p>
+ *
+ * <p>El bloque y las k posiciones salen de un único hash de 64 bits (h1 + i·h2, de Kirsch
+ * y Mitzenmacher) derivado del hashCode de la clave, así que agregar o consultar no recorre
+ * la clave ni reserva memoria. Los bits se encienden con una operación atómica y las
+ * consultas no toman bloqueos.</p>
+ */
+final class FiltroBloom {
+
+
+    private static final int PALABRAS_POR_BLOQUE = 8;
+    private static final int BITS_POR_BLOQUE = PALABRAS_POR_BLOQUE * Long.SIZE;
+
+    /** 2^31 bits (256 MB): mantiene el índice de bloque dentro de un producto de 64 bits */
+    private static final int MAX_BLOQUES = 1 << 22;
+
+    /** Bits de más respecto del filtro clásico, porque unos bloques se llenan más que otros */
+    private static final double MARGEN_BLOQUES = 1.2;
+
+
+    private final AtomicLongArray palabras;
+    private final int bloques;
+    private final int funciones;
+
+
+    /**
+     * Dimensiona el filtro con las fórmulas habituales, m = -n·ln(p) / ln(2)² bits y
+     * k = m/n·ln(2) funciones de hash, y agrega el margen de los bloques a m.
+     *
+     * @throws IllegalArgumentException si los elementos no son positivos o la tasa no está en (0, 1)
+     */
+    FiltroBloom(long elementosEsperados, double tasaFalsosPositivos) {
+        if (elementosEsperados <= 0 || !(tasaFalsosPositivos > 0 && tasaFalsosPositivos < 1)) {
+            throw new IllegalArgumentException("Parámetros de filtro inválidos");
+        }
+        double ln2 = Math.log(2);
+        double optimos = Math.ceil(-elementosEsperados * Math.log(tasaFalsosPositivos) / (ln2 * ln2));
+
+        this.funciones = (int) Math.max(1, Math.round(optimos / elementosEsperados * ln2));
+        this.bloques = (int) Math.min(MAX_BLOQUES, Math.max(1, Math.ceil(optimos * MARGEN_BLOQUES / BITS_POR_BLOQUE)));
+        this.palabras = new AtomicLongArray(bloques * PALABRAS_POR_BLOQUE);
+    }
+
+
+    void agregar(String clave) {
+        long hash = hash(clave);
+        int base = bloque(hash);
+        int h1 = (int) hash;
+        int h2 = (h1 >>> 9) | 1;
+        for (int i = 0; i < funciones; i++) {
+            int bit = (h1 + i * h2) & (BITS_POR_BLOQUE - 1);
+            int indice = base + (bit >>> 6);
+            long mascara = 1L << bit;
+            // Con el filtro cargado la mayoría de los bits ya están encendidos: se evita el CAS
+            if ((palabras.get(indice) & mascara) == 0) {
+                palabras.accumulateAndGet(indice, mascara, (actual, nuevo) -> actual | nuevo);
+            }
+        }
+    }
+
+
+    /**
+     * @return false si la clave seguro no fue agregada
+     */
+    boolean podriaContener(String clave) {
+        long hash = hash(clave);
+        int base = bloque(hash);
+        int h1 = (int) hash;
+        int h2 = (h1 >>> 9) | 1;
+        for (int i = 0; i < funciones; i++) {
+            int bit = (h1 + i * h2) & (BITS_POR_BLOQUE - 1);
+            if ((palabras.get(base + (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    long getBits() {
+        return (long) bloques * BITS_POR_BLOQUE;
+    }
+
+
+    int getFunciones() {
+        return funciones;
+    }
+
+
+    long getBytes() {
+        return getBits() / Byte.SIZE;
+    }
+
+
+    /**
+     * Tasa de falsos positivos esperada con la ocupación actual: el promedio sobre los
+     * bloques de (bits encendidos del bloque / 512)^k, ya que cada consulta cae en un bloque
+     * al azar. Recorre todo el arreglo, así que es para reportes y no para cada consulta.
+     */
+    double tasaEstimada() {
+        double suma = 0;
+        for (int base = 0; base < palabras.length(); base += PALABRAS_POR_BLOQUE) {
+            int encendidos = 0;
+            for (int i = base; i < base + PALABRAS_POR_BLOQUE; i++) {
+                encendidos += Long.bitCount(palabras.get(i));
+            }
+            suma += Math.pow((double) encendidos / BITS_POR_BLOQUE, funciones);
+        }
+        return suma / bloques;
+    }
+
+
+    /**
+     * Primera palabra del bloque de la clave. Usa la mitad alta del hash y reduce al rango
+     * [0, bloques) con una multiplicación en lugar de un módulo; la mitad baja elige los bits.
+     */
+    private int bloque(long hash) {
+        return (int) (((hash >>> 32) * bloques) >>> 32) * PALABRAS_POR_BLOQUE;
+    }
+
+
+    /**
+     * Parte del hash que el String ya tiene cacheado (el mismo que usan los mapas del
+     * repositorio) y lo expande a 64 bits con el mezclado final de MurmurHash3. Dos claves
+     * con el mismo hashCode comparten bloque y bits, lo que suma a lo sumo n/2^32 a la tasa
+     * de falsos positivos.
+     */
+    private static long hash(String clave) {
+        long h = clave.hashCode();
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        return h ^ (h >>> 33);
+    }
+}
@@ -0,0 +1,192 @@
+package org.solid.repositories;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * Pool de conexiones JDBC de tamaño fijo para {@link UsuarioRepositorioJdbc}.
+ *
+ * <p>Las conexiones se abren a demanda hasta el máximo y luego se reutilizan. Cada una
+ * guarda sus sentencias preparadas por texto SQL, así que el motor analiza cada consulta
+ * una sola vez por conexión. Una conexión que falló se cierra en lugar de volver al pool y
+ * su lugar queda libre para abrir otra.</p>
+ */
+final class PoolConexiones implements AutoCloseable {
+
+
+    private static final long PASO_ESPERA_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+
+    private final String url;
+    private final String usuario;
+    private final String contrasena;
+    private final int maximo;
+    private final long esperaMillis;
+
+    private final BlockingQueue<Conexion> libres;
+    private final AtomicInteger abiertas = new AtomicInteger();
+    private volatile boolean cerrado;
+
+
+    /**
+     * @throws IllegalArgumentException si el máximo no es positivo o la espera es negativa
+     */
+    PoolConexiones(String url, String usuario, String contrasena, int maximo, long esperaMillis) {
+        if (maximo <= 0 || esperaMillis < 0) {
+            throw new IllegalArgumentException("Parámetros de pool inválidos");
+        }
+        this.url = url;
+        this.usuario = usuario;
+        this.contrasena = contrasena;
+        this.maximo = maximo;
+        this.esperaMillis = esperaMillis;
+        this.libres = new ArrayBlockingQueue<>(maximo);
+    }
+
+
+    /**
+     * Entrega una conexión libre, abre una nueva si todavía no se llegó al máximo o espera
+     * a que otro hilo devuelva la suya.
+     *
+     * @throws SQLTransientConnectionException si no se liberó ninguna dentro de la espera
+     */
+    Conexion tomar() throws SQLException {
+        if (cerrado) {
+            throw new SQLException("El pool de conexiones está cerrado");
+        }
+        long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(esperaMillis);
+        while (true) {
+            Conexion conexion = libres.poll();
+            if (conexion != null) {
+                return conexion;
+            }
+            if (reservarLugar()) {
+                return abrir();
+            }
+
+            long restante = limite - System.nanoTime();
+            if (restante <= 0) {
+                throw new SQLTransientConnectionException("Sin conexiones libres tras " + esperaMillis + " ms");
+            }
+            try {
+                // Espera por tramos: el lugar de una conexión descartada no pasa por la cola
+                conexion = libres.poll(Math.min(restante, PASO_ESPERA_NANOS), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLTransientConnectionException("Interrumpido esperando una conexión");
+            }
+            if (conexion != null) {
+                return conexion;
+            }
+        }
+    }
+
+
+    /**
+     * @param sana false si la conexión lanzó un error y no debe reutilizarse
+     */
+    void devolver(Conexion conexion, boolean sana) {
+        if (sana && !cerrado && libres.offer(conexion)) {
+            return;
+        }
+        abiertas.decrementAndGet();
+        conexion.cerrar();
+    }
+
+
+    int getAbiertas() {
+        return abiertas.get();
+    }
+
+
+    /**
+     * Cierra las conexiones libres; las que están en uso se cierran al devolverse.
+     */
+    @Override
+    public void close() {
+        cerrado = true;
+        Conexion conexion;
+        while ((conexion = libres.poll()) != null) {
+            abiertas.decrementAndGet();
+            conexion.cerrar();
+        }
+    }
+
+
+    private Conexion abrir() throws SQLException {
+        try {
+            return new Conexion(usuario == null
+                    ? DriverManager.getConnection(url)
+                    : DriverManager.getConnection(url, usuario, contrasena));
+        } catch (SQLException e) {
+            abiertas.decrementAndGet();
+            throw e;
+        }
+    }
+
+
+    private boolean reservarLugar() {
+        int actuales;
+        do {
+            actuales = abiertas.get();
+            if (actuales >= maximo) {
+                return false;
+            }
+        } while (!abiertas.compareAndSet(actuales, actuales + 1));
+        return true;
+    }
+
+
+    /**
+     * Conexión con su caché de sentencias preparadas. La usa un solo hilo a la vez.
+     */
+    static final class Conexion {
+
+
+        private final Connection conexion;
+        private final Map<String, PreparedStatement> sentencias = new HashMap<>();
+
+
+        private Conexion(Connection conexion) {
+            this.conexion = conexion;
+        }
+
+
+        Connection getConexion() {
+            return conexion;
+        }
+
+
+        /**
+         * @return La sentencia preparada para el SQL, creada la primera vez que se pide
+         */
+        PreparedStatement preparar(String sql) throws SQLException {
+            PreparedStatement sentencia = sentencias.get(sql);
+            if (sentencia == null) {
+                sentencia = conexion.prepareStatement(sql);
+                sentencias.put(sql, sentencia);
+            }
+            return sentencia;
+        }
+
+
+        private void cerrar() {
+            try {
+                // Cerrar la conexión cierra también sus sentencias
+                conexion.close();
+            } catch (SQLException e) {
+                // La conexión ya estaba rota; no hay nada más que liberar
+            }
+        }
+    }
+}
@@ -0,0 +1,405 @@
+package org.solid.repositories;
+
+import org.solid.interfaces.IUsuarioRepositorio;
+import org.solid.models.NombreUsuario;
+import org.solid.models.PaginaUsuarios;
+import org.solid.models.Usuario;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+
+/**
+ * Repositorio persistente sobre un log de solo escritura al final (append-only)
+ * mapeado en memoria.
+ *
+ * <p>Cada registro ocupa {@code [longitud:int][crc32:int][datos]}. Un índice en memoria
+ * guarda la posición del registro vigente de cada username, por su forma canónica, de modo
+ * que las lecturas acceden directamente a las páginas mapeadas sin llamadas de lectura al sistema.</p>
+ *
+ * <p>Al abrir se recorre el log para reconstruir el índice. Si el último registro quedó
+ * escrito a medias (longitud imposible o CRC inválido) se trunca el archivo en ese punto.
+ * {@link #agregarUsuario} reemplaza al registro anterior del mismo username; los
+ * registros reemplazados se eliminan con {@link #compactar()}.</p>
+ *
+ * <p>Además se guarda la posición de inicio de cada registro, vigente u obsoleto, en orden:
+ * el número de registro es el cursor de {@link #paginar}.</p>
+ *
+ * <p>Las escrituras se serializan en la instancia; las búsquedas no toman bloqueos.
+ * El tamaño máximo del log es de 2 GB (límite de un {@link MappedByteBuffer}).</p>
+ */
+public class UsuarioRepositorioArchivo implements IUsuarioRepositorio, Closeable {
+
+
+    private static final int CABECERA = 2 * Integer.BYTES;
+    private static final int CAPACIDAD_INICIAL = 1 << 20;
+    private static final String SUFIJO_COMPACTACION = ".compactando";
+
+
+    private final Path ruta;
+    private FileChannel canal;
+    private volatile Vista vista;
+    private int posicionEscritura;
+    private int registrosObsoletos;
+
+    /** Posición de cada registro del log, en orden; protegido por la instancia */
+    private int[] inicios;
+    private int registros;
+
+
+    /**
+     * Abre (o crea) el log indicado y reconstruye el índice.
+     *
+     * @param ruta Archivo del log
+     * @throws UncheckedIOException si el archivo no puede abrirse
+     */
+    public UsuarioRepositorioArchivo(Path ruta) {
+        this.ruta = ruta;
+        try {
+            abrir();
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo abrir el log de usuarios: " + ruta, e);
+        }
+    }
+
+
+    @Override
+    public synchronized void agregarUsuario(Usuario usuario) {
+        int posicion = anexar(usuario);
+        if (vista.indice().put(usuario.getNombre(), posicion) != null) {
+            registrosObsoletos++;
+        }
+    }
+
+
+    @Override
+    public synchronized boolean agregarSiAusente(Usuario usuario) {
+        if (vista.indice().containsKey(usuario.getNombre())) {
+            return false;
+        }
+        int posicion = anexar(usuario);
+        vista.indice().put(usuario.getNombre(), posicion);
+        return true;
+    }
+
+
+    @Override
+    public Usuario buscarPorUsername(String username) {
+        if (username == null) {
+            return null;
+        }
+        NombreUsuario nombre = NombreUsuario.de(username);
+        while (true) {
+            Vista actual = vista;
+            Integer posicion = actual.indice().get(nombre);
+            if (posicion == null) {
+                return null;
+            }
+            if (actual.contiene(posicion)) {
+                return actual.leer(posicion);
+            }
+            // Se escribió después de ampliar el mapeo: la vista publicada ya lo cubre
+        }
+    }
+
+
+    @Override
+    public List<Usuario> obtenerTodos() {
+        while (true) {
+            List<Usuario> usuarios = leerTodos(vista);
+            if (usuarios != null) {
+                return usuarios;
+            }
+        }
+    }
+
+
+    /**
+     * El cursor es el número de registro dentro del log: recorre los registros desde ahí
+     * y devuelve los que siguen vigentes. Cualquier cursor aceptado cae al inicio de un
+     * registro; una compactación los renumera, así que con un cursor previo a ella las
+     * páginas siguientes pueden repetir u omitir usuarios. Un cursor más allá del último
+     * registro (por ejemplo, tras compactar) devuelve una página vacía y final.
+     */
+    @Override
+    public synchronized PaginaUsuarios paginar(long cursor, int tamano) {
+        IUsuarioRepositorio.validarPagina(cursor, tamano);
+        Vista actual = vista;
+        List<Usuario> pagina = new ArrayList<>(Math.min(tamano, actual.indice().size()));
+
+        int registro = (int) Math.min(cursor, registros);
+        while (registro < registros && pagina.size() < tamano) {
+            int posicion = inicios[registro++];
+            NombreUsuario nombre = NombreUsuario.de(CodecUsuario.leerUsername(actual.mapa(), posicion + CABECERA));
+            if (Integer.valueOf(posicion).equals(actual.indice().get(nombre))) {
+                pagina.add(actual.leer(posicion));
+            }
+        }
+        return new PaginaUsuarios(pagina, registro, registro < registros);
+    }
+
+
+    /**
+     * Reescribe el log conservando solo el registro vigente de cada username.
+     * El nuevo archivo se escribe aparte y reemplaza al actual con un movimiento atómico.
+     * Si el reemplazo falla se vuelve a abrir el log original, así el repositorio sigue
+     * usable aunque la compactación no se haya hecho.
+     *
+     * @throws UncheckedIOException si falla la escritura del nuevo log
+     */
+    public synchronized void compactar() {
+        Path temporal = ruta.resolveSibling(ruta.getFileName() + SUFIJO_COMPACTACION);
+        try {
+            try (FileChannel destino = FileChannel.open(temporal, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                ByteBuffer origen = vista.mapa();
+                for (int posicion : vista.indice().values()) {
+                    int total = CABECERA + origen.getInt(posicion);
+                    destino.write(origen.slice(posicion, total));
+                }
+                destino.force(true);
+            }
+
+            // La vista anterior sigue siendo legible hasta que abrir() publica la nueva
+            cerrarCanal();
+            try {
+                Files.move(temporal, ruta, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                reabrirOriginal(e);
+                throw e;
+            }
+            abrir();
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo compactar el log de usuarios: " + ruta, e);
+        }
+    }
+
+
+    /**
+     * Fuerza la escritura a disco de los registros pendientes.
+     */
+    public synchronized void sincronizar() {
+        vista.mapa().force();
+    }
+
+
+    /**
+     * @return Registros reemplazados que ocupan espacio hasta la próxima compactación
+     */
+    public synchronized int getRegistrosObsoletos() {
+        return registrosObsoletos;
+    }
+
+
+    @Override
+    public synchronized void close() throws IOException {
+        vista.mapa().force();
+        cerrarCanal();
+    }
+
+
+    // ================= MANEJO DEL LOG =================
+
+    /**
+     * Lee los registros vigentes del índice de la vista dada.
+     *
+     * @return Los usuarios, o null si el índice ya apunta más allá del buffer de esa vista
+     * (se amplió el mapeo durante el recorrido) y hay que repetirlo con la vista actual
+     */
+    private static List<Usuario> leerTodos(Vista actual) {
+        List<Usuario> usuarios = new ArrayList<>(actual.indice().size());
+        for (Integer posicion : actual.indice().values()) {
+            if (!actual.contiene(posicion)) {
+                return null;
+            }
+            usuarios.add(actual.leer(posicion));
+        }
+        return List.copyOf(usuarios);
+    }
+
+
+    /**
+     * Abre el canal, recorre el log, reconstruye el índice y publica la nueva vista.
+     * Si algo falla se cierra el canal abierto y el estado anterior queda sin cambios.
+     */
+    private void abrir() throws IOException {
+        FileChannel nuevoCanal = FileChannel.open(ruta, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            long tamano = nuevoCanal.size();
+            if (tamano > Integer.MAX_VALUE) {
+                throw new IOException("El log supera el tamaño máximo soportado: " + tamano + " bytes");
+            }
+
+            MappedByteBuffer mapa = nuevoCanal.map(FileChannel.MapMode.READ_WRITE, 0,
+                    Math.max(CAPACIDAD_INICIAL, tamano));
+            Map<NombreUsuario, Integer> indice = new ConcurrentHashMap<>();
+            int[] posiciones = new int[16];
+            int leidos = 0;
+            int escritura = 0;
+            int obsoletos = 0;
+
+            int posicion;
+            while ((posicion = registroValidoEn(mapa, escritura)) >= 0) {
+                NombreUsuario nombre = NombreUsuario.de(CodecUsuario.leerUsername(mapa, posicion + CABECERA));
+                if (indice.put(nombre, posicion) != null) {
+                    obsoletos++;
+                }
+                if (leidos == posiciones.length) {
+                    posiciones = Arrays.copyOf(posiciones, 2 * leidos);
+                }
+                posiciones[leidos++] = posicion;
+                escritura = posicion + CABECERA + mapa.getInt(posicion);
+            }
+
+            if (escritura < tamano) {
+                mapa = truncarCola(nuevoCanal, escritura, mapa.capacity());
+            }
+            canal = nuevoCanal;
+            posicionEscritura = escritura;
+            registrosObsoletos = obsoletos;
+            inicios = posiciones;
+            registros = leidos;
+            vista = new Vista(mapa, indice);
+        } catch (IOException | RuntimeException e) {
+            try {
+                nuevoCanal.close();
+            } catch (IOException alCerrar) {
+                e.addSuppressed(alCerrar);
+            }
+            throw e;
+        }
+    }
+
+
+    /**
+     * Vuelve a abrir el log después de una compactación que no llegó a reemplazarlo.
+     * Un fallo al reabrir se agrega al error original, que es el que se informa.
+     */
+    private void reabrirOriginal(IOException original) {
+        try {
+            abrir();
+        } catch (IOException | RuntimeException e) {
+            original.addSuppressed(e);
+        }
+    }
+
+
+    /**
+     * Valida el registro que empieza en la posición dada.
+     *
+     * @return Su posición si está completo e íntegro, o -1 si el log termina ahí
+     */
+    private static int registroValidoEn(MappedByteBuffer mapa, int posicion) {
+        if (posicion + CABECERA > mapa.capacity()) {
+            return -1;
+        }
+        int longitud = mapa.getInt(posicion);
+        if (longitud <= 0 || (long) posicion + CABECERA + longitud > mapa.capacity()) {
+            return -1;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(mapa.slice(posicion + CABECERA, longitud));
+        return (int) crc.getValue() == mapa.getInt(posicion + Integer.BYTES) ? posicion : -1;
+    }
+
+
+    /**
+     * Descarta todo lo que sigue al último registro válido (escrituras incompletas
+     * de una caída) y vuelve a mapear la capacidad con ceros.
+     */
+    private static MappedByteBuffer truncarCola(FileChannel canal, int fin, int capacidad) throws IOException {
+        canal.truncate(fin);
+        return canal.map(FileChannel.MapMode.READ_WRITE, 0, capacidad);
+    }
+
+
+    /**
+     * Escribe el usuario al final del log, ampliando el mapeo si hace falta.
+     *
+     * @return Posición del registro escrito
+     */
+    private int anexar(Usuario usuario) {
+        byte[] datos = CodecUsuario.codificar(usuario);
+        int total = CABECERA + datos.length;
+        asegurarCapacidad(total);
+
+        CRC32 crc = new CRC32();
+        crc.update(datos);
+
+        MappedByteBuffer mapa = vista.mapa();
+        int posicion = posicionEscritura;
+        mapa.put(posicion + CABECERA, datos);
+        mapa.putInt(posicion + Integer.BYTES, (int) crc.getValue());
+        mapa.putInt(posicion, datos.length);
+        posicionEscritura += total;
+
+        if (registros == inicios.length) {
+            inicios = Arrays.copyOf(inicios, 2 * registros);
+        }
+        inicios[registros++] = posicion;
+        return posicion;
+    }
+
+
+    private void asegurarCapacidad(int adicional) {
+        Vista actual = vista;
+        long requerido = (long) posicionEscritura + adicional;
+        if (requerido <= actual.mapa().capacity()) {
+            return;
+        }
+        if (requerido > Integer.MAX_VALUE) {
+            throw new IllegalStateException("El log de usuarios alcanzó su tamaño máximo");
+        }
+        long nuevaCapacidad = Math.min(Integer.MAX_VALUE, Math.max(requerido, 2L * actual.mapa().capacity()));
+        try {
+            vista = new Vista(canal.map(FileChannel.MapMode.READ_WRITE, 0, nuevaCapacidad), actual.indice());
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo ampliar el log de usuarios: " + ruta, e);
+        }
+    }
+
+
+    private void cerrarCanal() throws IOException {
+        canal.close();
+    }
+
+
+    /**
+     * Buffer mapeado y el índice de posiciones dentro del log.
+     * Se publican juntos para que un lector nunca combine un índice con el buffer de otro log.
+     * Al ampliar el mapeo la vista nueva comparte el índice con la anterior, así que un lector
+     * con la vista vieja puede ver posiciones que su buffer no cubre: debe comprobarlas con
+     * {@link #contiene} y releer {@code vista}, que ya se publicó antes de agregarlas al índice.
+     */
+    private record Vista(MappedByteBuffer mapa, Map<NombreUsuario, Integer> indice) {
+
+
+        /**
+         * @return true si el registro que empieza en la posición dada cabe entero en este buffer
+         */
+        boolean contiene(int posicion) {
+            return posicion + CABECERA <= mapa.capacity()
+                    && (long) posicion + CABECERA + mapa.getInt(posicion) <= mapa.capacity();
+        }
+
+
+        Usuario leer(int posicion) {
+            return CodecUsuario.decodificar(mapa, posicion + CABECERA);
+        }
+    }
+}
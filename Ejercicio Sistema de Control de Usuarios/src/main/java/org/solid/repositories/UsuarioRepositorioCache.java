@@ -0,0 +1,380 @@
+package org.solid.repositories;
+
+import org.solid.interfaces.IUsuarioRepositorio;
+import org.solid.models.NombreUsuario;
+import org.solid.models.PaginaUsuarios;
+import org.solid.models.TipoRol;
+import org.solid.models.Usuario;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+
+/**
+ * Decorador que guarda en memoria las búsquedas por username de un repositorio más lento
+ * (archivo, base de datos), para que los usuarios que inician sesión seguido no paguen
+ * cada vez el acceso al almacenamiento.
+ *
+ * <p>La caché está dividida en segmentos con su propio bloqueo. Cada segmento es un LRU
+ * segmentado: las entradas nuevas entran a un tramo de prueba (la quinta parte de la
+ * capacidad) y pasan al tramo protegido recién cuando se vuelven a pedir. Así una racha de
+ * usernames consultados una sola vez expulsa otras entradas de prueba y no a los usuarios
+ * que inician sesión seguido, que es lo que le pasa a un LRU simple. Ambos tramos son
+ * {@link LinkedHashMap} en orden de acceso; lo que sale del protegido vuelve a prueba.</p>
+ *
+ * <p>Los usernames inexistentes se recuerdan aparte, con vencimiento y capacidad propios, así una
+ * ráfaga de nombres inventados (enumeración) no desplaza a los usuarios reales.</p>
+ *
+ * <p>Las escrituras pasan al repositorio decorado y luego invalidan la clave. Cada segmento
+ * lleva una versión que cambia con cada invalidación: una lectura que empezó antes de una
+ * escritura no guarda el valor viejo. Las escrituras hechas directamente sobre el repositorio
+ * decorado no se ven hasta que la entrada sale de la caché.</p>
+ *
+ * <p>Los recorridos, conteos, búsquedas por prefijo y páginas se delegan sin pasar por la caché.</p>
+ */
+public class UsuarioRepositorioCache implements IUsuarioRepositorio {
+
+
+    private final IUsuarioRepositorio delegado;
+    private final Segmento[] segmentos;
+    private final int bitsSegmento;
+    private final long duracionAusenteNanos;
+
+    private final LongAdder aciertos = new LongAdder();
+    private final LongAdder aciertosAusentes = new LongAdder();
+    private final LongAdder fallos = new LongAdder();
+    private final LongAdder expulsiones = new LongAdder();
+
+
+    /**
+     * Recuerda hasta la capacidad indicada de usuarios y otro tanto de usernames inexistentes
+     * durante 30 segundos.
+     */
+    public UsuarioRepositorioCache(IUsuarioRepositorio delegado, int capacidad) {
+        this(delegado, capacidad, capacidad, 30_000L);
+    }
+
+
+    /**
+     * @param delegado               Repositorio decorado
+     * @param capacidad              Usuarios recordados como máximo
+     * @param capacidadAusentes      Usernames inexistentes recordados como máximo (0 para no recordarlos)
+     * @param duracionAusenteMillis  Tiempo que se recuerda que un username no existe
+     * @throws IllegalArgumentException si la capacidad o la duración no son positivas,
+     *                                  o si la capacidad de ausentes es negativa
+     */
+    public UsuarioRepositorioCache(IUsuarioRepositorio delegado, int capacidad, int capacidadAusentes,
+                                   long duracionAusenteMillis) {
+        if (capacidad <= 0 || capacidadAusentes < 0 || duracionAusenteMillis <= 0) {
+            throw new IllegalArgumentException("Parámetros de caché inválidos");
+        }
+        this.delegado = delegado;
+        this.duracionAusenteNanos = TimeUnit.MILLISECONDS.toNanos(duracionAusenteMillis);
+
+        // Más segmentos que procesadores, pero sin dejar segmentos de una sola entrada
+        int deseados = Math.min(4 * Runtime.getRuntime().availableProcessors(), Math.max(1, capacidad / 64));
+        int cantidad = Integer.highestOneBit(Math.min(deseados, 64));
+        this.bitsSegmento = Integer.numberOfTrailingZeros(cantidad);
+        this.segmentos = new Segmento[cantidad];
+        for (int i = 0; i < cantidad; i++) {
+            segmentos[i] = new Segmento(porSegmento(capacidad, cantidad), porSegmento(capacidadAusentes, cantidad));
+        }
+    }
+
+
+    @Override
+    public void agregarUsuario(Usuario usuario) {
+        delegado.agregarUsuario(usuario);
+        invalidar(usuario.getNombre().getClave());
+    }
+
+
+    @Override
+    public boolean agregarSiAusente(Usuario usuario) {
+        boolean agregado = delegado.agregarSiAusente(usuario);
+        if (agregado) {
+            invalidar(usuario.getNombre().getClave());
+        }
+        return agregado;
+    }
+
+
+    @Override
+    public boolean buscarAntesDeAgregar() {
+        return delegado.buscarAntesDeAgregar();
+    }
+
+
+    /**
+     * Delega en el lote del repositorio decorado y luego invalida todas las claves del lote.
+     */
+    @Override
+    public List<Usuario> agregarLote(List<Usuario> lote) {
+        List<Usuario> rechazados = delegado.agregarLote(lote);
+        for (Usuario usuario : lote) {
+            invalidar(usuario.getNombre().getClave());
+        }
+        return rechazados;
+    }
+
+
+    @Override
+    public Usuario buscarPorUsername(String username) {
+        if (username == null) {
+            return null;
+        }
+        String clave = NombreUsuario.normalizar(username);
+        Segmento segmento = segmento(clave);
+
+        long version;
+        synchronized (segmento) {
+            Usuario usuario = segmento.buscar(clave);
+            if (usuario != null) {
+                aciertos.increment();
+                return usuario;
+            }
+            Long venceEn = segmento.ausentes.get(clave);
+            if (venceEn != null) {
+                if (System.nanoTime() - venceEn < 0) {
+                    aciertosAusentes.increment();
+                    return null;
+                }
+                segmento.ausentes.remove(clave);
+            }
+            version = segmento.version;
+        }
+
+        // El acceso al almacenamiento se hace fuera del bloqueo del segmento
+        fallos.increment();
+        Usuario usuario = delegado.buscarPorUsername(clave);
+        synchronized (segmento) {
+            if (segmento.version == version) {
+                if (usuario != null) {
+                    segmento.guardar(clave, usuario);
+                } else if (segmento.capacidadAusentes > 0) {
+                    segmento.ausentes.put(clave, System.nanoTime() + duracionAusenteNanos);
+                }
+            }
+        }
+        return usuario;
+    }
+
+
+    @Override
+    public List<Usuario> obtenerTodos() {
+        return delegado.obtenerTodos();
+    }
+
+
+    @Override
+    public Stream<Usuario> flujo() {
+        return delegado.flujo();
+    }
+
+
+    @Override
+    public Stream<Usuario> flujoPorRol(TipoRol rol) {
+        return delegado.flujoPorRol(rol);
+    }
+
+
+    @Override
+    public long contarPorRol(TipoRol rol) {
+        return delegado.contarPorRol(rol);
+    }
+
+
+    @Override
+    public List<Usuario> buscarPorPrefijo(String prefijo, int limite) {
+        return delegado.buscarPorPrefijo(prefijo, limite);
+    }
+
+
+    @Override
+    public PaginaUsuarios paginar(long cursor, int tamano) {
+        return delegado.paginar(cursor, tamano);
+    }
+
+
+    /**
+     * Vacía la caché, por ejemplo después de modificar el repositorio decorado por otra vía.
+     */
+    public void limpiar() {
+        for (Segmento segmento : segmentos) {
+            synchronized (segmento) {
+                segmento.prueba.clear();
+                segmento.protegidos.clear();
+                segmento.ausentes.clear();
+                segmento.version++;
+            }
+        }
+    }
+
+
+    /**
+     * @return Búsquedas resueltas con un usuario guardado
+     */
+    public long getAciertos() {
+        return aciertos.sum();
+    }
+
+
+    /**
+     * @return Búsquedas resueltas con un username que se sabe inexistente
+     */
+    public long getAciertosAusentes() {
+        return aciertosAusentes.sum();
+    }
+
+
+    /**
+     * @return Búsquedas que llegaron al repositorio decorado
+     */
+    public long getFallos() {
+        return fallos.sum();
+    }
+
+
+    /**
+     * @return Entradas descartadas por falta de capacidad (usuarios y ausentes)
+     */
+    public long getExpulsiones() {
+        return expulsiones.sum();
+    }
+
+
+    /**
+     * @return Fracción de búsquedas resueltas sin llegar al repositorio decorado, o 0 sin búsquedas
+     */
+    public double getTasaAciertos() {
+        long resueltas = aciertos.sum() + aciertosAusentes.sum();
+        long total = resueltas + fallos.sum();
+        return total == 0 ? 0 : (double) resueltas / total;
+    }
+
+
+    public int getEntradas() {
+        int total = 0;
+        for (Segmento segmento : segmentos) {
+            synchronized (segmento) {
+                total += segmento.prueba.size() + segmento.protegidos.size() + segmento.ausentes.size();
+            }
+        }
+        return total;
+    }
+
+
+    private void invalidar(String clave) {
+        Segmento segmento = segmento(clave);
+        synchronized (segmento) {
+            segmento.prueba.remove(clave);
+            segmento.protegidos.remove(clave);
+            segmento.ausentes.remove(clave);
+            segmento.version++;
+        }
+    }
+
+
+    /**
+     * Bits altos del hash mezclado, como en {@link UsuarioRepositorioParticionado}.
+     */
+    private Segmento segmento(String clave) {
+        if (bitsSegmento == 0) {
+            return segmentos[0];
+        }
+        return segmentos[(clave.hashCode() * 0x9E3779B9) >>> (Integer.SIZE - bitsSegmento)];
+    }
+
+
+    private static int porSegmento(int capacidad, int segmentos) {
+        return capacidad == 0 ? 0 : Math.max(1, capacidad / segmentos);
+    }
+
+
+    /**
+     * Un tramo de la caché. Todos sus campos se acceden con el bloqueo del propio segmento.
+     */
+    private final class Segmento {
+
+
+        /** Entradas pedidas una sola vez desde que llegaron */
+        private final Map<String, Usuario> prueba;
+
+        /** Entradas pedidas de nuevo mientras estaban en prueba */
+        private final Map<String, Usuario> protegidos;
+
+        private final int capacidadProtegidos;
+
+        /** Username inexistente y el instante (nanoTime) en que deja de valer */
+        private final Map<String, Long> ausentes;
+
+        private final int capacidadAusentes;
+
+        /** Cambia con cada invalidación, para descartar lecturas que empezaron antes */
+        private long version;
+
+
+        Segmento(int capacidad, int capacidadAusentes) {
+            this.capacidadAusentes = capacidadAusentes;
+            int capacidadPrueba = Math.max(1, capacidad / 5);
+            this.capacidadProtegidos = capacidad - capacidadPrueba;
+            this.prueba = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Usuario> mayor) {
+                    return expulsar(size() > capacidadPrueba);
+                }
+            };
+            this.protegidos = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Usuario> mayor) {
+                    if (size() <= capacidadProtegidos) {
+                        return false;
+                    }
+                    // Se le da otra oportunidad en prueba en lugar de descartarla
+                    prueba.put(mayor.getKey(), mayor.getValue());
+                    return true;
+                }
+            };
+            this.ausentes = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Long> mayor) {
+                    return expulsar(size() > capacidadAusentes);
+                }
+            };
+        }
+
+
+        Usuario buscar(String clave) {
+            Usuario usuario = protegidos.get(clave);
+            if (usuario != null || capacidadProtegidos == 0) {
+                return usuario != null ? usuario : prueba.get(clave);
+            }
+            usuario = prueba.remove(clave);
+            if (usuario != null) {
+                protegidos.put(clave, usuario);
+            }
+            return usuario;
+        }
+
+
+        void guardar(String clave, Usuario usuario) {
+            if (protegidos.containsKey(clave)) {
+                protegidos.put(clave, usuario);
+            } else {
+                prueba.put(clave, usuario);
+            }
+        }
+
+
+        private boolean expulsar(boolean excedida) {
+            if (excedida) {
+                expulsiones.increment();
+            }
+            return excedida;
+        }
+    }
+}
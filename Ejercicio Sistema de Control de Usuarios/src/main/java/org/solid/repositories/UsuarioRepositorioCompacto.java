@@ -0,0 +1,472 @@
+package org.solid.repositories;
+
+import org.solid.interfaces.IUsuarioRepositorio;
+import org.solid.models.Credencial;
+import org.solid.models.NombreUsuario;
+import org.solid.models.PaginaUsuarios;
+import org.solid.models.TipoRol;
+import org.solid.models.Usuario;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+
+/**
+ * Repositorio en memoria organizado por columnas de arreglos primitivos, pensado
+ * para varios millones de cuentas.
+ *
+ * <p>Cada usuario es una fila identificada por un entero:</p>
+ * <ul>
+ *   <li>usernames en UTF-8 dentro de una única arena de bytes, precedidos por su longitud
+ *       (1 byte hasta 127, 2 bytes hasta 32767); por fila solo se guarda la posición. Si la
+ *       forma canónica ({@link NombreUsuario}) difiere del username, se guarda a continuación
+ *       y un bit de la fila lo indica</li>
+ *   <li>credencial PBKDF2 en un bloque de ancho fijo: iteraciones, sal de 16 bytes y hash de 32</li>
+ *   <li>rol como el ordinal de {@link TipoRol} en un byte</li>
+ * </ul>
+ *
+ * <p>Un índice de direccionamiento abierto (sondeo lineal sobre un {@code int[]}, carga
+ * máxima 0.75) mapea usernames canónicos a filas. Los objetos {@link Usuario} solo se construyen al
+ * consultarlos. Con la capacidad inicial ajustada ronda los 80 bytes por cuenta, frente a
+ * unos 250 de un {@code Usuario} con su credencial textual dentro de un mapa hash.</p>
+ *
+ * <p>Solo acepta credenciales PBKDF2 con el tamaño de sal y hash de
+ * {@code HashContrasenasService} y roles registrados en {@link TipoRol}.
+ * Las lecturas pueden ejecutarse en paralelo; las escrituras son exclusivas.</p>
+ *
+ * <p>La cantidad de filas por rol se mantiene con cada escritura, así que
+ * {@link #contarPorRol} no recorre la columna de roles.</p>
+ */
+public class UsuarioRepositorioCompacto implements IUsuarioRepositorio {
+
+
+    private static final int BYTES_SAL = 16;
+    private static final int BYTES_HASH = 32;
+    private static final int ANCHO_CREDENCIAL = Integer.BYTES + BYTES_SAL + BYTES_HASH;
+    private static final int CAPACIDAD_MINIMA = 16;
+    private static final int BYTES_USERNAME_ESTIMADOS = 16;
+    private static final int LONGITUD_MAXIMA_USERNAME = 0x7FFF;
+    private static final int FILAS_POR_TRAMO = 1024;
+    private static final int TODOS_LOS_ROLES = -1;
+
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Columnas, indexadas por número de fila
+    private byte[] arena;
+    private int[] inicioUsername;
+    private byte[] credenciales;
+    private byte[] roles;
+
+    /** Filas cuya forma canónica se guarda aparte, después del username */
+    private final BitSet claveAparte = new BitSet();
+
+    /** Índice: fila + 1 en cada posición ocupada, 0 si está libre. Capacidad potencia de 2 */
+    private int[] indice;
+
+    private int filas;
+    private int usoArena;
+
+    /** Filas por ordinal de {@link TipoRol} */
+    private final int[] conteoPorRol = new int[TipoRol.values().length];
+
+
+    public UsuarioRepositorioCompacto() {
+        this(CAPACIDAD_MINIMA);
+    }
+
+
+    /**
+     * @param capacidadInicial Número de usuarios esperado, para evitar redimensionar
+     */
+    public UsuarioRepositorioCompacto(int capacidadInicial) {
+        int capacidad = Math.max(CAPACIDAD_MINIMA, capacidadInicial);
+        this.arena = new byte[capacidad * BYTES_USERNAME_ESTIMADOS];
+        this.inicioUsername = new int[capacidad];
+        this.credenciales = new byte[capacidad * ANCHO_CREDENCIAL];
+        this.roles = new byte[capacidad];
+        this.indice = new int[Integer.highestOneBit(capacidad + capacidad / 3) << 1];
+    }
+
+
+    /**
+     * Guarda el usuario. Si ya existe uno con el mismo username, reemplaza su
+     * credencial y su rol en la misma fila; el username visible no cambia.
+     *
+     * @throws IllegalArgumentException si la credencial o el rol no pueden representarse
+     */
+    @Override
+    public void agregarUsuario(Usuario usuario) {
+        Fila fila = Fila.de(usuario);
+        lock.writeLock().lock();
+        try {
+            int existente = buscarFila(fila.clave(), fila.hash());
+            if (existente >= 0) {
+                conteoPorRol[roles[existente]]--;
+                escribirDatos(existente, fila);
+            } else {
+                insertar(fila);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+
+    /**
+     * @throws IllegalArgumentException si la credencial o el rol no pueden representarse
+     */
+    @Override
+    public boolean agregarSiAusente(Usuario usuario) {
+        Fila fila = Fila.de(usuario);
+        lock.writeLock().lock();
+        try {
+            if (buscarFila(fila.clave(), fila.hash()) >= 0) {
+                return false;
+            }
+            insertar(fila);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+
+    @Override
+    public Usuario buscarPorUsername(String username) {
+        if (username == null) {
+            return null;
+        }
+        byte[] bytes = NombreUsuario.normalizar(username).getBytes(StandardCharsets.UTF_8);
+        lock.readLock().lock();
+        try {
+            int fila = buscarFila(bytes, hashBytes(bytes));
+            return fila < 0 ? null : materializar(fila);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+
+    @Override
+    public List<Usuario> obtenerTodos() {
+        lock.readLock().lock();
+        try {
+            return List.copyOf(leerFilas(0, filas, TODOS_LOS_ROLES));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+
+    /**
+     * Recorre las filas existentes al comenzar, materializándolas por tramos de
+     * {@value #FILAS_POR_TRAMO} bajo el bloqueo de lectura. Las filas nunca se mueven,
+     * así que los tramos se reparten bien en un flujo paralelo.
+     */
+    @Override
+    public Stream<Usuario> flujo() {
+        return flujoPorTramos(TODOS_LOS_ROLES);
+    }
+
+
+    /**
+     * Filtra por la columna de roles antes de materializar, así que solo se
+     * construyen los usuarios del rol.
+     */
+    @Override
+    public Stream<Usuario> flujoPorRol(TipoRol rol) {
+        return flujoPorTramos(rol.ordinal());
+    }
+
+
+    @Override
+    public long contarPorRol(TipoRol rol) {
+        lock.readLock().lock();
+        try {
+            return conteoPorRol[rol.ordinal()];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+
+    /**
+     * El cursor es el número de fila: estable, porque las filas nunca se eliminan ni se mueven.
+     */
+    @Override
+    public PaginaUsuarios paginar(long cursor, int tamano) {
+        IUsuarioRepositorio.validarPagina(cursor, tamano);
+        lock.readLock().lock();
+        try {
+            int desde = (int) Math.min(cursor, filas);
+            int hasta = (int) Math.min((long) desde + tamano, filas);
+            return new PaginaUsuarios(leerFilas(desde, hasta, TODOS_LOS_ROLES), hasta, hasta < filas);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+
+    /**
+     * @return Bytes reservados por las columnas y el índice
+     */
+    public long getBytesReservados() {
+        lock.readLock().lock();
+        try {
+            return (long) arena.length
+                    + (long) inicioUsername.length * Integer.BYTES
+                    + credenciales.length
+                    + roles.length
+                    + claveAparte.size() / Byte.SIZE
+                    + (long) indice.length * Integer.BYTES;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+
+    private int contarFilas() {
+        lock.readLock().lock();
+        try {
+            return filas;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+
+    private Stream<Usuario> flujoPorTramos(int ordinalRol) {
+        int limite = contarFilas();
+        int tramos = (limite + FILAS_POR_TRAMO - 1) / FILAS_POR_TRAMO;
+        return IntStream.range(0, tramos)
+                .mapToObj(tramo -> {
+                    int desde = tramo * FILAS_POR_TRAMO;
+                    lock.readLock().lock();
+                    try {
+                        return leerFilas(desde, Math.min(desde + FILAS_POR_TRAMO, limite), ordinalRol);
+                    } finally {
+                        lock.readLock().unlock();
+                    }
+                })
+                .flatMap(List::stream);
+    }
+
+
+    /**
+     * Materializa las filas del rango, opcionalmente solo las de un rol.
+     * Debe llamarse con el bloqueo de lectura tomado.
+     *
+     * @param ordinalRol Ordinal de {@link TipoRol}, o {@link #TODOS_LOS_ROLES}
+     */
+    private List<Usuario> leerFilas(int desde, int hasta, int ordinalRol) {
+        List<Usuario> usuarios = new ArrayList<>(hasta - desde);
+        for (int fila = desde; fila < hasta; fila++) {
+            if (ordinalRol == TODOS_LOS_ROLES || roles[fila] == ordinalRol) {
+                usuarios.add(materializar(fila));
+            }
+        }
+        return usuarios;
+    }
+
+
+    // ================= ÍNDICE Y COLUMNAS =================
+
+    /**
+     * @param clave Forma canónica del username en UTF-8
+     * @return Fila del username, o -1 si no existe
+     */
+    private int buscarFila(byte[] clave, int hash) {
+        int mascara = indice.length - 1;
+        for (int i = mezclar(hash) & mascara; ; i = (i + 1) & mascara) {
+            int valor = indice[i];
+            if (valor == 0) {
+                return -1;
+            }
+            int fila = valor - 1;
+            if (mismaClave(fila, clave)) {
+                return fila;
+            }
+        }
+    }
+
+
+    private boolean mismaClave(int fila, byte[] clave) {
+        int posicion = posicionClave(fila);
+        int inicio = inicioDatos(posicion);
+        return longitud(posicion) == clave.length
+                && Arrays.equals(arena, inicio, inicio + clave.length, clave, 0, clave.length);
+    }
+
+
+    /** Posición en la arena de la forma canónica: el propio username o el campo siguiente */
+    private int posicionClave(int fila) {
+        int posicion = inicioUsername[fila];
+        return claveAparte.get(fila) ? inicioDatos(posicion) + longitud(posicion) : posicion;
+    }
+
+
+    /** Longitud del campo de la arena que empieza en la posición indicada */
+    private int longitud(int posicion) {
+        int primero = arena[posicion];
+        return primero >= 0 ? primero : ((primero & 0x7F) << 8) | (arena[posicion + 1] & 0xFF);
+    }
+
+
+    private int inicioDatos(int posicion) {
+        return posicion + (arena[posicion] >= 0 ? 1 : 2);
+    }
+
+
+    private void insertar(Fila datos) {
+        boolean aparte = datos.clave() != datos.username();
+        asegurarCapacidad(bytesEnArena(datos.username()) + (aparte ? bytesEnArena(datos.clave()) : 0));
+        int fila = filas++;
+
+        inicioUsername[fila] = usoArena;
+        escribirEnArena(datos.username());
+        if (aparte) {
+            claveAparte.set(fila);
+            escribirEnArena(datos.clave());
+        }
+        escribirDatos(fila, datos);
+
+        ubicarEnIndice(fila, datos.hash());
+    }
+
+
+    private static int bytesEnArena(byte[] campo) {
+        return (campo.length < 0x80 ? 1 : 2) + campo.length;
+    }
+
+
+    private void escribirEnArena(byte[] campo) {
+        if (campo.length < 0x80) {
+            arena[usoArena++] = (byte) campo.length;
+        } else {
+            arena[usoArena++] = (byte) (0x80 | (campo.length >>> 8));
+            arena[usoArena++] = (byte) campo.length;
+        }
+        System.arraycopy(campo, 0, arena, usoArena, campo.length);
+        usoArena += campo.length;
+    }
+
+
+    private void escribirDatos(int fila, Fila datos) {
+        ByteBuffer.wrap(credenciales, fila * ANCHO_CREDENCIAL, ANCHO_CREDENCIAL)
+                .putInt(datos.credencial().iteraciones())
+                .put(datos.credencial().sal())
+                .put(datos.credencial().hash());
+        roles[fila] = (byte) datos.rol().ordinal();
+        conteoPorRol[datos.rol().ordinal()]++;
+    }
+
+
+    private void ubicarEnIndice(int fila, int hash) {
+        int mascara = indice.length - 1;
+        int i = mezclar(hash) & mascara;
+        while (indice[i] != 0) {
+            i = (i + 1) & mascara;
+        }
+        indice[i] = fila + 1;
+    }
+
+
+    private Usuario materializar(int fila) {
+        int posicion = inicioUsername[fila];
+        String username = new String(arena, inicioDatos(posicion), longitud(posicion), StandardCharsets.UTF_8);
+
+        ByteBuffer bloque = ByteBuffer.wrap(credenciales, fila * ANCHO_CREDENCIAL, ANCHO_CREDENCIAL);
+        int iteraciones = bloque.getInt();
+        byte[] sal = new byte[BYTES_SAL];
+        byte[] hash = new byte[BYTES_HASH];
+        bloque.get(sal).get(hash);
+
+        return new Usuario(username, new Credencial(iteraciones, sal, hash).aTexto(),
+                TipoRol.porOrdinal(roles[fila]).getRol());
+    }
+
+
+    /**
+     * Amplía las columnas, la arena y el índice (factor de carga máximo 0.75).
+     */
+    private void asegurarCapacidad(int bytesUsername) {
+        if (filas == roles.length) {
+            int capacidad = roles.length + (roles.length >> 1);
+            inicioUsername = Arrays.copyOf(inicioUsername, capacidad);
+            credenciales = Arrays.copyOf(credenciales, capacidad * ANCHO_CREDENCIAL);
+            roles = Arrays.copyOf(roles, capacidad);
+        }
+
+        if (usoArena + bytesUsername > arena.length) {
+            arena = Arrays.copyOf(arena, Math.max(usoArena + bytesUsername, arena.length + (arena.length >> 1)));
+        }
+
+        if ((long) (filas + 1) * 4 > (long) indice.length * 3) {
+            indice = new int[indice.length * 2];
+            for (int fila = 0; fila < filas; fila++) {
+                int posicion = posicionClave(fila);
+                int inicio = inicioDatos(posicion);
+                ubicarEnIndice(fila, hashBytes(arena, inicio, inicio + longitud(posicion)));
+            }
+        }
+    }
+
+
+    private static int hashBytes(byte[] bytes) {
+        return hashBytes(bytes, 0, bytes.length);
+    }
+
+
+    private static int hashBytes(byte[] bytes, int desde, int hasta) {
+        int h = 1;
+        for (int i = desde; i < hasta; i++) {
+            h = 31 * h + bytes[i];
+        }
+        return h;
+    }
+
+
+    /** Dispersa los bits altos del hash sobre los bajos */
+    private static int mezclar(int hash) {
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+
+    /**
+     * Datos de un usuario ya validados y convertidos a su forma columnar.
+     * Si el username ya es canónico, {@code clave} es el mismo arreglo que {@code username}.
+     */
+    private record Fila(byte[] username, byte[] clave, int hash, Credencial credencial, TipoRol rol) {
+
+
+        static Fila de(Usuario usuario) {
+            byte[] username = usuario.getUsername().getBytes(StandardCharsets.UTF_8);
+            String canonico = usuario.getNombre().getClave();
+            byte[] clave = canonico.equals(usuario.getUsername()) ? username : canonico.getBytes(StandardCharsets.UTF_8);
+            if (Math.max(username.length, clave.length) > LONGITUD_MAXIMA_USERNAME) {
+                throw new IllegalArgumentException("Username demasiado largo: " + username.length + " bytes");
+            }
+
+            Credencial credencial = Credencial.desdeTexto(usuario.getPassword());
+            if (credencial == null || credencial.sal().length != BYTES_SAL || credencial.hash().length != BYTES_HASH) {
+                throw new IllegalArgumentException("El repositorio compacto requiere credenciales PBKDF2 de "
+                        + BYTES_SAL + " bytes de sal y " + BYTES_HASH + " de hash");
+            }
+
+            TipoRol rol = TipoRol.de(usuario.getRol());
+            if (rol == null) {
+                throw new IllegalArgumentException("Rol no registrado: " + usuario.getRol().getNombre());
+            }
+            return new Fila(username, clave, hashBytes(clave), credencial, rol);
+        }
+    }
+}
@@ -0,0 +1,510 @@
+package org.solid.repositories;
+
+import org.solid.interfaces.IUsuarioRepositorio;
+import org.solid.models.NombreUsuario;
+import org.solid.models.PaginaUsuarios;
+import org.solid.models.Rol;
+import org.solid.models.TipoRol;
+import org.solid.models.Usuario;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+
+/**
+ * Implementación en memoria indexada por username.
+ * - SRP: solo gestiona almacenamiento
+ * - Búsqueda O(1) sobre un ConcurrentHashMap, segura ante logins simultáneos
+ * - La clave es el texto canónico de {@link NombreUsuario}: el String ya guarda su hash y
+ *   se compara sin una indirección más; un username ya canónico se busca sin copiarlo
+ *
+ * <p>Además del mapa, cada cuenta ocupa una posición fija en una bitácora de solo
+ * agregado dividida en bloques. Recorrer el prefijo ya escrito de la bitácora da una
+ * instantánea sin copiar nada: cada cuenta aparece una sola vez y con sus datos vigentes al
+ * momento de leerla. Las altas se anexan sin bloqueos y pueden terminar en desorden; una
+ * alta que terminó detrás de otra todavía en curso aparece en el siguiente recorrido.
+ * La posición en la bitácora es también el cursor de {@link #paginar}.</p>
+ *
+ * <p>Como índice secundario, cada {@link TipoRol} tiene su propia bitácora de miembros y un
+ * contador, actualizados dentro de la misma operación atómica del mapa que agrega o reemplaza
+ * al usuario. Si una cuenta cambia de rol se anexa a la bitácora del nuevo rol y su posición
+ * anterior queda obsoleta; cada entrada recuerda su posición vigente para no repetirse.</p>
+ *
+ * <p>Un tercer índice, una skip list concurrente ordenada por username, resuelve las
+ * búsquedas por prefijo en O(log n + k) sin bloquear a los registros simultáneos.</p>
+ */
+public class UsuarioRepositorioConcurrente implements IUsuarioRepositorio {
+
+
+    private final ConcurrentHashMap<String, Entrada> usuarios;
+    private final Bitacora bitacora;
+
+    /** Índice secundario por rol; el mapa no cambia después del constructor */
+    private final Map<TipoRol, IndiceRol> indicePorRol;
+
+    /** Las mismas entradas ordenadas por username, para búsquedas por prefijo */
+    private final ConcurrentSkipListMap<NombreUsuario, Entrada> porNombre;
+
+
+    public UsuarioRepositorioConcurrente() {
+        this.usuarios = new ConcurrentHashMap<>();
+        this.bitacora = new Bitacora();
+        this.indicePorRol = new EnumMap<>(TipoRol.class);
+        for (TipoRol rol : TipoRol.values()) {
+            indicePorRol.put(rol, new IndiceRol(new Bitacora(), new LongAdder()));
+        }
+        this.porNombre = new ConcurrentSkipListMap<>();
+    }
+
+
+    /**
+     * Guarda el usuario. Si ya existe uno con el mismo username, lo reemplaza
+     * conservando su posición.
+     */
+    @Override
+    public void agregarUsuario(Usuario usuario) {
+        usuarios.compute(usuario.getNombre().getClave(), (clave, entrada) -> {
+            if (entrada == null) {
+                return registrar(usuario);
+            }
+            Rol anterior = entrada.usuario.getRol();
+            if (anterior != usuario.getRol()) {
+                desindexar(anterior);
+                indexar(entrada, usuario.getRol());
+            }
+            entrada.usuario = usuario;
+            return entrada;
+        });
+    }
+
+
+    @Override
+    public boolean agregarSiAusente(Usuario usuario) {
+        boolean[] agregado = {false};
+        usuarios.computeIfAbsent(usuario.getNombre().getClave(), clave -> {
+            agregado[0] = true;
+            return registrar(usuario);
+        });
+        return agregado[0];
+    }
+
+
+    @Override
+    public Usuario buscarPorUsername(String username) {
+        return username == null ? null : buscarPorClave(NombreUsuario.normalizar(username));
+    }
+
+
+    /**
+     * Búsqueda por el texto ya normalizado, para quien lo calculó antes de llegar aquí.
+     */
+    Usuario buscarPorClave(String clave) {
+        Entrada entrada = usuarios.get(clave);
+        return entrada == null ? null : entrada.usuario;
+    }
+
+
+    /**
+     * @return Cuentas registradas, leídas de la bitácora sin recorrerla
+     */
+    int contarUsuarios() {
+        return bitacora.instantanea().tamano();
+    }
+
+
+    /**
+     * Devuelve una copia inmutable de la instantánea actual, en orden de alta.
+     * Los cambios posteriores no se reflejan en la lista devuelta.
+     */
+    @Override
+    public List<Usuario> obtenerTodos() {
+        return flujo().toList();
+    }
+
+
+    /**
+     * Recorre la instantánea actual sin copiarla. El flujo es ordenado y se divide por
+     * rangos de la bitácora, así que rinde bien en paralelo.
+     */
+    @Override
+    public Stream<Usuario> flujo() {
+        return StreamSupport.stream(bitacora.recorrer(RecorridoBitacora.TODOS_LOS_ROLES), false);
+    }
+
+
+    /**
+     * Recorre solo la bitácora del rol, en orden de ingreso al rol. Una cuenta que cambia
+     * de rol durante el recorrido puede no aparecer en él.
+     */
+    @Override
+    public Stream<Usuario> flujoPorRol(TipoRol rol) {
+        return StreamSupport.stream(indicePorRol.get(rol).miembros().recorrer(rol.ordinal()), false);
+    }
+
+
+    /**
+     * Lee el contador del rol, sin recorrer las cuentas.
+     */
+    @Override
+    public long contarPorRol(TipoRol rol) {
+        return indicePorRol.get(rol).cantidad().sum();
+    }
+
+
+    /**
+     * Recorre el índice ordenado desde el prefijo y se detiene en la primera clave que
+     * ya no coincide, así que el costo depende de los resultados y no del total de cuentas.
+     */
+    @Override
+    public List<Usuario> buscarPorPrefijo(String prefijo, int limite) {
+        IUsuarioRepositorio.validarPrefijo(prefijo, limite);
+        NombreUsuario desde = NombreUsuario.de(prefijo);
+        List<Usuario> resultado = new ArrayList<>(Math.min(limite, 16));
+        for (Map.Entry<NombreUsuario, Entrada> par : porNombre.tailMap(desde).entrySet()) {
+            if (resultado.size() == limite || !par.getKey().empiezaCon(desde.getClave())) {
+                break;
+            }
+            resultado.add(par.getValue().usuario);
+        }
+        return resultado;
+    }
+
+
+    /**
+     * El cursor es la posición en la bitácora: las páginas no repiten ni omiten cuentas
+     * aunque haya altas concurrentes, que aparecen al final.
+     */
+    @Override
+    public PaginaUsuarios paginar(long cursor, int tamano) {
+        IUsuarioRepositorio.validarPagina(cursor, tamano);
+        Instantanea actual = bitacora.instantanea();
+        int limite = actual.tamano();
+        Entrada[][] bloques = actual.bloques();
+
+        int desde = (int) Math.min(cursor, limite);
+        int hasta = (int) Math.min((long) desde + tamano, limite);
+        List<Usuario> pagina = new ArrayList<>(hasta - desde);
+        for (int i = desde; i < hasta; i++) {
+            pagina.add(Bitacora.entrada(bloques, i).usuario);
+        }
+        return new PaginaUsuarios(pagina, hasta, hasta < limite);
+    }
+
+
+    // ================= BITÁCORA E ÍNDICE POR ROL =================
+
+    /**
+     * Crea la entrada de una cuenta nueva. Se llama dentro de la operación atómica del mapa.
+     */
+    private Entrada registrar(Usuario usuario) {
+        Entrada entrada = new Entrada(usuario);
+        bitacora.anexar(entrada);
+        indexar(entrada, usuario.getRol());
+        porNombre.put(usuario.getNombre(), entrada);
+        return entrada;
+    }
+
+
+    /**
+     * Anexa la entrada a la bitácora del rol y registra esa posición como vigente.
+     * Los roles fuera de {@link TipoRol} no se indexan.
+     */
+    private void indexar(Entrada entrada, Rol rol) {
+        TipoRol tipo = TipoRol.de(rol);
+        if (tipo == null) {
+            entrada.ubicacionRol = Entrada.SIN_ROL;
+            return;
+        }
+        IndiceRol indice = indicePorRol.get(tipo);
+        int posicion = indice.miembros().anexar(entrada);
+        entrada.ubicacionRol = Entrada.ubicacion(tipo.ordinal(), posicion);
+        indice.cantidad().increment();
+    }
+
+
+    /**
+     * Descuenta al rol anterior; su posición en esa bitácora queda obsoleta al indexar el nuevo.
+     */
+    private void desindexar(Rol rol) {
+        TipoRol tipo = TipoRol.de(rol);
+        if (tipo != null) {
+            indicePorRol.get(tipo).cantidad().decrement();
+        }
+    }
+
+
+    /**
+     * Cuenta almacenada. El usuario se reemplaza en el lugar; {@code ubicacionRol} indica
+     * el rol y la posición vigentes dentro del índice por rol.
+     */
+    private static final class Entrada {
+
+
+        static final long SIN_ROL = -1;
+
+
+        private volatile Usuario usuario;
+        private volatile long ubicacionRol = SIN_ROL;
+
+
+        Entrada(Usuario usuario) {
+            this.usuario = usuario;
+        }
+
+
+        static long ubicacion(int ordinalRol, int posicion) {
+            return ((long) ordinalRol << Integer.SIZE) | posicion;
+        }
+    }
+
+
+    /**
+     * Bitácora de miembros y contador de un rol.
+     */
+    private record IndiceRol(Bitacora miembros, LongAdder cantidad) {
+    }
+
+
+    /**
+     * Arreglo de solo agregado en bloques de tamaño fijo. Los bloques llenos nunca se
+     * copian; al crecer solo se amplía el arreglo de referencias a bloques.
+     *
+     * <p>Cada alta reserva su posición con un incremento atómico y publica la entrada en
+     * esa posición con semántica release, sin bloqueos ni esperas: altas simultáneas pueden
+     * terminar en cualquier orden y dejar un instante posiciones reservadas todavía vacías.
+     * Los lectores solo recorren el prefijo ya escrito sin huecos ({@link #instantanea()}),
+     * así que nunca ven una posición vacía ni la saltean. Solo crear un bloque nuevo (una vez
+     * cada {@value #TAMANO_BLOQUE} altas) toma el monitor.</p>
+     */
+    private static final class Bitacora {
+
+
+        private static final int BITS_BLOQUE = 10;
+        private static final int TAMANO_BLOQUE = 1 << BITS_BLOQUE;
+        private static final int MASCARA_BLOQUE = TAMANO_BLOQUE - 1;
+
+        private static final VarHandle ENTRADAS = MethodHandles.arrayElementVarHandle(Entrada[].class);
+
+
+        private final AtomicInteger reservado = new AtomicInteger();
+        private volatile Entrada[][] bloques = new Entrada[4][];
+
+        /** Bloques ya creados, siempre los primeros del arreglo; se escribe después de {@code bloques} */
+        private volatile int creados;
+
+        /**
+         * Longitud de un prefijo ya escrito sin huecos. Es solo una pista para no volver a
+         * revisar esas posiciones: cualquier valor que se lea es válido, aunque quede atrasado.
+         */
+        private volatile int escritos;
+
+
+        /**
+         * @return Posición asignada a la entrada
+         */
+        int anexar(Entrada entrada) {
+            int posicion = reservado.getAndIncrement();
+            ENTRADAS.setRelease(bloque(posicion >>> BITS_BLOQUE), posicion & MASCARA_BLOQUE, entrada);
+            return posicion;
+        }
+
+
+        /**
+         * Avanza desde la pista {@code escritos} hasta la primera posición reservada que
+         * todavía no tiene entrada. Cada posición se revisa una vez en total, no una vez por lectura.
+         *
+         * @return Bloques y longitud del prefijo escrito; todas sus posiciones tienen entrada
+         */
+        Instantanea instantanea() {
+            // La pista se lee primero: lo que se lee después es al menos tan nuevo como lo
+            // que vio quien la escribió, así que el arreglo de bloques la cubre
+            int inicial = escritos;
+            int reservadas = reservado.get();
+            int disponibles = creados;
+            Entrada[][] actuales = bloques;
+            int limite = (int) Math.min(reservadas, (long) disponibles << BITS_BLOQUE);
+
+            int longitud = inicial;
+            while (longitud < limite
+                    && ENTRADAS.getAcquire(actuales[longitud >>> BITS_BLOQUE], longitud & MASCARA_BLOQUE) != null) {
+                longitud++;
+            }
+            if (longitud > inicial) {
+                escritos = longitud;
+            }
+            return new Instantanea(actuales, longitud);
+        }
+
+
+        /**
+         * Devuelve el bloque indicado, creándolo bajo el monitor si todavía no existe.
+         * Leer {@code creados} antes que {@code bloques} garantiza ver el arreglo que ya
+         * contiene esos bloques.
+         */
+        private Entrada[] bloque(int indice) {
+            if (indice < creados) {
+                return bloques[indice];
+            }
+            synchronized (this) {
+                Entrada[][] actuales = bloques;
+                if (indice >= actuales.length) {
+                    actuales = Arrays.copyOf(actuales, Math.max(actuales.length * 2, indice + 1));
+                }
+                for (int i = creados; i <= indice; i++) {
+                    actuales[i] = new Entrada[TAMANO_BLOQUE];
+                }
+                bloques = actuales;
+                creados = Math.max(creados, indice + 1);
+                return actuales[indice];
+            }
+        }
+
+
+        /**
+         * @param ordinalRol Rol de esta bitácora, o {@link RecorridoBitacora#TODOS_LOS_ROLES}
+         *                   para la bitácora principal
+         */
+        Spliterator<Usuario> recorrer(int ordinalRol) {
+            Instantanea actual = instantanea();
+            return new RecorridoBitacora(actual.bloques(), 0, actual.tamano(), ordinalRol);
+        }
+
+
+        static Entrada entrada(Entrada[][] bloques, int posicion) {
+            return bloques[posicion >>> BITS_BLOQUE][posicion & MASCARA_BLOQUE];
+        }
+    }
+
+
+    /**
+     * Prefijo escrito de una bitácora: las posiciones menores a {@code tamano} tienen entrada
+     * y sus bloques están en {@code bloques}.
+     */
+    private record Instantanea(Entrada[][] bloques, int tamano) {
+    }
+
+
+    /**
+     * Spliterator sobre un rango fijo de una bitácora. Se divide por la mitad alineando
+     * el corte a un bloque, de modo que cada parte recorre memoria contigua.
+     *
+     * <p>Sobre la bitácora de un rol omite las posiciones obsoletas: solo entrega la entrada
+     * cuya ubicación vigente es la posición visitada.</p>
+     */
+    private static final class RecorridoBitacora implements Spliterator<Usuario> {
+
+
+        static final int TODOS_LOS_ROLES = -1;
+
+        private static final int MINIMO_DIVISION = 2 * Bitacora.TAMANO_BLOQUE;
+
+
+        private final Entrada[][] bloques;
+        private final int ordinalRol;
+        private final Rol rol;
+        private int actual;
+        private final int fin;
+
+
+        RecorridoBitacora(Entrada[][] bloques, int desde, int hasta, int ordinalRol) {
+            this.bloques = bloques;
+            this.ordinalRol = ordinalRol;
+            this.rol = ordinalRol == TODOS_LOS_ROLES ? null : TipoRol.porOrdinal(ordinalRol).getRol();
+            this.actual = desde;
+            this.fin = hasta;
+        }
+
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Usuario> accion) {
+            while (actual < fin) {
+                int posicion = actual++;
+                Usuario usuario = vigente(Bitacora.entrada(bloques, posicion), posicion);
+                if (usuario != null) {
+                    accion.accept(usuario);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+
+        @Override
+        public void forEachRemaining(Consumer<? super Usuario> accion) {
+            int posicion = actual;
+            actual = fin;
+            while (posicion < fin) {
+                Entrada[] bloque = bloques[posicion >>> Bitacora.BITS_BLOQUE];
+                int inicioBloque = posicion & ~Bitacora.MASCARA_BLOQUE;
+                int hastaEnBloque = Math.min(fin - inicioBloque, Bitacora.TAMANO_BLOQUE);
+                for (int i = posicion & Bitacora.MASCARA_BLOQUE; i < hastaEnBloque; i++) {
+                    Usuario usuario = vigente(bloque[i], inicioBloque + i);
+                    if (usuario != null) {
+                        accion.accept(usuario);
+                    }
+                }
+                posicion = inicioBloque + hastaEnBloque;
+            }
+        }
+
+
+        /**
+         * @return El usuario de la entrada, o null si la posición está obsoleta en este rol
+         */
+        private Usuario vigente(Entrada entrada, int posicion) {
+            if (ordinalRol == TODOS_LOS_ROLES) {
+                return entrada.usuario;
+            }
+            if (entrada.ubicacionRol != Entrada.ubicacion(ordinalRol, posicion)) {
+                return null;
+            }
+            Usuario usuario = entrada.usuario;
+            return usuario.getRol() == rol ? usuario : null;
+        }
+
+
+        @Override
+        public Spliterator<Usuario> trySplit() {
+            if (fin - actual < MINIMO_DIVISION) {
+                return null;
+            }
+            int medio = ((actual + fin) >>> 1) & ~Bitacora.MASCARA_BLOQUE;
+            if (medio <= actual) {
+                return null;
+            }
+            Spliterator<Usuario> prefijo = new RecorridoBitacora(bloques, actual, medio, ordinalRol);
+            actual = medio;
+            return prefijo;
+        }
+
+
+        @Override
+        public long estimateSize() {
+            return fin - actual;
+        }
+
+
+        /**
+         * El tamaño es exacto solo en la bitácora principal; en la de un rol
+         * pueden omitirse posiciones obsoletas.
+         */
+        @Override
+        public int characteristics() {
+            int comunes = ORDERED | NONNULL | DISTINCT | IMMUTABLE;
+            return ordinalRol == TODOS_LOS_ROLES ? comunes | SIZED | SUBSIZED : comunes;
+        }
+    }
+}
@@ -0,0 +1,701 @@
+package org.solid.repositories;
+
+import org.solid.interfaces.IUsuarioRepositorio;
+import org.solid.models.PaginaUsuarios;
+import org.solid.models.TipoRol;
+import org.solid.models.Usuario;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+
+/**
+ * Capa de durabilidad para un repositorio en memoria: diario de escritura anticipada
+ * (write-ahead log) con commit en grupo e instantáneas periódicas.
+ *
+ * <p>Cada escritura se aplica en memoria y se anexa a un buffer del diario en el mismo
+ * orden, bajo un bloqueo breve; después el llamador espera a que su registro llegue a
+ * disco. Un único hilo escritor vuelca todo lo acumulado y hace un solo {@code fsync} por
+ * grupo, de modo que los escritores concurrentes comparten el costo de la sincronización.</p>
+ *
+ * <p>Una instantánea corta el diario (los registros siguientes van a un archivo nuevo) y
+ * luego copia el contenido en memoria sin bloquear a los escritores. Como todas las
+ * operaciones son inserciones o reemplazos por username, reaplicar el diario posterior al
+ * corte sobre esa copia reproduce el estado exacto aunque la copia ya incluya algunos de
+ * esos cambios. Con la instantánea en disco se borran los diarios e instantáneas anteriores.</p>
+ *
+ * <p>Al abrir se carga la última instantánea y se reaplican los diarios desde su generación;
+ * una cola escrita a medias en el último diario se trunca. Los registros usan el formato
+ * {@code [longitud:int][crc32:int][datos]} de {@link UsuarioRepositorioArchivo}.</p>
+ *
+ * <p>Un usuario agregado es visible para las búsquedas apenas se aplica en memoria,
+ * un instante antes de que el método que lo agregó confirme su durabilidad.</p>
+ *
+ * <p>La clase es final porque el constructor inicia el hilo escritor y programa las
+ * instantáneas sobre la propia instancia.</p>
+ */
+public final class UsuarioRepositorioDurable implements IUsuarioRepositorio, Closeable {
+
+
+    private static final int CABECERA = 2 * Integer.BYTES;
+    private static final int LONGITUD_MAXIMA = 3 * (Short.BYTES + 0xFFFF);
+    private static final int MAGIA_INSTANTANEA = 0x55535231;
+    private static final int CAPACIDAD_BUFFER = 64 * 1024;
+    private static final int TAMANO_E_S = 1 << 16;
+
+    private static final String PREFIJO_DIARIO = "diario-";
+    private static final String SUFIJO_DIARIO = ".log";
+    private static final String PREFIJO_INSTANTANEA = "instantanea-";
+    private static final String SUFIJO_INSTANTANEA = ".dat";
+    private static final String SUFIJO_TEMPORAL = ".tmp";
+
+
+    private final IUsuarioRepositorio memoria;
+    private final Path directorio;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition hayPendientes = lock.newCondition();
+    private final Condition sincronizado = lock.newCondition();
+
+    // Protegidos por lock
+    private ByteBuffer pendientes = ByteBuffer.allocate(CAPACIDAD_BUFFER);
+    private ByteBuffer reserva = ByteBuffer.allocate(CAPACIDAD_BUFFER);
+    private long ultimaSecuencia;
+    private long secuenciaDurable;
+    private int corteRotacion = -1;
+    private long generacionPedida;
+    private long generacionDiario;
+    private IOException falla;
+    private boolean cerrado;
+
+    /** Solo lo usa el hilo escritor (y la recuperación, antes de iniciarlo) */
+    private FileChannel diario;
+    private volatile long sincronizaciones;
+
+    private final Thread escritor;
+    private final ScheduledExecutorService instantaneas;
+
+
+    /**
+     * Abre el directorio con un {@link UsuarioRepositorioConcurrente} y sin instantáneas
+     * automáticas.
+     */
+    public UsuarioRepositorioDurable(Path directorio) {
+        this(new UsuarioRepositorioConcurrente(), directorio, 0);
+    }
+
+
+    /**
+     * Recupera el estado guardado en el directorio (creándolo si no existe) y comienza a
+     * registrar las escrituras.
+     *
+     * @param memoria                    Repositorio en memoria, vacío, que mantiene el estado
+     * @param directorio                 Directorio de diarios e instantáneas
+     * @param intervaloInstantaneaMillis Frecuencia de las instantáneas automáticas,
+     *                                   o 0 para tomarlas solo con {@link #tomarInstantanea()}
+     * @throws IllegalArgumentException si el intervalo es negativo
+     * @throws UncheckedIOException     si el estado guardado no puede leerse
+     */
+    public UsuarioRepositorioDurable(IUsuarioRepositorio memoria, Path directorio, long intervaloInstantaneaMillis) {
+        if (intervaloInstantaneaMillis < 0) {
+            throw new IllegalArgumentException("El intervalo de instantáneas no puede ser negativo");
+        }
+        this.memoria = memoria;
+        this.directorio = directorio;
+        try {
+            Files.createDirectories(directorio);
+            recuperar();
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo recuperar el repositorio durable: " + directorio, e);
+        }
+
+        this.escritor = Thread.ofPlatform().name("diario-usuarios").daemon(true).unstarted(this::escribirDiario);
+        this.instantaneas = intervaloInstantaneaMillis > 0
+                ? Executors.newSingleThreadScheduledExecutor(tarea -> {
+                    Thread hilo = new Thread(tarea, "instantaneas-usuarios");
+                    hilo.setDaemon(true);
+                    return hilo;
+                })
+                : null;
+
+        // Los hilos de fondo arrancan recién con todos los campos asignados
+        escritor.start();
+        if (instantaneas != null) {
+            instantaneas.scheduleWithFixedDelay(this::tomarInstantaneaProgramada,
+                    intervaloInstantaneaMillis, intervaloInstantaneaMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+
+    /**
+     * Guarda (o reemplaza) el usuario y vuelve cuando su registro está en disco.
+     *
+     * @throws UncheckedIOException  si el diario no pudo escribirse
+     * @throws IllegalStateException si el repositorio está cerrado
+     */
+    @Override
+    public void agregarUsuario(Usuario usuario) {
+        byte[] registro = enmarcar(usuario);
+        long secuencia;
+        lock.lock();
+        try {
+            verificarAbierto();
+            memoria.agregarUsuario(usuario);
+            secuencia = anexar(registro);
+        } finally {
+            lock.unlock();
+        }
+        esperarDurable(secuencia);
+    }
+
+
+    /**
+     * @throws UncheckedIOException  si el diario no pudo escribirse
+     * @throws IllegalStateException si el repositorio está cerrado
+     */
+    @Override
+    public boolean agregarSiAusente(Usuario usuario) {
+        byte[] registro = enmarcar(usuario);
+        long secuencia;
+        lock.lock();
+        try {
+            verificarAbierto();
+            if (!memoria.agregarSiAusente(usuario)) {
+                return false;
+            }
+            secuencia = anexar(registro);
+        } finally {
+            lock.unlock();
+        }
+        esperarDurable(secuencia);
+        return true;
+    }
+
+
+    /**
+     * Anexa todo el lote y espera una única sincronización.
+     */
+    @Override
+    public List<Usuario> agregarLote(List<Usuario> lote) {
+        List<byte[]> registros = lote.stream().map(UsuarioRepositorioDurable::enmarcar).toList();
+        List<Usuario> rechazados = new ArrayList<>();
+        long secuencia = -1;
+        lock.lock();
+        try {
+            verificarAbierto();
+            for (int i = 0; i < lote.size(); i++) {
+                if (memoria.agregarSiAusente(lote.get(i))) {
+                    secuencia = anexar(registros.get(i));
+                } else {
+                    rechazados.add(lote.get(i));
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (secuencia >= 0) {
+            esperarDurable(secuencia);
+        }
+        return rechazados;
+    }
+
+
+    @Override
+    public Usuario buscarPorUsername(String username) {
+        return memoria.buscarPorUsername(username);
+    }
+
+
+    @Override
+    public List<Usuario> obtenerTodos() {
+        return memoria.obtenerTodos();
+    }
+
+
+    @Override
+    public Stream<Usuario> flujo() {
+        return memoria.flujo();
+    }
+
+
+    @Override
+    public Stream<Usuario> flujoPorRol(TipoRol rol) {
+        return memoria.flujoPorRol(rol);
+    }
+
+
+    @Override
+    public long contarPorRol(TipoRol rol) {
+        return memoria.contarPorRol(rol);
+    }
+
+
+    @Override
+    public List<Usuario> buscarPorPrefijo(String prefijo, int limite) {
+        return memoria.buscarPorPrefijo(prefijo, limite);
+    }
+
+
+    @Override
+    public PaginaUsuarios paginar(long cursor, int tamano) {
+        return memoria.paginar(cursor, tamano);
+    }
+
+
+    /**
+     * Escribe una instantánea del contenido actual y descarta los diarios que cubre.
+     * Los escritores no se bloquean mientras se copia.
+     *
+     * @throws UncheckedIOException  si la instantánea no pudo escribirse
+     * @throws IllegalStateException si el repositorio está cerrado
+     */
+    public synchronized void tomarInstantanea() {
+        long generacion;
+        lock.lock();
+        try {
+            verificarAbierto();
+            generacion = ++generacionPedida;
+            corteRotacion = pendientes.position();
+            hayPendientes.signal();
+        } finally {
+            lock.unlock();
+        }
+
+        // Todo lo anterior al corte ya está en memoria: la copia lo incluye
+        try {
+            escribirInstantanea(generacion, memoria.obtenerTodos());
+            esperarRotacion(generacion);
+            borrarAnteriores(generacion);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo escribir la instantánea en " + directorio, e);
+        }
+    }
+
+
+    /**
+     * @return Cantidad de {@code fsync} del diario; comparada con las escrituras
+     *         muestra cuántas comparte cada sincronización
+     */
+    public long getSincronizaciones() {
+        return sincronizaciones;
+    }
+
+
+    /**
+     * Espera a que el diario pendiente llegue a disco y libera los archivos.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (instantaneas != null) {
+            instantaneas.shutdown();
+        }
+        lock.lock();
+        try {
+            if (cerrado) {
+                return;
+            }
+            cerrado = true;
+            hayPendientes.signal();
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            escritor.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrumpido al cerrar el diario");
+        }
+        diario.close();
+    }
+
+
+    // ================= DIARIO =================
+
+    /**
+     * Copia el registro al buffer pendiente. Debe llamarse con el bloqueo tomado.
+     *
+     * @return Número de secuencia del registro
+     */
+    private long anexar(byte[] registro) {
+        if (pendientes.remaining() < registro.length) {
+            int capacidad = Math.max(pendientes.capacity() * 2, pendientes.position() + registro.length);
+            ByteBuffer ampliado = ByteBuffer.allocate(capacidad);
+            pendientes.flip();
+            ampliado.put(pendientes);
+            pendientes = ampliado;
+        }
+        pendientes.put(registro);
+        hayPendientes.signal();
+        return ++ultimaSecuencia;
+    }
+
+
+    private void esperarDurable(long secuencia) {
+        lock.lock();
+        try {
+            while (secuenciaDurable < secuencia) {
+                if (falla != null) {
+                    throw new UncheckedIOException("No se pudo escribir el diario de usuarios", falla);
+                }
+                sincronizado.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+
+    private void esperarRotacion(long generacion) {
+        lock.lock();
+        try {
+            while (generacionDiario < generacion) {
+                if (falla != null) {
+                    throw new UncheckedIOException("No se pudo rotar el diario de usuarios", falla);
+                }
+                sincronizado.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+
+    /**
+     * Bucle del hilo escritor: toma todo lo acumulado, lo escribe con un solo
+     * {@code fsync} y despierta a los escritores que esperaban esos registros.
+     */
+    private void escribirDiario() {
+        while (true) {
+            ByteBuffer lote;
+            long hasta;
+            int corte;
+            long generacion;
+
+            lock.lock();
+            try {
+                while (pendientes.position() == 0 && corteRotacion < 0 && !cerrado) {
+                    hayPendientes.awaitUninterruptibly();
+                }
+                if (pendientes.position() == 0 && corteRotacion < 0) {
+                    return;
+                }
+                lote = pendientes;
+                pendientes = reserva;
+                hasta = ultimaSecuencia;
+                corte = corteRotacion;
+                generacion = generacionPedida;
+                corteRotacion = -1;
+            } finally {
+                lock.unlock();
+            }
+
+            try {
+                lote.flip();
+                if (corte >= 0) {
+                    rotar(lote, corte, generacion);
+                }
+                escribirTodo(diario, lote);
+                diario.force(false);
+                sincronizaciones++;
+            } catch (IOException e) {
+                lock.lock();
+                try {
+                    falla = e;
+                    sincronizado.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+                return;
+            }
+
+            lock.lock();
+            try {
+                lote.clear();
+                reserva = lote;
+                secuenciaDurable = hasta;
+                if (corte >= 0) {
+                    generacionDiario = generacion;
+                }
+                sincronizado.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+
+    /**
+     * Cierra el diario actual con los registros anteriores al corte y abre el de la
+     * nueva generación. Deja el lote posicionado en el corte.
+     */
+    private void rotar(ByteBuffer lote, int corte, long generacion) throws IOException {
+        escribirTodo(diario, lote.slice(0, corte));
+        diario.force(false);
+        diario.close();
+
+        diario = FileChannel.open(archivo(PREFIJO_DIARIO, generacion, SUFIJO_DIARIO),
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        sincronizarDirectorio();
+        lote.position(corte);
+    }
+
+
+    private static void escribirTodo(FileChannel canal, ByteBuffer datos) throws IOException {
+        while (datos.hasRemaining()) {
+            canal.write(datos);
+        }
+    }
+
+
+    private void verificarAbierto() {
+        if (falla != null) {
+            throw new UncheckedIOException("El diario de usuarios dejó de estar disponible", falla);
+        }
+        if (cerrado) {
+            throw new IllegalStateException("El repositorio durable está cerrado");
+        }
+    }
+
+
+    // ================= INSTANTÁNEAS =================
+
+    private void tomarInstantaneaProgramada() {
+        try {
+            tomarInstantanea();
+        } catch (RuntimeException e) {
+            // Se reintenta en el próximo ciclo; los diarios anteriores se conservan
+        }
+    }
+
+
+    /**
+     * Escribe la instantánea en un temporal y la mueve atómicamente a su nombre final.
+     * Formato: {@code [magia:int][cantidad:long]} seguido de los registros.
+     */
+    private void escribirInstantanea(long generacion, List<Usuario> usuarios) throws IOException {
+        Path destino = archivo(PREFIJO_INSTANTANEA, generacion, SUFIJO_INSTANTANEA);
+        Path temporal = destino.resolveSibling(destino.getFileName() + SUFIJO_TEMPORAL);
+
+        try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            OutputStream salida = new BufferedOutputStream(Channels.newOutputStream(canal), TAMANO_E_S);
+            salida.write(ByteBuffer.allocate(Integer.BYTES + Long.BYTES)
+                    .putInt(MAGIA_INSTANTANEA)
+                    .putLong(usuarios.size())
+                    .array());
+            for (Usuario usuario : usuarios) {
+                salida.write(enmarcar(usuario));
+            }
+            salida.flush();
+            canal.force(true);
+        }
+        Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        sincronizarDirectorio();
+    }
+
+
+    private void borrarAnteriores(long generacion) throws IOException {
+        for (Path ruta : listar()) {
+            long g = generacion(ruta, PREFIJO_DIARIO, SUFIJO_DIARIO);
+            if (g < 0) {
+                g = generacion(ruta, PREFIJO_INSTANTANEA, SUFIJO_INSTANTANEA);
+            }
+            if (g >= 0 && g < generacion) {
+                Files.deleteIfExists(ruta);
+            }
+        }
+    }
+
+
+    // ================= RECUPERACIÓN =================
+
+    /**
+     * Carga la última instantánea, reaplica los diarios posteriores y deja abierto
+     * el último para seguir escribiendo.
+     */
+    private void recuperar() throws IOException {
+        long instantanea = -1;
+        List<Long> diarios = new ArrayList<>();
+        for (Path ruta : listar()) {
+            instantanea = Math.max(instantanea, generacion(ruta, PREFIJO_INSTANTANEA, SUFIJO_INSTANTANEA));
+            long g = generacion(ruta, PREFIJO_DIARIO, SUFIJO_DIARIO);
+            if (g >= 0) {
+                diarios.add(g);
+            }
+            if (ruta.getFileName().toString().endsWith(SUFIJO_TEMPORAL)) {
+                Files.delete(ruta);
+            }
+        }
+
+        long base = Math.max(0, instantanea);
+        if (instantanea >= 0) {
+            cargarInstantanea(archivo(PREFIJO_INSTANTANEA, instantanea, SUFIJO_INSTANTANEA));
+        }
+
+        diarios.removeIf(g -> g < base);
+        diarios.sort(null);
+        long actual = diarios.isEmpty() ? base : diarios.get(diarios.size() - 1);
+        long valido = 0;
+        for (long g : diarios) {
+            Path ruta = archivo(PREFIJO_DIARIO, g, SUFIJO_DIARIO);
+            valido = reaplicarDiario(ruta);
+            if (g != actual && valido < Files.size(ruta)) {
+                throw new IOException("Diario dañado antes de su final: " + ruta);
+            }
+        }
+
+        diario = FileChannel.open(archivo(PREFIJO_DIARIO, actual, SUFIJO_DIARIO),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        diario.truncate(valido);
+        diario.position(valido);
+        generacionPedida = actual;
+        generacionDiario = actual;
+    }
+
+
+    private void cargarInstantanea(Path ruta) throws IOException {
+        try (DataInputStream entrada = abrirLectura(ruta)) {
+            if (entrada.readInt() != MAGIA_INSTANTANEA) {
+                throw new IOException("No es una instantánea de usuarios: " + ruta);
+            }
+            long cantidad = entrada.readLong();
+            byte[] datos = new byte[LONGITUD_MAXIMA];
+            CRC32 crc = new CRC32();
+            for (long i = 0; i < cantidad; i++) {
+                int longitud = leerRegistro(entrada, datos, crc);
+                if (longitud < 0) {
+                    throw new IOException("Instantánea dañada en el registro " + i + ": " + ruta);
+                }
+                memoria.agregarUsuario(CodecUsuario.decodificar(ByteBuffer.wrap(datos), 0));
+            }
+        }
+    }
+
+
+    /**
+     * @return Bytes válidos del diario; lo que sigue es una escritura incompleta
+     */
+    private long reaplicarDiario(Path ruta) throws IOException {
+        long valido = 0;
+        try (DataInputStream entrada = abrirLectura(ruta)) {
+            byte[] datos = new byte[LONGITUD_MAXIMA];
+            CRC32 crc = new CRC32();
+            int longitud;
+            while ((longitud = leerRegistro(entrada, datos, crc)) >= 0) {
+                memoria.agregarUsuario(CodecUsuario.decodificar(ByteBuffer.wrap(datos), 0));
+                valido += CABECERA + longitud;
+            }
+        }
+        return valido;
+    }
+
+
+    /**
+     * Lee un registro completo en {@code datos} y verifica su CRC.
+     *
+     * @return Longitud de los datos, o -1 si el archivo termina o el registro está incompleto
+     */
+    private static int leerRegistro(DataInputStream entrada, byte[] datos, CRC32 crc) throws IOException {
+        int longitud;
+        int esperado;
+        try {
+            longitud = entrada.readInt();
+            esperado = entrada.readInt();
+        } catch (EOFException e) {
+            return -1;
+        }
+        if (longitud <= 0 || longitud > LONGITUD_MAXIMA || entrada.readNBytes(datos, 0, longitud) < longitud) {
+            return -1;
+        }
+        crc.reset();
+        crc.update(datos, 0, longitud);
+        return (int) crc.getValue() == esperado ? longitud : -1;
+    }
+
+
+    // ================= SOPORTE =================
+
+    /**
+     * @return El usuario codificado con su cabecera de longitud y CRC
+     */
+    private static byte[] enmarcar(Usuario usuario) {
+        byte[] datos = CodecUsuario.codificar(usuario);
+        CRC32 crc = new CRC32();
+        crc.update(datos);
+        return ByteBuffer.allocate(CABECERA + datos.length)
+                .putInt(datos.length)
+                .putInt((int) crc.getValue())
+                .put(datos)
+                .array();
+    }
+
+
+    private static DataInputStream abrirLectura(Path ruta) throws IOException {
+        return new DataInputStream(new BufferedInputStream(Files.newInputStream(ruta), TAMANO_E_S));
+    }
+
+
+    private Path archivo(String prefijo, long generacion, String sufijo) {
+        return directorio.resolve(prefijo + generacion + sufijo);
+    }
+
+
+    private List<Path> listar() throws IOException {
+        try (Stream<Path> rutas = Files.list(directorio)) {
+            return rutas.toList();
+        }
+    }
+
+
+    /**
+     * @return Generación codificada en el nombre, o -1 si no corresponde al patrón
+     */
+    private static long generacion(Path ruta, String prefijo, String sufijo) {
+        String nombre = ruta.getFileName().toString();
+        if (!nombre.startsWith(prefijo) || !nombre.endsWith(sufijo)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(nombre.substring(prefijo.length(), nombre.length() - sufijo.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+
+    /**
+     * Hace durables las altas y renombres de archivos. No todos los sistemas permiten
+     * abrir un directorio; en ese caso se confía en el sistema de archivos.
+     */
+    private void sincronizarDirectorio() {
+        try (FileChannel canal = FileChannel.open(directorio, StandardOpenOption.READ)) {
+            canal.force(true);
+        } catch (IOException e) {
+            // No soportado en esta plataforma
+        }
+    }
+}
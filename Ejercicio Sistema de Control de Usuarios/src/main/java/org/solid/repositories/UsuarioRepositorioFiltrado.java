@@ -0,0 +1,267 @@
+package org.solid.repositories;
+
+import org.solid.interfaces.IUsuarioRepositorio;
+import org.solid.models.NombreUsuario;
+import org.solid.models.PaginaUsuarios;
+import org.solid.models.TipoRol;
+import org.solid.models.Usuario;
+
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+
+/**
+ * Decorador que antepone un filtro de Bloom a las búsquedas por username, para que los
+ * logins y registros con usernames inexistentes (la mayoría de los intentos fallidos) no
+ * lleguen al almacenamiento.
+ *
+ * <p>Si el filtro dice que la clave canónica nunca se agregó, la búsqueda devuelve null sin
+ * consultar al repositorio decorado. Si dice que puede estar, se consulta normalmente; la
+ * fracción de esas consultas que no encuentra al usuario es la tasa de falsos positivos
+ * observada.</p>
+ *
+ * <p>Las escrituras encienden los bits antes de llegar al repositorio decorado: quien ya
+ * puede ver al usuario en el almacenamiento también lo ve en el filtro. El repositorio no
+ * elimina usuarios, así que el filtro nunca necesita borrar; cuando se llena más de lo
+ * previsto la tasa de falsos positivos sube y conviene {@link #reconstruir(long)} con una
+ * capacidad mayor. Las escrituras hechas directamente sobre el repositorio decorado no se
+ * ven hasta la siguiente reconstrucción.</p>
+ */
+public class UsuarioRepositorioFiltrado implements IUsuarioRepositorio {
+
+
+    public static final double TASA_POR_DEFECTO = 0.01;
+
+
+    private final IUsuarioRepositorio delegado;
+    private final double tasaObjetivo;
+
+    /** Las escrituras lo toman compartido; la reconstrucción, exclusivo */
+    private final ReadWriteLock reconstruccion = new ReentrantReadWriteLock();
+    private volatile FiltroBloom filtro;
+    private volatile long elementosEsperados;
+
+    private final LongAdder descartes = new LongAdder();
+    private final LongAdder falsosPositivos = new LongAdder();
+
+
+    /**
+     * Filtro con 1% de falsos positivos dimensionado para los elementos indicados.
+     */
+    public UsuarioRepositorioFiltrado(IUsuarioRepositorio delegado, long elementosEsperados) {
+        this(delegado, elementosEsperados, TASA_POR_DEFECTO);
+    }
+
+
+    /**
+     * Construye el filtro con los usuarios que ya tiene el repositorio decorado.
+     *
+     * @param delegado            Repositorio decorado
+     * @param elementosEsperados  Usuarios para los que se dimensiona el filtro
+     * @param tasaFalsosPositivos Tasa objetivo de falsos positivos con esa cantidad, en (0, 1)
+     * @throws IllegalArgumentException si los elementos no son positivos o la tasa no está en (0, 1)
+     */
+    public UsuarioRepositorioFiltrado(IUsuarioRepositorio delegado, long elementosEsperados,
+                                      double tasaFalsosPositivos) {
+        this.delegado = delegado;
+        this.tasaObjetivo = tasaFalsosPositivos;
+        this.filtro = construirFiltro(elementosEsperados);
+        this.elementosEsperados = elementosEsperados;
+    }
+
+
+    @Override
+    public void agregarUsuario(Usuario usuario) {
+        reconstruccion.readLock().lock();
+        try {
+            filtro.agregar(usuario.getNombre().getClave());
+            delegado.agregarUsuario(usuario);
+        } finally {
+            reconstruccion.readLock().unlock();
+        }
+    }
+
+
+    @Override
+    public boolean agregarSiAusente(Usuario usuario) {
+        reconstruccion.readLock().lock();
+        try {
+            // Si ya existía, sus bits ya estaban encendidos: agregarlo de nuevo no cambia nada
+            filtro.agregar(usuario.getNombre().getClave());
+            return delegado.agregarSiAusente(usuario);
+        } finally {
+            reconstruccion.readLock().unlock();
+        }
+    }
+
+
+    @Override
+    public List<Usuario> agregarLote(List<Usuario> lote) {
+        reconstruccion.readLock().lock();
+        try {
+            FiltroBloom actual = filtro;
+            for (Usuario usuario : lote) {
+                actual.agregar(usuario.getNombre().getClave());
+            }
+            return delegado.agregarLote(lote);
+        } finally {
+            reconstruccion.readLock().unlock();
+        }
+    }
+
+
+    @Override
+    public Usuario buscarPorUsername(String username) {
+        if (username == null) {
+            return null;
+        }
+        String clave = NombreUsuario.normalizar(username);
+        if (!filtro.podriaContener(clave)) {
+            descartes.increment();
+            return null;
+        }
+
+        Usuario usuario = delegado.buscarPorUsername(clave);
+        if (usuario == null) {
+            falsosPositivos.increment();
+        }
+        return usuario;
+    }
+
+
+    @Override
+    public List<Usuario> obtenerTodos() {
+        return delegado.obtenerTodos();
+    }
+
+
+    @Override
+    public Stream<Usuario> flujo() {
+        return delegado.flujo();
+    }
+
+
+    @Override
+    public Stream<Usuario> flujoPorRol(TipoRol rol) {
+        return delegado.flujoPorRol(rol);
+    }
+
+
+    @Override
+    public long contarPorRol(TipoRol rol) {
+        return delegado.contarPorRol(rol);
+    }
+
+
+    @Override
+    public List<Usuario> buscarPorPrefijo(String prefijo, int limite) {
+        return delegado.buscarPorPrefijo(prefijo, limite);
+    }
+
+
+    @Override
+    public PaginaUsuarios paginar(long cursor, int tamano) {
+        return delegado.paginar(cursor, tamano);
+    }
+
+
+    /**
+     * Vuelve a construir el filtro con la capacidad actual, por ejemplo después de
+     * modificar el repositorio decorado por otra vía.
+     */
+    public void reconstruir() {
+        reconstruir(elementosEsperados);
+    }
+
+
+    /**
+     * Construye un filtro nuevo recorriendo {@link IUsuarioRepositorio#flujo()} del
+     * repositorio decorado (por defecto, {@code obtenerTodos()}). Las escrituras esperan
+     * a que termine; las búsquedas siguen usando el filtro anterior hasta el reemplazo.
+     *
+     * @param elementosEsperados Usuarios para los que se dimensiona el filtro nuevo
+     * @throws IllegalArgumentException si los elementos no son positivos
+     */
+    public void reconstruir(long elementosEsperados) {
+        reconstruccion.writeLock().lock();
+        try {
+            this.filtro = construirFiltro(elementosEsperados);
+            this.elementosEsperados = elementosEsperados;
+        } finally {
+            reconstruccion.writeLock().unlock();
+        }
+    }
+
+
+    /**
+     * @return Búsquedas resueltas por el filtro sin llegar al repositorio decorado
+     */
+    public long getDescartes() {
+        return descartes.sum();
+    }
+
+
+    /**
+     * @return Búsquedas que pasaron el filtro y no encontraron al usuario
+     */
+    public long getFalsosPositivos() {
+        return falsosPositivos.sum();
+    }
+
+
+    /**
+     * @return Falsos positivos sobre el total de búsquedas de usernames inexistentes, o 0 sin ellas
+     */
+    public double getTasaFalsosPositivosObservada() {
+        long positivos = falsosPositivos.sum();
+        long inexistentes = positivos + descartes.sum();
+        return inexistentes == 0 ? 0 : (double) positivos / inexistentes;
+    }
+
+
+    /**
+     * @return Tasa esperada según los bits encendidos; recorre todo el filtro
+     */
+    public double getTasaFalsosPositivosEstimada() {
+        return filtro.tasaEstimada();
+    }
+
+
+    public double getTasaObjetivo() {
+        return tasaObjetivo;
+    }
+
+
+    public long getElementosEsperados() {
+        return elementosEsperados;
+    }
+
+
+    /**
+     * @return Memoria ocupada por los bits del filtro
+     */
+    public long getBytesFiltro() {
+        return filtro.getBytes();
+    }
+
+
+    public int getFuncionesHash() {
+        return filtro.getFunciones();
+    }
+
+
+    /**
+     * Crea un filtro con los usuarios que tiene hoy el repositorio decorado.
+     * Es privado para que el constructor no dependa de un método sobrescribible.
+     */
+    private FiltroBloom construirFiltro(long elementosEsperados) {
+        FiltroBloom nuevo = new FiltroBloom(elementosEsperados, tasaObjetivo);
+        try (Stream<Usuario> usuarios = delegado.flujo()) {
+            usuarios.forEach(usuario -> nuevo.agregar(usuario.getNombre().getClave()));
+        }
+        return nuevo;
+    }
+}
@@ -0,0 +1,141 @@
+package org.solid.repositories;
+
+import org.solid.interfaces.IUsuarioRepositorio;
+import org.solid.metricas.HistogramaLatencia;
+import org.solid.metricas.RegistroMetricas;
+import org.solid.models.PaginaUsuarios;
+import org.solid.models.TipoRol;
+import org.solid.models.Usuario;
+
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+
+/**
+ * Decorador que mide latencia y resultados de cualquier repositorio.
+ * - SRP: el repositorio decorado no sabe que se lo está midiendo
+ * - Las métricas se resuelven en el constructor; cada llamada solo lee el reloj e incrementa
+ */
+public class UsuarioRepositorioInstrumentado implements IUsuarioRepositorio {
+
+
+    private final IUsuarioRepositorio delegado;
+
+    private final HistogramaLatencia latenciaBusqueda;
+    private final HistogramaLatencia latenciaAgregar;
+    private final HistogramaLatencia latenciaAgregarSiAusente;
+    private final HistogramaLatencia latenciaLote;
+    private final LongAdder busquedasFallidas;
+    private final LongAdder duplicados;
+
+
+    public UsuarioRepositorioInstrumentado(IUsuarioRepositorio delegado, RegistroMetricas metricas) {
+        this.delegado = delegado;
+        this.latenciaBusqueda = metricas.histograma("repositorio_buscar_segundos");
+        this.latenciaAgregar = metricas.histograma("repositorio_agregar_segundos");
+        this.latenciaAgregarSiAusente = metricas.histograma("repositorio_agregar_si_ausente_segundos");
+        this.latenciaLote = metricas.histograma("repositorio_agregar_lote_segundos");
+        this.busquedasFallidas = metricas.contador("repositorio_busquedas_sin_resultado_total");
+        this.duplicados = metricas.contador("repositorio_duplicados_total");
+    }
+
+
+    @Override
+    public void agregarUsuario(Usuario usuario) {
+        long inicio = System.nanoTime();
+        try {
+            delegado.agregarUsuario(usuario);
+        } finally {
+            latenciaAgregar.registrar(System.nanoTime() - inicio);
+        }
+    }
+
+
+    @Override
+    public boolean agregarSiAusente(Usuario usuario) {
+        long inicio = System.nanoTime();
+        try {
+            boolean agregado = delegado.agregarSiAusente(usuario);
+            if (!agregado) {
+                duplicados.increment();
+            }
+            return agregado;
+        } finally {
+            latenciaAgregarSiAusente.registrar(System.nanoTime() - inicio);
+        }
+    }
+
+
+    @Override
+    public boolean buscarAntesDeAgregar() {
+        return delegado.buscarAntesDeAgregar();
+    }
+
+
+    /**
+     * Delega en el lote del repositorio decorado para conservar su implementación optimizada.
+     */
+    @Override
+    public List<Usuario> agregarLote(List<Usuario> lote) {
+        long inicio = System.nanoTime();
+        try {
+            List<Usuario> rechazados = delegado.agregarLote(lote);
+            duplicados.add(rechazados.size());
+            return rechazados;
+        } finally {
+            latenciaLote.registrar(System.nanoTime() - inicio);
+        }
+    }
+
+
+    @Override
+    public Usuario buscarPorUsername(String username) {
+        long inicio = System.nanoTime();
+        try {
+            Usuario usuario = delegado.buscarPorUsername(username);
+            if (usuario == null) {
+                busquedasFallidas.increment();
+            }
+            return usuario;
+        } finally {
+            latenciaBusqueda.registrar(System.nanoTime() - inicio);
+        }
+    }
+
+
+    @Override
+    public List<Usuario> obtenerTodos() {
+        return delegado.obtenerTodos();
+    }
+
+
+    @Override
+    public Stream<Usuario> flujo() {
+        return delegado.flujo();
+    }
+
+
+    @Override
+    public Stream<Usuario> flujoPorRol(TipoRol rol) {
+        return delegado.flujoPorRol(rol);
+    }
+
+
+    @Override
+    public long contarPorRol(TipoRol rol) {
+        return delegado.contarPorRol(rol);
+    }
+
+
+    @Override
+    public List<Usuario> buscarPorPrefijo(String prefijo, int limite) {
+        return delegado.buscarPorPrefijo(prefijo, limite);
+    }
+
+
+    @Override
+    public PaginaUsuarios paginar(long cursor, int tamano) {
+        return delegado.paginar(cursor, tamano);
+    }
+}
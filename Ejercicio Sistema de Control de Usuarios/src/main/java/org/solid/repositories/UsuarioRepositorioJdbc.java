@@ -0,0 +1,452 @@
+package org.solid.repositories;
+
+import org.solid.interfaces.IUsuarioRepositorio;
+import org.solid.models.NombreUsuario;
+import org.solid.models.PaginaUsuarios;
+import org.solid.models.TipoRol;
+import org.solid.models.Usuario;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+
+/**
+ * Repositorio sobre una base de datos relacional accedida por JDBC.
+ *
+ * <p>Cada usuario es una fila de la tabla {@code usuarios}, con su clave canónica
+ * ({@link NombreUsuario}) bajo un índice único. {@link #agregarSiAusente} es un único
+ * {@code INSERT ... ON CONFLICT DO NOTHING}: la base resuelve el duplicado en el mismo viaje,
+ * sin una búsqueda previa. {@link #agregarLote} envía todo el lote como un batch JDBC dentro
+ * de una transacción. {@link #agregarUsuario} reemplaza al usuario existente con un
+ * {@code MERGE}.</p>
+ *
+ * <p>Las conexiones salen de un pool propio ({@link PoolConexiones}) que guarda las
+ * sentencias preparadas de cada conexión. El SQL sigue el dialecto de PostgreSQL; para
+ * desarrollo local sirve H2 embebido en modo compatible, por ejemplo
+ * {@code jdbc:h2:mem:usuarios;MODE=PostgreSQL;DB_CLOSE_DELAY=-1}.</p>
+ *
+ * <p>Los errores de la base de datos se propagan como {@link IllegalStateException} con la
+ * {@link SQLException} como causa.</p>
+ */
+public class UsuarioRepositorioJdbc implements IUsuarioRepositorio, AutoCloseable {
+
+
+    public static final int CONEXIONES_POR_DEFECTO = 4;
+
+    /** Espera máxima por una conexión libre antes de fallar */
+    private static final long ESPERA_CONEXION_MILLIS = 5_000L;
+
+    /** Filas por consulta al recorrer la tabla con {@link #flujo()} */
+    private static final int TAMANO_PAGINA_FLUJO = 1_000;
+
+
+    private static final String[] ESQUEMA = {
+            "CREATE TABLE IF NOT EXISTS usuarios ("
+                    + "id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+                    + "clave VARCHAR(255) NOT NULL, "
+                    + "username VARCHAR(255) NOT NULL, "
+                    + "credencial VARCHAR(512) NOT NULL, "
+                    + "rol VARCHAR(64) NOT NULL)",
+            "CREATE UNIQUE INDEX IF NOT EXISTS usuarios_clave ON usuarios (clave)",
+            "CREATE INDEX IF NOT EXISTS usuarios_rol ON usuarios (rol)"
+    };
+
+    private static final String INSERTAR =
+            "INSERT INTO usuarios (clave, username, credencial, rol) VALUES (?, ?, ?, ?) ON CONFLICT DO NOTHING";
+
+    private static final String REEMPLAZAR =
+            "MERGE INTO usuarios u USING (VALUES (CAST(? AS VARCHAR), CAST(? AS VARCHAR), "
+                    + "CAST(? AS VARCHAR), CAST(? AS VARCHAR))) AS v (clave, username, credencial, rol) "
+                    + "ON u.clave = v.clave "
+                    + "WHEN MATCHED THEN UPDATE SET username = v.username, credencial = v.credencial, rol = v.rol "
+                    + "WHEN NOT MATCHED THEN INSERT (clave, username, credencial, rol) "
+                    + "VALUES (v.clave, v.username, v.credencial, v.rol)";
+
+    private static final String BUSCAR =
+            "SELECT username, credencial, rol FROM usuarios WHERE clave = ?";
+
+    private static final String TODOS =
+            "SELECT username, credencial, rol FROM usuarios ORDER BY id";
+
+    private static final String PAGINA =
+            "SELECT id, username, credencial, rol FROM usuarios WHERE id > ? ORDER BY id FETCH FIRST ? ROWS ONLY";
+
+    private static final String PAGINA_POR_ROL =
+            "SELECT id, username, credencial, rol FROM usuarios WHERE rol = ? AND id > ? ORDER BY id FETCH FIRST ? ROWS ONLY";
+
+    private static final String CONTAR_POR_ROL =
+            "SELECT COUNT(*) FROM usuarios WHERE rol = ?";
+
+    private static final String POR_PREFIJO =
+            "SELECT username, credencial, rol FROM usuarios WHERE clave LIKE ? ESCAPE '!' ORDER BY clave FETCH FIRST ? ROWS ONLY";
+
+
+    private final PoolConexiones pool;
+
+
+    /**
+     * Conecta sin credenciales con {@link #CONEXIONES_POR_DEFECTO} conexiones.
+     */
+    public UsuarioRepositorioJdbc(String url) {
+        this(url, null, null, CONEXIONES_POR_DEFECTO);
+    }
+
+
+    /**
+     * Abre una conexión y crea la tabla y sus índices si no existen.
+     *
+     * @param url        URL JDBC de la base de datos
+     * @param usuario    Usuario de la base, o null si la URL no lo requiere
+     * @param contrasena Contraseña de la base, o null
+     * @param conexiones Máximo de conexiones simultáneas
+     * @throws IllegalArgumentException si la cantidad de conexiones no es positiva
+     * @throws IllegalStateException    si no se pudo conectar o crear el esquema
+     */
+    public UsuarioRepositorioJdbc(String url, String usuario, String contrasena, int conexiones) {
+        this.pool = new PoolConexiones(url, usuario, contrasena, conexiones, ESPERA_CONEXION_MILLIS);
+        ejecutar("crear el esquema", conexion -> {
+            try (Statement sentencia = conexion.getConexion().createStatement()) {
+                for (String sql : ESQUEMA) {
+                    sentencia.execute(sql);
+                }
+            }
+            return null;
+        });
+    }
+
+
+    @Override
+    public void agregarUsuario(Usuario usuario) {
+        ejecutar("agregar un usuario", conexion -> {
+            PreparedStatement reemplazar = conexion.preparar(REEMPLAZAR);
+            asignar(reemplazar, usuario);
+            reemplazar.executeUpdate();
+            return null;
+        });
+    }
+
+
+    @Override
+    public boolean agregarSiAusente(Usuario usuario) {
+        return ejecutar("agregar un usuario", conexion -> {
+            PreparedStatement insertar = conexion.preparar(INSERTAR);
+            asignar(insertar, usuario);
+            return insertar.executeUpdate() == 1;
+        });
+    }
+
+
+    /**
+     * Buscar antes de agregar sería un segundo viaje a la base: la restricción única ya
+     * rechaza el duplicado dentro del {@code INSERT}.
+     */
+    @Override
+    public boolean buscarAntesDeAgregar() {
+        return false;
+    }
+
+
+    /**
+     * Envía el lote como un batch de {@code INSERT ... ON CONFLICT DO NOTHING} en una sola
+     * transacción. Las filas con cuenta 0 son duplicados, ya sea contra la tabla o contra
+     * una aparición anterior en el mismo lote.
+     *
+     * <p>Si el driver no informa las cuentas del batch ({@link Statement#SUCCESS_NO_INFO}, por
+     * ejemplo PostgreSQL con {@code reWriteBatchedInserts}) no hay forma de distinguir los
+     * duplicados: se deshace el batch y el lote se inserta fila por fila en la misma transacción.</p>
+     */
+    @Override
+    public List<Usuario> agregarLote(List<Usuario> lote) {
+        if (lote.isEmpty()) {
+            return List.of();
+        }
+        return ejecutar("agregar un lote", conexion -> {
+            Connection conexionJdbc = conexion.getConexion();
+            PreparedStatement insertar = conexion.preparar(INSERTAR);
+            conexionJdbc.setAutoCommit(false);
+            try {
+                for (Usuario usuario : lote) {
+                    asignar(insertar, usuario);
+                    insertar.addBatch();
+                }
+                int[] filas = insertar.executeBatch();
+                if (sinCuentas(filas)) {
+                    conexionJdbc.rollback();
+                    filas = insertarFilaPorFila(insertar, lote);
+                }
+                conexionJdbc.commit();
+
+                List<Usuario> rechazados = new ArrayList<>();
+                for (int i = 0; i < filas.length; i++) {
+                    if (filas[i] == 0) {
+                        rechazados.add(lote.get(i));
+                    }
+                }
+                return rechazados;
+            } catch (SQLException | RuntimeException e) {
+                insertar.clearBatch();
+                conexionJdbc.rollback();
+                throw e;
+            } finally {
+                conexionJdbc.setAutoCommit(true);
+            }
+        });
+    }
+
+
+    private static boolean sinCuentas(int[] filas) {
+        for (int cuenta : filas) {
+            if (cuenta == Statement.SUCCESS_NO_INFO) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+
+    /**
+     * @return Filas insertadas por cada usuario del lote (0 si era duplicado)
+     */
+    private static int[] insertarFilaPorFila(PreparedStatement insertar, List<Usuario> lote) throws SQLException {
+        int[] filas = new int[lote.size()];
+        for (int i = 0; i < filas.length; i++) {
+            asignar(insertar, lote.get(i));
+            filas[i] = insertar.executeUpdate();
+        }
+        return filas;
+    }
+
+
+    @Override
+    public Usuario buscarPorUsername(String username) {
+        if (username == null) {
+            return null;
+        }
+        String clave = NombreUsuario.normalizar(username);
+        return ejecutar("buscar un usuario", conexion -> {
+            PreparedStatement buscar = conexion.preparar(BUSCAR);
+            buscar.setString(1, clave);
+            try (ResultSet filas = buscar.executeQuery()) {
+                return filas.next() ? leer(filas, 1) : null;
+            }
+        });
+    }
+
+
+    @Override
+    public List<Usuario> obtenerTodos() {
+        return ejecutar("listar los usuarios", conexion -> {
+            try (ResultSet filas = conexion.preparar(TODOS).executeQuery()) {
+                List<Usuario> usuarios = new ArrayList<>();
+                while (filas.next()) {
+                    usuarios.add(leer(filas, 1));
+                }
+                return List.copyOf(usuarios);
+            }
+        });
+    }
+
+
+    /**
+     * Recorre la tabla por páginas de {@value #TAMANO_PAGINA_FLUJO} filas, sin cargarla
+     * entera en memoria.
+     */
+    @Override
+    public Stream<Usuario> flujo() {
+        return recorrer(null);
+    }
+
+
+    /**
+     * Como {@link #flujo()}, filtrando en la base con el índice por rol.
+     */
+    @Override
+    public Stream<Usuario> flujoPorRol(TipoRol rol) {
+        return recorrer(Objects.requireNonNull(rol));
+    }
+
+
+    @Override
+    public long contarPorRol(TipoRol rol) {
+        String nombre = rol.name();
+        return ejecutar("contar un rol", conexion -> {
+            PreparedStatement contar = conexion.preparar(CONTAR_POR_ROL);
+            contar.setString(1, nombre);
+            try (ResultSet filas = contar.executeQuery()) {
+                filas.next();
+                return filas.getLong(1);
+            }
+        });
+    }
+
+
+    /**
+     * Resuelve la búsqueda en la base con un {@code LIKE 'prefijo%'} sobre el índice único
+     * de la clave canónica.
+     */
+    @Override
+    public List<Usuario> buscarPorPrefijo(String prefijo, int limite) {
+        IUsuarioRepositorio.validarPrefijo(prefijo, limite);
+        String patron = escaparLike(NombreUsuario.normalizar(prefijo)) + "%";
+        return ejecutar("buscar por prefijo", conexion -> {
+            PreparedStatement buscar = conexion.preparar(POR_PREFIJO);
+            buscar.setString(1, patron);
+            buscar.setInt(2, limite);
+            try (ResultSet filas = buscar.executeQuery()) {
+                List<Usuario> usuarios = new ArrayList<>();
+                while (filas.next()) {
+                    usuarios.add(leer(filas, 1));
+                }
+                return usuarios;
+            }
+        });
+    }
+
+
+    /**
+     * El cursor es el último id leído: las páginas siguen el orden de inserción y no se
+     * desplazan cuando se agregan usuarios.
+     */
+    @Override
+    public PaginaUsuarios paginar(long cursor, int tamano) {
+        IUsuarioRepositorio.validarPagina(cursor, tamano);
+        return leerPagina(null, cursor, tamano);
+    }
+
+
+    /**
+     * Cierra las conexiones del pool.
+     */
+    @Override
+    public void close() {
+        pool.close();
+    }
+
+
+    private Stream<Usuario> recorrer(TipoRol rol) {
+        return Stream.iterate(leerPagina(rol, PaginaUsuarios.INICIO, TAMANO_PAGINA_FLUJO),
+                        Objects::nonNull,
+                        pagina -> pagina.hayMas() ? leerPagina(rol, pagina.siguienteCursor(), TAMANO_PAGINA_FLUJO) : null)
+                .flatMap(pagina -> pagina.usuarios().stream());
+    }
+
+
+    /**
+     * Pide una fila de más para saber si quedan otras después de la página.
+     *
+     * @param rol Rol a filtrar, o null para todos
+     */
+    private PaginaUsuarios leerPagina(TipoRol rol, long cursor, int tamano) {
+        return ejecutar("leer una página", conexion -> {
+            PreparedStatement pagina;
+            if (rol == null) {
+                pagina = conexion.preparar(PAGINA);
+                pagina.setLong(1, cursor);
+                pagina.setInt(2, tamano + 1);
+            } else {
+                pagina = conexion.preparar(PAGINA_POR_ROL);
+                pagina.setString(1, rol.name());
+                pagina.setLong(2, cursor);
+                pagina.setInt(3, tamano + 1);
+            }
+
+            List<Usuario> usuarios = new ArrayList<>(Math.min(tamano, TAMANO_PAGINA_FLUJO));
+            long ultimo = cursor;
+            boolean hayMas = false;
+            try (ResultSet filas = pagina.executeQuery()) {
+                while (filas.next()) {
+                    if (usuarios.size() == tamano) {
+                        hayMas = true;
+                        break;
+                    }
+                    ultimo = filas.getLong(1);
+                    usuarios.add(leer(filas, 2));
+                }
+            }
+            return new PaginaUsuarios(usuarios, ultimo, hayMas);
+        });
+    }
+
+
+    /**
+     * Toma una conexión del pool, ejecuta la operación y la devuelve. Si la operación falla
+     * y la conexión dejó de responder, se descarta en lugar de volver al pool.
+     */
+    private <T> T ejecutar(String descripcion, Operacion<T> operacion) {
+        PoolConexiones.Conexion conexion;
+        try {
+            conexion = pool.tomar();
+        } catch (SQLException e) {
+            throw new IllegalStateException("No se obtuvo una conexión para " + descripcion, e);
+        }
+
+        boolean sana = true;
+        try {
+            return operacion.ejecutar(conexion);
+        } catch (SQLException e) {
+            sana = sigueValida(conexion);
+            throw new IllegalStateException("Error de base de datos al " + descripcion, e);
+        } finally {
+            pool.devolver(conexion, sana);
+        }
+    }
+
+
+    private static boolean sigueValida(PoolConexiones.Conexion conexion) {
+        try {
+            return conexion.getConexion().isValid(1);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+
+    /**
+     * @throws IllegalArgumentException si el rol no pertenece a {@link TipoRol}
+     */
+    private static void asignar(PreparedStatement sentencia, Usuario usuario) throws SQLException {
+        TipoRol rol = TipoRol.de(usuario.getRol());
+        if (rol == null) {
+            throw new IllegalArgumentException("Rol no registrado: " + usuario.getRol().getNombre());
+        }
+        sentencia.setString(1, usuario.getNombre().getClave());
+        sentencia.setString(2, usuario.getUsername());
+        sentencia.setString(3, usuario.getPassword());
+        sentencia.setString(4, rol.name());
+    }
+
+
+    /**
+     * @param primera Índice de la columna username; le siguen credencial y rol
+     */
+    private static Usuario leer(ResultSet filas, int primera) throws SQLException {
+        return new Usuario(filas.getString(primera), filas.getString(primera + 1),
+                CodecUsuario.resolverRol(filas.getString(primera + 2)));
+    }
+
+
+    private static String escaparLike(String texto) {
+        StringBuilder escapado = new StringBuilder(texto.length() + 2);
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c == '%' || c == '_' || c == '!') {
+                escapado.append('!');
+            }
+            escapado.append(c);
+        }
+        return escapado.toString();
+    }
+
+
+    @FunctionalInterface
+    private interface Operacion<T> {
+        T ejecutar(PoolConexiones.Conexion conexion) throws SQLException;
+    }
+}
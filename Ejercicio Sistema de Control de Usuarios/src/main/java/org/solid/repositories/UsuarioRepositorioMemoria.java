@@ -1,43 +1,102 @@
 package org.solid.repositories;
 
 import org.solid.interfaces.IUsuarioRepositorio;
+import org.solid.models.NombreUsuario;
+import org.solid.models.PaginaUsuarios;
 import org.solid.models.Usuario;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 
 /**
  * Implementación en memoria del repositorio.
  * Cumple SRP: solo gestiona almacenamiento.
+ * Los accesos se sincronizan sobre la instancia para que agregarSiAusente sea atómico.
  */
 public class UsuarioRepositorioMemoria implements IUsuarioRepositorio {
 
 
     private final List<Usuario> usuarios;
 
+    /** Usernames presentes en la lista, para detectar duplicados sin recorrerla */
+    private final Set<NombreUsuario> nombres;
+
 
     public UsuarioRepositorioMemoria() {
         this.usuarios = new ArrayList<>();
+        this.nombres = new HashSet<>();
     }
 
 
     @Override
-    public void agregarUsuario(Usuario usuario) {
+    public synchronized void agregarUsuario(Usuario usuario) {
         usuarios.add(usuario);
+        nombres.add(usuario.getNombre());
     }
 
 
     @Override
-    public Usuario buscarPorUsername(String username) {
-        return usuarios.stream()
-                .filter(u -> u.getUsername().equals(username))
-                .findFirst()
-                .orElse(null);
+    public synchronized boolean agregarSiAusente(Usuario usuario) {
+        if (!nombres.add(usuario.getNombre())) {
+            return false;
+        }
+        usuarios.add(usuario);
+        return true;
+    }
+
+
+    /**
+     * Cada usuario del lote se compara contra el conjunto de usernames ya guardados,
+     * así que importar N usuarios es una sola pasada sin recorrer la lista.
+     */
+    @Override
+    public synchronized List<Usuario> agregarLote(List<Usuario> lote) {
+        List<Usuario> rechazados = new ArrayList<>();
+        for (Usuario usuario : lote) {
+            if (nombres.add(usuario.getNombre())) {
+                usuarios.add(usuario);
+            } else {
+                rechazados.add(usuario);
+            }
+        }
+        return rechazados;
     }
 
 
     @Override
-    public List<Usuario> obtenerTodos() {
-        return usuarios;
+    public synchronized Usuario buscarPorUsername(String username) {
+        return username == null ? null : buscar(NombreUsuario.de(username));
+    }
+
+
+    /**
+     * Devuelve una copia inmutable; la lista interna nunca se expone.
+     */
+    @Override
+    public synchronized List<Usuario> obtenerTodos() {
+        return List.copyOf(usuarios);
+    }
+
+
+    /**
+     * La lista solo crece al final, así que el índice es un cursor estable.
+     * Copia solo la página pedida.
+     */
+    @Override
+    public synchronized PaginaUsuarios paginar(long cursor, int tamano) {
+        IUsuarioRepositorio.validarPagina(cursor, tamano);
+        int desde = (int) Math.min(cursor, usuarios.size());
+        int hasta = (int) Math.min((long) desde + tamano, usuarios.size());
+        return new PaginaUsuarios(usuarios.subList(desde, hasta), hasta, hasta < usuarios.size());
+    }
+
+
+    private Usuario buscar(NombreUsuario nombre) {
+        return usuarios.stream()
+                .filter(u -> u.getNombre().equals(nombre))
+                .findFirst()
+                .orElse(null);
     }
 }
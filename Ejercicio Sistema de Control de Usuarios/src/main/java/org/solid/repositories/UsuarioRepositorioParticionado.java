@@ -0,0 +1,217 @@
+package org.solid.repositories;
+
+import org.solid.interfaces.IUsuarioRepositorio;
+import org.solid.models.NombreUsuario;
+import org.solid.models.PaginaUsuarios;
+import org.solid.models.TipoRol;
+import org.solid.models.Usuario;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+
+/**
+ * Repositorio en memoria repartido en particiones independientes según el hash del
+ * username canónico.
+ *
+ * <p>Cada partición es un {@link UsuarioRepositorioConcurrente} completo, con su propio mapa,
+ * su bitácora, su índice por rol y sus contadores. En un único repositorio concurrente todas
+ * las altas incrementan el mismo contador atómico de la bitácora y comparten la skip list por
+ * username; con N particiones esa contención se reparte y cada mapa se redimensiona por su cuenta.</p>
+ *
+ * <p>Las operaciones que abarcan todo el repositorio se combinan al consultarlas: los flujos
+ * concatenan los de cada partición sin copiarlos, los conteos suman los contadores y la
+ * búsqueda por prefijo mezcla los mejores resultados de cada una. El orden de
+ * {@link #flujo()} es por partición y, dentro de cada una, por orden de alta.</p>
+ *
+ * <p>La partición se elige con los bits altos del hash mezclado, porque el mapa de cada
+ * partición usa los bajos: con los mismos bits todas sus claves caerían en pocas cubetas.</p>
+ */
+public class UsuarioRepositorioParticionado implements IUsuarioRepositorio {
+
+
+    private static final int MAXIMO_PARTICIONES = 1 << 12;
+
+    /** El cursor de {@link #paginar} guarda la partición arriba y la posición abajo */
+    private static final int BITS_POSICION = 32;
+    private static final long MASCARA_POSICION = (1L << BITS_POSICION) - 1;
+
+
+    private final UsuarioRepositorioConcurrente[] particiones;
+    private final int bitsParticion;
+
+
+    /**
+     * Crea cuatro particiones por procesador disponible, redondeado a potencia de 2.
+     */
+    public UsuarioRepositorioParticionado() {
+        this(Math.min(64, 4 * Runtime.getRuntime().availableProcessors()));
+    }
+
+
+    /**
+     * @param particiones Cantidad de particiones; se redondea a la potencia de 2 siguiente
+     * @throws IllegalArgumentException si no es positiva o supera {@value #MAXIMO_PARTICIONES}
+     */
+    public UsuarioRepositorioParticionado(int particiones) {
+        if (particiones <= 0 || particiones > MAXIMO_PARTICIONES) {
+            throw new IllegalArgumentException("Cantidad de particiones inválida: " + particiones);
+        }
+        int cantidad = particiones == 1 ? 1 : Integer.highestOneBit(particiones - 1) << 1;
+        this.bitsParticion = Integer.numberOfTrailingZeros(cantidad);
+        this.particiones = new UsuarioRepositorioConcurrente[cantidad];
+        for (int i = 0; i < cantidad; i++) {
+            this.particiones[i] = new UsuarioRepositorioConcurrente();
+        }
+    }
+
+
+    @Override
+    public void agregarUsuario(Usuario usuario) {
+        particion(usuario.getNombre().hashCode()).agregarUsuario(usuario);
+    }
+
+
+    @Override
+    public boolean agregarSiAusente(Usuario usuario) {
+        return particion(usuario.getNombre().hashCode()).agregarSiAusente(usuario);
+    }
+
+
+    /**
+     * Normaliza una sola vez: la clave elige la partición y se busca tal cual en ella.
+     */
+    @Override
+    public Usuario buscarPorUsername(String username) {
+        if (username == null) {
+            return null;
+        }
+        String clave = NombreUsuario.normalizar(username);
+        return particion(clave.hashCode()).buscarPorClave(clave);
+    }
+
+
+    /**
+     * Copia inmutable de la concatenación de las particiones (ver {@link #flujo()}).
+     */
+    @Override
+    public List<Usuario> obtenerTodos() {
+        return flujo().toList();
+    }
+
+
+    /**
+     * Concatena las instantáneas de cada partición, tomadas al llegar a ella.
+     * En paralelo, cada partición se recorre en un hilo distinto.
+     */
+    @Override
+    public Stream<Usuario> flujo() {
+        return Arrays.stream(particiones).flatMap(UsuarioRepositorioConcurrente::flujo);
+    }
+
+
+    @Override
+    public Stream<Usuario> flujoPorRol(TipoRol rol) {
+        return Arrays.stream(particiones).flatMap(particion -> particion.flujoPorRol(rol));
+    }
+
+
+    /**
+     * Suma los contadores del rol de cada partición.
+     */
+    @Override
+    public long contarPorRol(TipoRol rol) {
+        long total = 0;
+        for (UsuarioRepositorioConcurrente particion : particiones) {
+            total += particion.contarPorRol(rol);
+        }
+        return total;
+    }
+
+
+    /**
+     * Pide los primeros {@code limite} a cada partición y se queda con los primeros del total.
+     */
+    @Override
+    public List<Usuario> buscarPorPrefijo(String prefijo, int limite) {
+        IUsuarioRepositorio.validarPrefijo(prefijo, limite);
+        List<Usuario> candidatos = new ArrayList<>();
+        for (UsuarioRepositorioConcurrente particion : particiones) {
+            candidatos.addAll(particion.buscarPorPrefijo(prefijo, limite));
+        }
+        candidatos.sort(Comparator.comparing(Usuario::getNombre));
+        return candidatos.size() > limite ? new ArrayList<>(candidatos.subList(0, limite)) : candidatos;
+    }
+
+
+    /**
+     * Recorre las particiones en orden; el cursor combina la partición y la posición en
+     * su bitácora. Las altas posteriores en particiones ya recorridas no aparecen en las
+     * páginas siguientes.
+     */
+    @Override
+    public PaginaUsuarios paginar(long cursor, int tamano) {
+        IUsuarioRepositorio.validarPagina(cursor, tamano);
+        int particion = (int) Math.min(cursor >>> BITS_POSICION, particiones.length);
+        long posicion = cursor & MASCARA_POSICION;
+        List<Usuario> pagina = new ArrayList<>(Math.min(tamano, 1024));
+
+        while (particion < particiones.length && pagina.size() < tamano) {
+            PaginaUsuarios parcial = particiones[particion].paginar(posicion, tamano - pagina.size());
+            pagina.addAll(parcial.usuarios());
+            if (parcial.hayMas()) {
+                posicion = parcial.siguienteCursor();
+                break;
+            }
+            particion++;
+            posicion = 0;
+        }
+
+        if (particion == particiones.length) {
+            return new PaginaUsuarios(pagina, (long) particion << BITS_POSICION, false);
+        }
+        boolean hayMas = posicion > 0 || quedanUsuariosDesde(particion);
+        return new PaginaUsuarios(pagina, ((long) particion << BITS_POSICION) | posicion, hayMas);
+    }
+
+
+    public int getParticiones() {
+        return particiones.length;
+    }
+
+
+    /**
+     * @return Cuentas de cada partición, para observar el reparto
+     */
+    public long[] getUsuariosPorParticion() {
+        long[] cantidades = new long[particiones.length];
+        for (int i = 0; i < particiones.length; i++) {
+            cantidades[i] = particiones[i].contarUsuarios();
+        }
+        return cantidades;
+    }
+
+
+    private boolean quedanUsuariosDesde(int particion) {
+        for (int i = particion; i < particiones.length; i++) {
+            if (particiones[i].contarUsuarios() > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+
+    /**
+     * Multiplica por la razón áurea y toma los bits altos (hash de Fibonacci).
+     */
+    private UsuarioRepositorioConcurrente particion(int hash) {
+        if (bitsParticion == 0) {
+            return particiones[0];
+        }
+        return particiones[(hash * 0x9E3779B9) >>> (Integer.SIZE - bitsParticion)];
+    }
+}
@@ -0,0 +1,94 @@
+package org.solid.services;
+
+import org.solid.interfaces.IAutenticacion;
+import org.solid.models.ResultadoAutenticacion;
+import org.solid.models.Rol;
+import org.solid.models.Usuario;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+
+/**
+ * Fachada asíncrona para login y registro.
+ *
+ * <p>Ejecuta cada operación en un hilo virtual propio, de modo que la interfaz
+ * gráfica nunca espera a la búsqueda en el repositorio ni al hash de la contraseña.
+ * Cancelar el {@link CompletableFuture} devuelto interrumpe la tarea si aún se ejecuta.</p>
+ *
+ * <p>Los arreglos de contraseña recibidos se copian antes de volver, así que el llamador
+ * puede limpiarlos de inmediato. La contraseña llega a los servicios como {@link String},
+ * que no puede limpiarse: queda en memoria hasta que la recolecte el GC.</p>
+ */
+public class AccesoAsincronoService implements AutoCloseable {
+
+
+    private final UsuarioService usuarioService;
+    private final IAutenticacion autenticacion;
+    private final ExecutorService executor;
+
+
+    public AccesoAsincronoService(UsuarioService usuarioService, IAutenticacion autenticacion) {
+        this.usuarioService = usuarioService;
+        this.autenticacion = autenticacion;
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+
+    /**
+     * Busca al usuario y verifica sus credenciales fuera del hilo llamador.
+     */
+    public CompletableFuture<ResultadoAutenticacion> autenticar(String username, char[] password) {
+        char[] copia = password.clone();
+        return ejecutar(() -> {
+            // Se consulta a la autenticación aun sin usuario para que los decoradores
+            // (por ejemplo, el limitador de intentos) también vean esos intentos
+            Usuario usuario = usuarioService.obtenerUsuario(username);
+            boolean valido = autenticacion.autenticar(usuario, username, new String(copia));
+            return valido ? ResultadoAutenticacion.exitoso(usuario) : ResultadoAutenticacion.fallido();
+        });
+    }
+
+
+    /**
+     * Crea el usuario fuera del hilo llamador.
+     * Si se cancela después de iniciada, el usuario igual puede quedar creado.
+     *
+     * @return Futuro con true si se creó, false si el username ya existía
+     */
+    public CompletableFuture<Boolean> registrar(String username, char[] password, Rol rol) {
+        char[] copia = password.clone();
+        return ejecutar(() -> usuarioService.crearUsuario(username, new String(copia), rol));
+    }
+
+
+    @Override
+    public void close() {
+        executor.close();
+    }
+
+
+    /**
+     * Envía la tarea al executor y enlaza la cancelación del futuro con la interrupción de la tarea.
+     */
+    private <T> CompletableFuture<T> ejecutar(Callable<T> tarea) {
+        CompletableFuture<T> resultado = new CompletableFuture<>();
+        Future<?> envio = executor.submit(() -> {
+            try {
+                resultado.complete(tarea.call());
+            } catch (Throwable e) {
+                // También los Error: si no, el futuro nunca se completa y la UI espera para siempre
+                resultado.completeExceptionally(e);
+            }
+        });
+        resultado.whenComplete((valor, error) -> {
+            if (resultado.isCancelled()) {
+                envio.cancel(true);
+            }
+        });
+        return resultado;
+    }
+}
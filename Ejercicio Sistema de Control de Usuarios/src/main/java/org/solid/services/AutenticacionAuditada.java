@@ -0,0 +1,48 @@
+package org.solid.services;
+
+import org.solid.interfaces.IAuditoria;
+import org.solid.interfaces.IAutenticacion;
+import org.solid.models.TipoEvento;
+import org.solid.models.Usuario;
+
+
+/**
+ * Decorador que publica cada login exitoso o fallido en la auditoría.
+ * Aplica OCP: se agrega el registro sin modificar la autenticación decorada.
+ *
+ * <p>Publicar no hace E/S en este hilo: la escritura la resuelve la {@link IAuditoria}
+ * configurada (por ejemplo, {@code RegistroAuditoria} desde un hilo de fondo).</p>
+ */
+public class AutenticacionAuditada implements IAutenticacion {
+
+
+    private final IAutenticacion delegado;
+    private final IAuditoria auditoria;
+
+
+    public AutenticacionAuditada(IAutenticacion delegado, IAuditoria auditoria) {
+        this.delegado = delegado;
+        this.auditoria = auditoria;
+    }
+
+
+    @Override
+    public boolean autenticar(Usuario usuario, String username, String password) {
+        return publicar(delegado.autenticar(usuario, username, password), username, null);
+    }
+
+
+    /**
+     * Conserva el origen para que un decorador interno (por ejemplo el limitador) lo reciba.
+     */
+    @Override
+    public boolean autenticar(Usuario usuario, String username, String password, String origen) {
+        return publicar(delegado.autenticar(usuario, username, password, origen), username, origen);
+    }
+
+
+    private boolean publicar(boolean resultado, String username, String origen) {
+        auditoria.publicar(resultado ? TipoEvento.LOGIN_EXITOSO : TipoEvento.LOGIN_FALLIDO, username, origen);
+        return resultado;
+    }
+}
@@ -0,0 +1,62 @@
+package org.solid.services;
+
+import org.solid.interfaces.IAutenticacion;
+import org.solid.metricas.HistogramaLatencia;
+import org.solid.metricas.RegistroMetricas;
+import org.solid.models.Usuario;
+
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Decorador que mide la latencia de autenticación y cuenta éxitos y fallos.
+ * Aplica OCP: se agrega la medición sin modificar la autenticación decorada.
+ */
+public class AutenticacionInstrumentada implements IAutenticacion {
+
+
+    private final IAutenticacion delegado;
+
+    private final HistogramaLatencia latencia;
+    private final LongAdder exitosas;
+    private final LongAdder fallidas;
+
+
+    public AutenticacionInstrumentada(IAutenticacion delegado, RegistroMetricas metricas) {
+        this.delegado = delegado;
+        this.latencia = metricas.histograma("autenticacion_segundos");
+        this.exitosas = metricas.contador("autenticacion_exitosa_total");
+        this.fallidas = metricas.contador("autenticacion_fallida_total");
+    }
+
+
+    @Override
+    public boolean autenticar(Usuario usuario, String username, String password) {
+        long inicio = System.nanoTime();
+        try {
+            return contar(delegado.autenticar(usuario, username, password));
+        } finally {
+            latencia.registrar(System.nanoTime() - inicio);
+        }
+    }
+
+
+    /**
+     * Conserva el origen para que un decorador interno (por ejemplo el limitador) lo reciba.
+     */
+    @Override
+    public boolean autenticar(Usuario usuario, String username, String password, String origen) {
+        long inicio = System.nanoTime();
+        try {
+            return contar(delegado.autenticar(usuario, username, password, origen));
+        } finally {
+            latencia.registrar(System.nanoTime() - inicio);
+        }
+    }
+
+
+    private boolean contar(boolean resultado) {
+        (resultado ? exitosas : fallidas).increment();
+        return resultado;
+    }
+}
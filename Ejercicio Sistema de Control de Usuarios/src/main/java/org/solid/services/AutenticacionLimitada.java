@@ -0,0 +1,254 @@
+package org.solid.services;
+
+import org.solid.interfaces.IAutenticacion;
+import org.solid.models.Usuario;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Decorador de {@link IAutenticacion} que limita la tasa de intentos de login.
+ *
+ * <p>Cada origen y cada cuenta existente tienen su propia cubeta de tokens: un intento consume
+ * primero un token del origen y, solo si lo obtiene, uno de la cuenta. Así un origen ya
+ * limitado no puede seguir gastando los tokens de otra cuenta para bloquearla. Los tokens
+ * se recargan a ritmo constante. Cada fallo consecutivo bloquea
+ * además la cubeta durante un tiempo que se duplica (backoff exponencial) hasta un máximo;
+ * un login exitoso reinicia el contador. Los intentos rechazados nunca llegan al delegado,
+ * así que no consumen CPU en el hash de la contraseña.</p>
+ *
+ * <p>Las cubetas se actualizan sin bloqueos (compare-and-set) y viven en mapas concurrentes.
+ * Un username que no corresponde a ninguna cuenta no crea cubeta, así que inventar usernames
+ * no hace crecer el mapa; esos intentos solo los limita el origen. Un hilo de fondo elimina,
+ * una vez por cada período de inactividad configurado, las cubetas que llevan inactivas más
+ * de ese tiempo; los intentos de login nunca recorren los mapas.</p>
+ */
+public class AutenticacionLimitada implements IAutenticacion, AutoCloseable {
+
+
+    /** Origen usado cuando el llamador no lo informa */
+    public static final String ORIGEN_DESCONOCIDO = "local";
+
+    private static final int MAX_EXPONENTE_BACKOFF = 20;
+
+
+    private final IAutenticacion delegado;
+    private final double capacidad;
+    private final double tokensPorNano;
+    private final long backoffBaseNanos;
+    private final long backoffMaximoNanos;
+    private final long inactividadNanos;
+
+    /** Por clave canónica: "Maria" y "maria" son la misma cuenta, así que comparten cubeta */
+    private final ConcurrentHashMap<String, Cubeta> cubetasUsuario = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Cubeta> cubetasOrigen = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService limpieza;
+
+    private final LongAdder rechazosPorUsuario = new LongAdder();
+    private final LongAdder rechazosPorOrigen = new LongAdder();
+
+
+    /**
+     * Crea el limitador con valores por defecto: ráfagas de 5 intentos, 1 intento
+     * por segundo sostenido, backoff de 250 ms a 5 minutos e inactividad de 10 minutos.
+     */
+    public AutenticacionLimitada(IAutenticacion delegado) {
+        this(delegado, 5, 1.0, 250, 300_000, 600_000);
+    }
+
+
+    /**
+     * @param delegado           Autenticación real
+     * @param capacidad          Intentos permitidos en ráfaga
+     * @param recargaPorSegundo  Intentos sostenidos por segundo
+     * @param backoffBaseMillis  Bloqueo tras el primer fallo consecutivo
+     * @param backoffMaximoMillis Bloqueo máximo
+     * @param inactividadMillis  Tiempo sin uso tras el cual se descarta una cubeta; también
+     *                           es la frecuencia de la limpieza
+     * @throws IllegalArgumentException si algún parámetro no es positivo
+     */
+    public AutenticacionLimitada(IAutenticacion delegado, int capacidad, double recargaPorSegundo,
+                                 long backoffBaseMillis, long backoffMaximoMillis, long inactividadMillis) {
+        if (delegado == null) {
+            throw new IllegalArgumentException("La autenticación delegada no puede ser nula");
+        }
+        if (capacidad <= 0 || recargaPorSegundo <= 0 || backoffBaseMillis <= 0
+                || backoffMaximoMillis < backoffBaseMillis || inactividadMillis <= 0) {
+            throw new IllegalArgumentException("Parámetros de limitación inválidos");
+        }
+        this.delegado = delegado;
+        this.capacidad = capacidad;
+        this.tokensPorNano = recargaPorSegundo / 1_000_000_000.0;
+        this.backoffBaseNanos = backoffBaseMillis * 1_000_000L;
+        this.backoffMaximoNanos = backoffMaximoMillis * 1_000_000L;
+        this.inactividadNanos = inactividadMillis * 1_000_000L;
+
+        this.limpieza = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "limpieza-limitador");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        limpieza.scheduleWithFixedDelay(this::eliminarInactivas,
+                inactividadMillis, inactividadMillis, TimeUnit.MILLISECONDS);
+    }
+
+
+    @Override
+    public boolean autenticar(Usuario usuario, String username, String password) {
+        return autenticar(usuario, username, password, ORIGEN_DESCONOCIDO);
+    }
+
+
+    @Override
+    public boolean autenticar(Usuario usuario, String username, String password, String origen) {
+        long ahora = System.nanoTime();
+        Cubeta porOrigen = cubetasOrigen.computeIfAbsent(clave(origen), k -> new Cubeta(capacidad, ahora));
+        if (!porOrigen.consumir(ahora)) {
+            rechazosPorOrigen.increment();
+            return false;
+        }
+        Cubeta porUsuario = usuario == null
+                ? null
+                : cubetasUsuario.computeIfAbsent(usuario.getNombre().getClave(), k -> new Cubeta(capacidad, ahora));
+        if (porUsuario != null && !porUsuario.consumir(ahora)) {
+            rechazosPorUsuario.increment();
+            return false;
+        }
+
+        boolean valido = delegado.autenticar(usuario, username, password, origen);
+        long fin = System.nanoTime();
+        if (porUsuario != null) {
+            porUsuario.registrarResultado(valido, fin);
+        }
+        porOrigen.registrarResultado(valido, fin);
+        return valido;
+    }
+
+
+    /**
+     * @return Intentos rechazados por la cubeta de la cuenta
+     */
+    public long getRechazosPorUsuario() {
+        return rechazosPorUsuario.sum();
+    }
+
+
+    /**
+     * @return Intentos rechazados por la cubeta del origen
+     */
+    public long getRechazosPorOrigen() {
+        return rechazosPorOrigen.sum();
+    }
+
+
+    /**
+     * @return Cubetas vivas (cuentas + orígenes)
+     */
+    public int getCubetasActivas() {
+        return cubetasUsuario.size() + cubetasOrigen.size();
+    }
+
+
+    /**
+     * Detiene la limpieza de fondo.
+     */
+    @Override
+    public void close() {
+        limpieza.shutdownNow();
+    }
+
+
+    /**
+     * Elimina las cubetas inactivas. La ejecuta solo el hilo de limpieza.
+     */
+    private void eliminarInactivas() {
+        long ahora = System.nanoTime();
+        cubetasUsuario.values().removeIf(c -> c.inactiva(ahora));
+        cubetasOrigen.values().removeIf(c -> c.inactiva(ahora));
+    }
+
+
+    private static String clave(String valor) {
+        return valor == null ? "" : valor;
+    }
+
+
+    /**
+     * Cubeta de tokens con backoff. El estado es inmutable y se reemplaza con CAS.
+     */
+    private final class Cubeta {
+
+
+        private final AtomicReference<Estado> estado;
+
+
+        Cubeta(double tokens, long ahora) {
+            this.estado = new AtomicReference<>(new Estado(tokens, ahora, 0, ahora));
+        }
+
+
+        boolean consumir(long ahora) {
+            while (true) {
+                Estado actual = estado.get();
+                if (ahora - actual.bloqueadaHasta() < 0) {
+                    return false;
+                }
+                double tokens = Math.min(capacidad, actual.tokens() + (ahora - actual.actualizada()) * tokensPorNano);
+                if (tokens < 1.0) {
+                    return false;
+                }
+                Estado nuevo = new Estado(tokens - 1.0, ahora, actual.fallos(), actual.bloqueadaHasta());
+                if (estado.compareAndSet(actual, nuevo)) {
+                    return true;
+                }
+            }
+        }
+
+
+        void registrarResultado(boolean valido, long ahora) {
+            while (true) {
+                Estado actual = estado.get();
+                if (valido && actual.fallos() == 0) {
+                    return;
+                }
+                int fallos = valido ? 0 : actual.fallos() + 1;
+                long bloqueo = valido ? actual.bloqueadaHasta() : ahora + backoff(fallos);
+                Estado nuevo = new Estado(actual.tokens(), actual.actualizada(), fallos, bloqueo);
+                if (estado.compareAndSet(actual, nuevo)) {
+                    return;
+                }
+            }
+        }
+
+
+        /**
+         * Una cubeta inactiva equivale a una recién creada, así que puede descartarse.
+         * Los instantes de System.nanoTime se comparan siempre por diferencia.
+         */
+        boolean inactiva(long ahora) {
+            Estado actual = estado.get();
+            return ahora - actual.actualizada() > inactividadNanos && ahora - actual.bloqueadaHasta() >= 0;
+        }
+
+
+        private long backoff(int fallos) {
+            int exponente = Math.min(fallos - 1, MAX_EXPONENTE_BACKOFF);
+            return Math.min(backoffMaximoNanos, backoffBaseNanos << exponente);
+        }
+    }
+
+
+    /**
+     * @param tokens         Tokens disponibles al momento de la última actualización
+     * @param actualizada    Instante de la última actualización (System.nanoTime)
+     * @param fallos         Fallos consecutivos
+     * @param bloqueadaHasta Instante hasta el que se rechazan intentos
+     */
+    private record Estado(double tokens, long actualizada, int fallos, long bloqueadaHasta) {
+    }
+}
@@ -3,23 +3,77 @@ package org.solid.services;
 import org.solid.interfaces.IAutenticacion;
 import org.solid.models.Usuario;
 
+import java.util.Arrays;
+
 
 /**
  * Servicio que implementa autenticación.
  * - DIP: depende de la abstracción IAutenticacion
  * - SRP: solo se encarga de autenticar
+ * El username se compara por su forma canónica, sin distinguir mayúsculas.
+ * Compara la contraseña contra la credencial PBKDF2 del usuario en tiempo constante.
+ * Si el usuario no existe se deriva igual contra una credencial ficticia, así un username
+ * inexistente no responde más rápido que uno registrado.
+ * Opcionalmente usa una {@link CacheVerificaciones} para re-autenticaciones seguidas.
  */
 public class AutenticacionService implements IAutenticacion {
 
 
+    private final HashContrasenasService hasher;
+    private final CacheVerificaciones cache;
+
+
+    public AutenticacionService() {
+        this(new HashContrasenasService(), null);
+    }
+
+
+    /**
+     * @param hasher Servicio de hash usado para verificar credenciales
+     * @param cache  Caché de verificaciones recientes, o null para no usarla
+     */
+    public AutenticacionService(HashContrasenasService hasher, CacheVerificaciones cache) {
+        this.hasher = hasher;
+        this.cache = cache;
+    }
+
+
     @Override
     public boolean autenticar(Usuario usuario, String username, String password) {
-        if (usuario == null) {
+        if (password == null) {
             return false;
         }
 
+        char[] passwordChars = password.toCharArray();
+        try {
+            if (usuario == null) {
+                hasher.verificarFicticia(passwordChars);
+                return false;
+            }
+            if (!usuario.getNombre().coincideCon(username)) {
+                return false;
+            }
+            return verificar(usuario, passwordChars);
+        } finally {
+            Arrays.fill(passwordChars, '\0');
+        }
+    }
+
 
-        return usuario.getUsername().equals(username)
-                && usuario.getPassword().equals(password);
+    private boolean verificar(Usuario usuario, char[] password) {
+        String credencial = usuario.getPassword();
+        if (cache != null && cache.contiene(usuario.getUsername(), credencial, password)) {
+            return true;
+        }
+
+        boolean valido = hasher.verificar(password, credencial);
+        if (cache != null) {
+            if (valido) {
+                cache.registrar(usuario.getUsername(), credencial, password);
+            } else {
+                cache.invalidar(usuario.getUsername());
+            }
+        }
+        return valido;
     }
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+package org.solid.services;
+
+import org.solid.interfaces.IAutorizacion;
+import org.solid.models.Permiso;
+import org.solid.models.Usuario;
+
+
+/**
+ * Servicio que decide si un usuario tiene un permiso.
+ * - DIP: depende de la abstracción IAutorizacion
+ * - SRP: solo se encarga de autorizar
+ * La respuesta es una prueba sobre la máscara precalculada del rol.
+ */
+public class AutorizacionService implements IAutorizacion {
+
+
+    @Override
+    public boolean autorizar(Usuario usuario, Permiso permiso) {
+        return usuario != null && permiso != null && usuario.getRol().tienePermiso(permiso);
+    }
+}
@@ -0,0 +1,113 @@
+package org.solid.services;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+
+/**
+ * Caché acotada y de vida corta de verificaciones de contraseña exitosas.
+ *
+ * <p>Evita pagar el costo completo de PBKDF2 en re-autenticaciones seguidas del mismo
+ * usuario. Nunca guarda la contraseña: solo un HMAC de (credencial, contraseña) con una
+ * clave aleatoria que vive en esta instancia. Una entrada deja de valer si expira o si
+ * la credencial almacenada del usuario cambió.</p>
+ *
+ * <p>Se expulsa la entrada usada hace más tiempo cuando se alcanza la capacidad.</p>
+ */
+public class CacheVerificaciones {
+
+
+    private static final String ALGORITMO_MAC = "HmacSHA256";
+    private static final int BYTES_CLAVE = 32;
+
+
+    private final long duracionNanos;
+    private final Map<String, Entrada> entradas;
+    private final SecretKeySpec clave;
+
+
+    /**
+     * @param capacidad      Número máximo de usuarios recordados
+     * @param duracionMillis Tiempo de vida de cada verificación
+     * @throws IllegalArgumentException si algún parámetro no es positivo
+     */
+    public CacheVerificaciones(int capacidad, long duracionMillis) {
+        if (capacidad <= 0 || duracionMillis <= 0) {
+            throw new IllegalArgumentException("Capacidad y duración deben ser positivas");
+        }
+        this.duracionNanos = duracionMillis * 1_000_000L;
+        this.entradas = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entrada> mayor) {
+                return size() > capacidad;
+            }
+        };
+
+        byte[] bytesClave = new byte[BYTES_CLAVE];
+        new SecureRandom().nextBytes(bytesClave);
+        this.clave = new SecretKeySpec(bytesClave, ALGORITMO_MAC);
+    }
+
+
+    /**
+     * @return true si hay una verificación vigente para esta credencial y contraseña
+     */
+    public boolean contiene(String username, String credencial, char[] password) {
+        Entrada entrada;
+        synchronized (entradas) {
+            entrada = entradas.get(username);
+        }
+        if (entrada == null || System.nanoTime() - entrada.creadaEn() > duracionNanos
+                || !entrada.credencial().equals(credencial)) {
+            return false;
+        }
+        return MessageDigest.isEqual(entrada.huella(), huella(credencial, password));
+    }
+
+
+    /**
+     * Recuerda una verificación exitosa.
+     */
+    public void registrar(String username, String credencial, char[] password) {
+        Entrada entrada = new Entrada(credencial, huella(credencial, password), System.nanoTime());
+        synchronized (entradas) {
+            entradas.put(username, entrada);
+        }
+    }
+
+
+    /**
+     * Olvida la verificación del usuario (por ejemplo, tras un intento fallido).
+     */
+    public void invalidar(String username) {
+        synchronized (entradas) {
+            entradas.remove(username);
+        }
+    }
+
+
+    private byte[] huella(String credencial, char[] password) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITMO_MAC);
+            mac.init(clave);
+            mac.update(credencial.getBytes(StandardCharsets.UTF_8));
+            for (char c : password) {
+                mac.update((byte) (c >> 8));
+                mac.update((byte) c);
+            }
+            return mac.doFinal();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 no disponible en este JDK", e);
+        }
+    }
+
+
+    private record Entrada(String credencial, byte[] huella, long creadaEn) {
+    }
+}
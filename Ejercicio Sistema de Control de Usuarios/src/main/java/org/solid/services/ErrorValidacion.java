@@ -0,0 +1,34 @@
+package org.solid.services;
+
+
+/**
+ * Motivos por los que {@link ValidadorRegistro} rechaza un dato.
+ *
+ * <p>El validador devuelve el código y cada capa decide cómo presentarlo; el mensaje
+ * en español se arma una sola vez, al cargar la clase.</p>
+ */
+public enum ErrorValidacion {
+
+    USERNAME_VACIO("El nombre de usuario es obligatorio."),
+    USERNAME_CORTO("El usuario debe tener al menos " + ValidadorRegistro.MIN_USERNAME + " caracteres."),
+    USERNAME_LARGO("El usuario no puede exceder " + ValidadorRegistro.MAX_USERNAME + " caracteres."),
+    USERNAME_CARACTERES("El usuario solo puede contener letras, números y guión bajo."),
+    PASSWORD_VACIA("La contraseña es obligatoria."),
+    PASSWORD_CORTA("La contraseña debe tener al menos " + ValidadorRegistro.MIN_PASSWORD + " caracteres."),
+    PASSWORD_LARGA("La contraseña no puede exceder " + ValidadorRegistro.MAX_PASSWORD + " caracteres."),
+    PASSWORD_NO_COINCIDE("Las contraseñas no coinciden.");
+
+
+    private final String mensaje;
+
+
+    ErrorValidacion(String mensaje) {
+        this.mensaje = mensaje;
+    }
+
+
+    /** Texto listo para mostrar al usuario */
+    public String getMensaje() {
+        return mensaje;
+    }
+}
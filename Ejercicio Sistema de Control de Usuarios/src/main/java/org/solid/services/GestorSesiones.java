@@ -0,0 +1,240 @@
+package org.solid.services;
+
+import org.solid.interfaces.IAutenticacion;
+import org.solid.models.NombreUsuario;
+import org.solid.models.Usuario;
+
+import java.security.SecureRandom;
+import java.util.ArrayDeque;
+import java.util.Base64;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Emite y valida sesiones para que las acciones protegidas no repitan la autenticación
+ * completa con la contraseña.
+ *
+ * <p>Tras un {@code autenticar} exitoso se entrega un token opaco aleatorio de 256 bits.
+ * Validarlo es una sola búsqueda en un mapa concurrente y extiende su vencimiento
+ * (expiración deslizante). Cada usuario tiene un máximo de sesiones simultáneas: al
+ * superarlo se cierra la más antigua. Un hilo de fondo elimina periódicamente las
+ * sesiones vencidas.</p>
+ *
+ * <p>Las sesiones de cada usuario se indexan aparte, así que revocarlas todas cuesta
+ * lo proporcional a las sesiones de ese usuario.</p>
+ */
+public class GestorSesiones implements AutoCloseable {
+
+
+    private static final int BYTES_TOKEN = 32;
+
+
+    private final IAutenticacion autenticacion;
+    private final long duracionNanos;
+    private final int maxSesionesPorUsuario;
+
+    private final ConcurrentHashMap<String, Sesion> sesiones = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<NombreUsuario, Deque<String>> tokensPorUsuario = new ConcurrentHashMap<>();
+    private final SecureRandom aleatorio = new SecureRandom();
+    private final ScheduledExecutorService limpieza;
+
+
+    /**
+     * Crea el gestor con sesiones de 30 minutos, 5 por usuario y limpieza cada minuto.
+     */
+    public GestorSesiones(IAutenticacion autenticacion) {
+        this(autenticacion, 30 * 60_000L, 5, 60_000L);
+    }
+
+
+    /**
+     * @param autenticacion          Autenticación usada para abrir sesiones
+     * @param duracionMillis         Inactividad tras la cual vence una sesión
+     * @param maxSesionesPorUsuario  Sesiones simultáneas permitidas por usuario
+     * @param intervaloLimpiezaMillis Frecuencia de la limpieza de sesiones vencidas
+     * @throws IllegalArgumentException si algún parámetro no es positivo
+     */
+    public GestorSesiones(IAutenticacion autenticacion, long duracionMillis, int maxSesionesPorUsuario,
+                          long intervaloLimpiezaMillis) {
+        if (duracionMillis <= 0 || maxSesionesPorUsuario <= 0 || intervaloLimpiezaMillis <= 0) {
+            throw new IllegalArgumentException("Parámetros de sesión inválidos");
+        }
+        this.autenticacion = autenticacion;
+        this.duracionNanos = TimeUnit.MILLISECONDS.toNanos(duracionMillis);
+        this.maxSesionesPorUsuario = maxSesionesPorUsuario;
+
+        this.limpieza = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "limpieza-sesiones");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        limpieza.scheduleWithFixedDelay(this::eliminarVencidas,
+                intervaloLimpiezaMillis, intervaloLimpiezaMillis, TimeUnit.MILLISECONDS);
+    }
+
+
+    /**
+     * Autentica y, si las credenciales son válidas, abre una sesión.
+     *
+     * @return Token de la nueva sesión, o null si la autenticación falló
+     */
+    public String iniciarSesion(Usuario usuario, String username, String password, String origen) {
+        if (!autenticacion.autenticar(usuario, username, password, origen)) {
+            return null;
+        }
+        return emitir(usuario);
+    }
+
+
+    /**
+     * Abre una sesión para un usuario ya autenticado.
+     * Si el usuario supera el máximo de sesiones, se cierra la más antigua.
+     *
+     * @return Token opaco de la sesión
+     */
+    public String emitir(Usuario usuario) {
+        String token = generarToken();
+        Sesion sesion = new Sesion(usuario, System.nanoTime() + duracionNanos);
+
+        // Se registra dentro del compute para que una revocación simultánea no la pierda
+        tokensPorUsuario.compute(usuario.getNombre(), (clave, tokens) -> {
+            Deque<String> actuales = tokens != null ? tokens : new ArrayDeque<>();
+            sesiones.put(token, sesion);
+            actuales.addLast(token);
+            while (actuales.size() > maxSesionesPorUsuario) {
+                sesiones.remove(actuales.removeFirst());
+            }
+            return actuales;
+        });
+        return token;
+    }
+
+
+    /**
+     * Valida el token y extiende su vencimiento.
+     *
+     * @return Usuario de la sesión, o null si el token no existe o venció
+     */
+    public Usuario validar(String token) {
+        if (token == null) {
+            return null;
+        }
+        Sesion sesion = sesiones.get(token);
+        if (sesion == null) {
+            return null;
+        }
+
+        long ahora = System.nanoTime();
+        if (ahora - sesion.expiraEn > 0) {
+            cerrar(token, sesion);
+            return null;
+        }
+        sesion.extender(ahora + duracionNanos);
+        return sesion.usuario;
+    }
+
+
+    /**
+     * Cierra una sesión.
+     *
+     * @return true si la sesión existía
+     */
+    public boolean cerrarSesion(String token) {
+        Sesion sesion = token == null ? null : sesiones.get(token);
+        return sesion != null && cerrar(token, sesion);
+    }
+
+
+    /**
+     * Cierra todas las sesiones del usuario.
+     *
+     * @return Cantidad de sesiones cerradas
+     */
+    public int revocarTodas(String username) {
+        int[] cerradas = {0};
+        tokensPorUsuario.computeIfPresent(NombreUsuario.de(username), (clave, tokens) -> {
+            for (String token : tokens) {
+                if (sesiones.remove(token) != null) {
+                    cerradas[0]++;
+                }
+            }
+            return null;
+        });
+        return cerradas[0];
+    }
+
+
+    public int getSesionesActivas() {
+        return sesiones.size();
+    }
+
+
+    @Override
+    public void close() {
+        limpieza.shutdownNow();
+    }
+
+
+    /**
+     * Elimina del índice principal y del índice por usuario.
+     */
+    private boolean cerrar(String token, Sesion sesion) {
+        if (!sesiones.remove(token, sesion)) {
+            return false;
+        }
+        tokensPorUsuario.computeIfPresent(sesion.usuario.getNombre(), (clave, tokens) -> {
+            tokens.remove(token);
+            return tokens.isEmpty() ? null : tokens;
+        });
+        return true;
+    }
+
+
+    private void eliminarVencidas() {
+        long ahora = System.nanoTime();
+        sesiones.forEach((token, sesion) -> {
+            if (ahora - sesion.expiraEn > 0) {
+                cerrar(token, sesion);
+            }
+        });
+    }
+
+
+    private String generarToken() {
+        byte[] bytes = new byte[BYTES_TOKEN];
+        aleatorio.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+
+    /**
+     * Sesión abierta. El vencimiento se extiende en cada validación.
+     */
+    private final class Sesion {
+
+
+        private final Usuario usuario;
+        private volatile long expiraEn;
+
+
+        Sesion(Usuario usuario, long expiraEn) {
+            this.usuario = usuario;
+            this.expiraEn = expiraEn;
+        }
+
+
+        /**
+         * Evita escribir el campo compartido en cada validación: solo se extiende
+         * cuando ya se consumió más de una centésima de la duración.
+         */
+        void extender(long nuevoVencimiento) {
+            if (nuevoVencimiento - expiraEn > duracionNanos / 100) {
+                expiraEn = nuevoVencimiento;
+            }
+        }
+    }
+}
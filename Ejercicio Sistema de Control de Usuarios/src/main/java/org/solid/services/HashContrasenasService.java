@@ -0,0 +1,120 @@
+package org.solid.services;
+
+import org.solid.models.Credencial;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+
+
+/**
+ * Deriva y verifica contraseñas con PBKDF2-HMAC-SHA256 (incluido en el JDK).
+ *
+ * <p>El costo se ajusta con el número de iteraciones; cada credencial guarda el
+ * suyo, así que cambiar el valor por defecto no invalida las existentes.
+ * Ver {@code HashBenchmark} para medir el costo contra el throughput de login.</p>
+ */
+public class HashContrasenasService {
+
+
+    /** Iteraciones por defecto para nuevas credenciales */
+    public static final int ITERACIONES_POR_DEFECTO = 100_000;
+
+    private static final String ALGORITMO_JCA = "PBKDF2WithHmacSHA256";
+    private static final int BYTES_SAL = 16;
+    private static final int BITS_HASH = 256;
+
+
+    private final int iteraciones;
+    private final SecureRandom aleatorio;
+
+    /** Credencial que nunca verifica, con los mismos parámetros que las nuevas */
+    private final Credencial ficticia;
+
+
+    public HashContrasenasService() {
+        this(ITERACIONES_POR_DEFECTO);
+    }
+
+
+    /**
+     * @param iteraciones Costo de derivación para nuevas credenciales (mayor a cero)
+     * @throws IllegalArgumentException si iteraciones no es positivo
+     */
+    public HashContrasenasService(int iteraciones) {
+        if (iteraciones <= 0) {
+            throw new IllegalArgumentException("Las iteraciones deben ser positivas");
+        }
+        this.iteraciones = iteraciones;
+        this.aleatorio = new SecureRandom();
+
+        byte[] sal = new byte[BYTES_SAL];
+        aleatorio.nextBytes(sal);
+        this.ficticia = new Credencial(iteraciones, sal, new byte[BITS_HASH / Byte.SIZE]);
+    }
+
+
+    /**
+     * Genera una credencial con sal aleatoria para la contraseña dada.
+     *
+     * @return Credencial en formato textual, lista para guardar en el usuario
+     */
+    public String generar(char[] password) {
+        byte[] sal = new byte[BYTES_SAL];
+        aleatorio.nextBytes(sal);
+        return new Credencial(iteraciones, sal, derivar(password, sal, iteraciones)).aTexto();
+    }
+
+
+    /**
+     * Verifica la contraseña contra la credencial almacenada en tiempo constante.
+     * Lo que no es una credencial PBKDF2 válida (por ejemplo, una contraseña guardada en
+     * texto plano) nunca verifica.
+     *
+     * @param password   Contraseña ingresada
+     * @param almacenado Valor guardado en el usuario
+     * @return true si coinciden
+     */
+    public boolean verificar(char[] password, String almacenado) {
+        if (password == null || almacenado == null) {
+            return false;
+        }
+        Credencial credencial = Credencial.desdeTexto(almacenado);
+        if (credencial == null) {
+            return false;
+        }
+        byte[] calculado = derivar(password, credencial.sal(), credencial.iteraciones());
+        return MessageDigest.isEqual(calculado, credencial.hash());
+    }
+
+
+    /**
+     * Hace el mismo trabajo que {@link #verificar} contra una credencial que nunca coincide.
+     * Se usa cuando el usuario no existe, para que la respuesta tarde lo mismo que con un
+     * usuario real y el tiempo no revele qué usernames están registrados.
+     *
+     * @param password Contraseña ingresada
+     */
+    public void verificarFicticia(char[] password) {
+        derivar(password == null ? new char[0] : password, ficticia.sal(), ficticia.iteraciones());
+    }
+
+
+    public int getIteraciones() {
+        return iteraciones;
+    }
+
+
+    private static byte[] derivar(char[] password, byte[] sal, int iteraciones) {
+        PBEKeySpec spec = new PBEKeySpec(password, sal, iteraciones, BITS_HASH);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITMO_JCA).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("PBKDF2 no disponible en este JDK", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+}
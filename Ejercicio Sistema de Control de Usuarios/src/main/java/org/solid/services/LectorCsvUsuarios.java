@@ -0,0 +1,120 @@
+package org.solid.services;
+
+import org.solid.models.RegistroImportacion;
+import org.solid.models.Rol;
+import org.solid.models.TipoRol;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+
+/**
+ * Lector incremental de usuarios en formato CSV: {@code username,password,rol}.
+ *
+ * <p>Lee una línea a la vez, por lo que el archivo nunca se carga completo en memoria.
+ * Las líneas en blanco se omiten y una primera línea que empiece por "username"
+ * se trata como encabezado. Las líneas mal formadas se entregan igualmente,
+ * con los campos faltantes en null, para que el servicio las reporte como rechazos.</p>
+ *
+ * <p>Uso típico:
+ * <pre>{@code
+ * try (LectorCsvUsuarios lector = new LectorCsvUsuarios(Files.newBufferedReader(ruta))) {
+ *     ResultadoImportacion resultado = usuarioService.importar(lector);
+ * }
+ * }</pre></p>
+ */
+public class LectorCsvUsuarios implements Iterator<RegistroImportacion>, Closeable {
+
+
+    private static final char SEPARADOR = ',';
+    private static final String ENCABEZADO = "username";
+
+
+    private final BufferedReader lector;
+    private RegistroImportacion siguiente;
+    private long linea;
+
+
+    public LectorCsvUsuarios(Reader origen) {
+        this.lector = origen instanceof BufferedReader br ? br : new BufferedReader(origen);
+    }
+
+
+    @Override
+    public boolean hasNext() {
+        if (siguiente == null) {
+            siguiente = leerSiguiente();
+        }
+        return siguiente != null;
+    }
+
+
+    @Override
+    public RegistroImportacion next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        RegistroImportacion actual = siguiente;
+        siguiente = null;
+        return actual;
+    }
+
+
+    @Override
+    public void close() throws IOException {
+        lector.close();
+    }
+
+
+    /**
+     * Avanza hasta la próxima línea con contenido.
+     *
+     * @return Registro leído, o null al llegar al final
+     */
+    private RegistroImportacion leerSiguiente() {
+        try {
+            String texto;
+            while ((texto = lector.readLine()) != null) {
+                linea++;
+                if (texto.isBlank() || (linea == 1 && texto.regionMatches(true, 0, ENCABEZADO, 0, ENCABEZADO.length()))) {
+                    continue;
+                }
+                return parsear(texto);
+            }
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error leyendo la línea " + (linea + 1), e);
+        }
+    }
+
+
+    private RegistroImportacion parsear(String texto) {
+        int primera = texto.indexOf(SEPARADOR);
+        int segunda = primera < 0 ? -1 : texto.indexOf(SEPARADOR, primera + 1);
+        if (segunda < 0) {
+            String username = primera < 0 ? texto.trim() : texto.substring(0, primera).trim();
+            return new RegistroImportacion(linea, username, null, null);
+        }
+
+        String username = texto.substring(0, primera).trim();
+        String password = texto.substring(primera + 1, segunda);
+        Rol rol = resolverRol(texto.substring(segunda + 1).trim());
+        return new RegistroImportacion(linea, username, password, rol);
+    }
+
+
+    /**
+     * Traduce el nombre del rol del CSV a su instancia canónica.
+     *
+     * @return Rol correspondiente, o null si no se reconoce
+     */
+    private static Rol resolverRol(String nombre) {
+        TipoRol tipo = TipoRol.porNombre(nombre);
+        return tipo == null ? null : tipo.getRol();
+    }
+}
@@ -1,9 +1,20 @@
 package org.solid.services;
 
+import org.solid.interfaces.IAuditoria;
 import org.solid.interfaces.IUsuarioRepositorio;
+import org.solid.models.RechazoImportacion;
+import org.solid.models.RegistroImportacion;
+import org.solid.models.ResultadoImportacion;
 import org.solid.models.Rol;
+import org.solid.models.TipoEvento;
 import org.solid.models.Usuario;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
 
 /**
  * Servicio para gestionar usuarios.
@@ -12,24 +23,164 @@ import org.solid.models.Usuario;
 public class UsuarioService {
 
 
+    /** Cantidad de registros que se envían al repositorio en cada llamada a agregarLote */
+    public static final int TAMANO_LOTE = 1_000;
+
+    private static final String MOTIVO_DUPLICADO = "El usuario ya existe";
+    private static final String MOTIVO_ROL_DESCONOCIDO = "Rol desconocido";
+
+
     private final IUsuarioRepositorio repo;
+    private final HashContrasenasService hasher;
+    private final IAuditoria auditoria;
 
 
     public UsuarioService(IUsuarioRepositorio repo) {
+        this(repo, new HashContrasenasService());
+    }
+
+
+    /**
+     * @param repo   Repositorio de usuarios
+     * @param hasher Servicio que deriva la credencial guardada a partir de la contraseña
+     */
+    public UsuarioService(IUsuarioRepositorio repo, HashContrasenasService hasher) {
+        this(repo, hasher, IAuditoria.NINGUNA);
+    }
+
+
+    /**
+     * @param auditoria Destino de los eventos de alta de usuarios (creados e importados)
+     */
+    public UsuarioService(IUsuarioRepositorio repo, HashContrasenasService hasher, IAuditoria auditoria) {
         this.repo = repo;
+        this.hasher = hasher;
+        this.auditoria = auditoria;
     }
 
 
+    /**
+     * Crea el usuario si el username está libre. La contraseña se guarda como
+     * credencial PBKDF2; la verificación de duplicados la resuelve el repositorio
+     * de forma atómica.
+     *
+     * <p>Si el repositorio lo aconseja ({@link IUsuarioRepositorio#buscarAntesDeAgregar()}),
+     * antes de derivar la credencial se consulta si el username ya está tomado, para no pagar
+     * PBKDF2 en un registro que va a ser rechazado. Sobre una base de datos esa consulta sería
+     * un viaje más por cada alta, así que se omite y el alta queda en una sola sentencia.</p>
+     *
+     * @return true si se creó, false si el username ya existía
+     * @throws IllegalArgumentException si los datos no cumplen {@link ValidadorRegistro}
+     */
     public boolean crearUsuario(String username, String password, Rol rol) {
-        if (repo.buscarPorUsername(username) != null) {
+        ErrorValidacion error = ValidadorRegistro.validarRegistro(username, password);
+        if (error != null) {
+            throw new IllegalArgumentException(error.getMensaje());
+        }
+        if (repo.buscarAntesDeAgregar() && repo.buscarPorUsername(username) != null) {
             return false;
         }
-        repo.agregarUsuario(new Usuario(username, password, rol));
-        return true;
+        boolean creado = repo.agregarSiAusente(new Usuario(username, generarCredencial(password), rol));
+        if (creado) {
+            auditoria.publicar(TipoEvento.USUARIO_CREADO, username, null);
+        }
+        return creado;
     }
 
 
     public Usuario obtenerUsuario(String username) {
         return repo.buscarPorUsername(username);
     }
+
+
+    /**
+     * Importa usuarios de forma incremental, en lotes de {@link #TAMANO_LOTE}.
+     * Un registro inválido o duplicado se rechaza sin abortar el resto.
+     *
+     * @param registros Origen de registros; se consume una sola vez
+     * @return Resumen con la cantidad importada y los rechazos
+     */
+    public ResultadoImportacion importar(Iterator<RegistroImportacion> registros) {
+        long importados = 0;
+        List<RechazoImportacion> rechazos = new ArrayList<>();
+        List<RegistroImportacion> pendientes = new ArrayList<>(TAMANO_LOTE);
+
+        while (registros.hasNext()) {
+            RegistroImportacion registro = registros.next();
+            String motivo = validarRegistro(registro);
+            if (motivo != null) {
+                rechazos.add(new RechazoImportacion(registro.linea(), registro.username(), motivo));
+                continue;
+            }
+
+            pendientes.add(registro);
+            if (pendientes.size() == TAMANO_LOTE) {
+                importados += enviarLote(pendientes, rechazos);
+                pendientes.clear();
+            }
+        }
+
+        if (!pendientes.isEmpty()) {
+            importados += enviarLote(pendientes, rechazos);
+        }
+        return new ResultadoImportacion(importados, rechazos);
+    }
+
+
+    /**
+     * Variante de {@link #importar(Iterator)} para orígenes basados en Stream.
+     */
+    public ResultadoImportacion importar(Stream<RegistroImportacion> registros) {
+        return importar(registros.iterator());
+    }
+
+
+    /**
+     * Envía un lote al repositorio y registra como rechazos los usuarios no agregados.
+     *
+     * @return Cantidad de usuarios agregados
+     */
+    private int enviarLote(List<RegistroImportacion> pendientes, List<RechazoImportacion> rechazos) {
+        // El hash domina el costo de la importación: se reparte entre los núcleos
+        List<Usuario> lote = pendientes.parallelStream()
+                .map(r -> new Usuario(r.username(), generarCredencial(r.password()), r.rol()))
+                .toList();
+
+        List<Usuario> rechazados = repo.agregarLote(lote);
+
+        // agregarLote conserva el orden del lote: basta recorrer ambas listas en paralelo
+        int siguiente = 0;
+        for (int i = 0; i < lote.size(); i++) {
+            if (siguiente < rechazados.size() && lote.get(i) == rechazados.get(siguiente)) {
+                RegistroImportacion registro = pendientes.get(i);
+                rechazos.add(new RechazoImportacion(registro.linea(), registro.username(), MOTIVO_DUPLICADO));
+                siguiente++;
+            } else {
+                auditoria.publicar(TipoEvento.USUARIO_IMPORTADO, lote.get(i).getUsername(), null);
+            }
+        }
+        return lote.size() - rechazados.size();
+    }
+
+
+    private String generarCredencial(String password) {
+        char[] passwordChars = password.toCharArray();
+        try {
+            return hasher.generar(passwordChars);
+        } finally {
+            Arrays.fill(passwordChars, '\0');
+        }
+    }
+
+
+    /**
+     * @return Motivo del rechazo, o null si el registro es válido
+     */
+    private static String validarRegistro(RegistroImportacion registro) {
+        ErrorValidacion error = ValidadorRegistro.validarRegistro(registro.username(), registro.password());
+        if (error != null) {
+            return error.getMensaje();
+        }
+        return registro.rol() == null ? MOTIVO_ROL_DESCONOCIDO : null;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,95 @@
+package org.solid.services;
+
+import org.solid.interfaces.IAuditoria;
+import org.solid.interfaces.IUsuarioRepositorio;
+import org.solid.metricas.HistogramaLatencia;
+import org.solid.metricas.RegistroMetricas;
+import org.solid.models.RegistroImportacion;
+import org.solid.models.ResultadoImportacion;
+import org.solid.models.Rol;
+import org.solid.models.Usuario;
+
+import java.util.Iterator;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Variante de {@link UsuarioService} que mide registro, consulta e importación.
+ * La latencia de {@code crearUsuario} incluye la derivación PBKDF2, que es su costo dominante.
+ */
+public class UsuarioServiceInstrumentado extends UsuarioService {
+
+
+    private final HistogramaLatencia latenciaCreacion;
+    private final HistogramaLatencia latenciaConsulta;
+    private final HistogramaLatencia latenciaImportacion;
+    private final LongAdder creados;
+    private final LongAdder duplicados;
+    private final LongAdder importados;
+    private final LongAdder rechazados;
+
+
+    public UsuarioServiceInstrumentado(IUsuarioRepositorio repo, RegistroMetricas metricas) {
+        this(repo, new HashContrasenasService(), metricas);
+    }
+
+
+    public UsuarioServiceInstrumentado(IUsuarioRepositorio repo, HashContrasenasService hasher,
+                                       RegistroMetricas metricas) {
+        this(repo, hasher, metricas, IAuditoria.NINGUNA);
+    }
+
+
+    public UsuarioServiceInstrumentado(IUsuarioRepositorio repo, HashContrasenasService hasher,
+                                       RegistroMetricas metricas, IAuditoria auditoria) {
+        super(repo, hasher, auditoria);
+        this.latenciaCreacion = metricas.histograma("usuarios_crear_segundos");
+        this.latenciaConsulta = metricas.histograma("usuarios_obtener_segundos");
+        this.latenciaImportacion = metricas.histograma("usuarios_importar_segundos");
+        this.creados = metricas.contador("usuarios_creados_total");
+        this.duplicados = metricas.contador("usuarios_duplicados_total");
+        this.importados = metricas.contador("usuarios_importados_total");
+        this.rechazados = metricas.contador("usuarios_importacion_rechazados_total");
+    }
+
+
+    @Override
+    public boolean crearUsuario(String username, String password, Rol rol) {
+        long inicio = System.nanoTime();
+        try {
+            boolean creado = super.crearUsuario(username, password, rol);
+            (creado ? creados : duplicados).increment();
+            return creado;
+        } finally {
+            latenciaCreacion.registrar(System.nanoTime() - inicio);
+        }
+    }
+
+
+    @Override
+    public Usuario obtenerUsuario(String username) {
+        long inicio = System.nanoTime();
+        try {
+            return super.obtenerUsuario(username);
+        } finally {
+            latenciaConsulta.registrar(System.nanoTime() - inicio);
+        }
+    }
+
+
+    /**
+     * También cubre {@code importar(Stream)}, que delega en esta variante.
+     */
+    @Override
+    public ResultadoImportacion importar(Iterator<RegistroImportacion> registros) {
+        long inicio = System.nanoTime();
+        try {
+            ResultadoImportacion resultado = super.importar(registros);
+            importados.add(resultado.importados());
+            rechazados.add(resultado.rechazos().size());
+            return resultado;
+        } finally {
+            latenciaImportacion.registrar(System.nanoTime() - inicio);
+        }
+    }
+}
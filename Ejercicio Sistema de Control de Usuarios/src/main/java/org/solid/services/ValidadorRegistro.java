@@ -0,0 +1,128 @@
+package org.solid.services;
+
+import java.util.Arrays;
+
+
+/**
+ * Reglas de los datos de alta e inicio de sesión, compartidas por la interfaz gráfica,
+ * el servicio de usuarios y el servidor HTTP.
+ *
+ * <p>Las comprobaciones recorren los caracteres directamente sobre el {@link CharSequence}
+ * o el {@code char[]} recibido: no crean cadenas, no usan expresiones regulares y no
+ * formatean mensajes. El resultado es un {@link ErrorValidacion}, o null si el dato es válido.</p>
+ *
+ * <p>El username se valida tal como llega: quien lo lee de un formulario debe recortar
+ * los espacios antes, igual que al guardarlo.</p>
+ */
+public final class ValidadorRegistro {
+
+
+    public static final int MIN_USERNAME = 3;
+    public static final int MAX_USERNAME = 20;
+    public static final int MIN_PASSWORD = 4;
+    public static final int MAX_PASSWORD = 50;
+
+
+    private ValidadorRegistro() {
+    }
+
+
+    /**
+     * Datos de alta desde un formulario con confirmación de contraseña.
+     *
+     * @return Primer error encontrado, o null si todo es válido
+     */
+    public static ErrorValidacion validarRegistro(CharSequence username, char[] password, char[] confirmacion) {
+        ErrorValidacion error = validarUsername(username);
+        if (error == null) {
+            error = validarPassword(password);
+        }
+        if (error == null && !Arrays.equals(password, confirmacion)) {
+            error = ErrorValidacion.PASSWORD_NO_COINCIDE;
+        }
+        return error;
+    }
+
+
+    /**
+     * Datos de alta recibidos por el servicio, sin confirmación.
+     *
+     * @return Primer error encontrado, o null si todo es válido
+     */
+    public static ErrorValidacion validarRegistro(CharSequence username, CharSequence password) {
+        ErrorValidacion error = validarUsername(username);
+        return error != null ? error : validarPassword(password);
+    }
+
+
+    /**
+     * Requisitos mínimos para intentar un login. No aplica los máximos ni el juego de
+     * caracteres, para no impedir el acceso a cuentas creadas antes de estas reglas.
+     *
+     * @return Primer error encontrado, o null si vale la pena autenticar
+     */
+    public static ErrorValidacion validarLogin(CharSequence username, char[] password) {
+        int longitudUsername = username == null ? 0 : username.length();
+        if (longitudUsername == 0) {
+            return ErrorValidacion.USERNAME_VACIO;
+        }
+        if (longitudUsername < MIN_USERNAME) {
+            return ErrorValidacion.USERNAME_CORTO;
+        }
+        int longitudPassword = password == null ? 0 : password.length;
+        if (longitudPassword == 0) {
+            return ErrorValidacion.PASSWORD_VACIA;
+        }
+        return longitudPassword < MIN_PASSWORD ? ErrorValidacion.PASSWORD_CORTA : null;
+    }
+
+
+    /**
+     * Entre {@link #MIN_USERNAME} y {@link #MAX_USERNAME} caracteres, solo letras ASCII,
+     * dígitos y guión bajo (lo mismo que {@code ^\w+$}).
+     */
+    public static ErrorValidacion validarUsername(CharSequence username) {
+        int longitud = username == null ? 0 : username.length();
+        if (longitud == 0) {
+            return ErrorValidacion.USERNAME_VACIO;
+        }
+        if (longitud < MIN_USERNAME) {
+            return ErrorValidacion.USERNAME_CORTO;
+        }
+        if (longitud > MAX_USERNAME) {
+            return ErrorValidacion.USERNAME_LARGO;
+        }
+        for (int i = 0; i < longitud; i++) {
+            if (!esCaracterUsername(username.charAt(i))) {
+                return ErrorValidacion.USERNAME_CARACTERES;
+            }
+        }
+        return null;
+    }
+
+
+    public static ErrorValidacion validarPassword(char[] password) {
+        return validarLongitudPassword(password == null ? 0 : password.length);
+    }
+
+
+    public static ErrorValidacion validarPassword(CharSequence password) {
+        return validarLongitudPassword(password == null ? 0 : password.length());
+    }
+
+
+    private static ErrorValidacion validarLongitudPassword(int longitud) {
+        if (longitud == 0) {
+            return ErrorValidacion.PASSWORD_VACIA;
+        }
+        if (longitud < MIN_PASSWORD) {
+            return ErrorValidacion.PASSWORD_CORTA;
+        }
+        return longitud > MAX_PASSWORD ? ErrorValidacion.PASSWORD_LARGA : null;
+    }
+
+
+    private static boolean esCaracterUsername(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+    }
+}
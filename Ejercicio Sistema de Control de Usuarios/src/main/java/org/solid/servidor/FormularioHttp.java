@@ -0,0 +1,48 @@
+package org.solid.servidor;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+
+/**
+ * Lectura de cuerpos {@code application/x-www-form-urlencoded}.
+ */
+final class FormularioHttp {
+
+
+    private FormularioHttp() {
+    }
+
+
+    /**
+     * Lee y decodifica el cuerpo completo.
+     *
+     * @param limiteBytes Tamaño máximo aceptado
+     * @return Campos del formulario, o null si el cuerpo supera el límite
+     * @throws IllegalArgumentException si la codificación es inválida
+     */
+    static Map<String, String> leer(InputStream cuerpo, int limiteBytes) throws IOException {
+        byte[] bytes = cuerpo.readNBytes(limiteBytes + 1);
+        if (bytes.length > limiteBytes) {
+            return null;
+        }
+
+        Map<String, String> campos = new HashMap<>();
+        String texto = new String(bytes, StandardCharsets.UTF_8);
+        if (texto.isEmpty()) {
+            return campos;
+        }
+        for (String par : texto.split("&")) {
+            int igual = par.indexOf('=');
+            String clave = igual < 0 ? par : par.substring(0, igual);
+            String valor = igual < 0 ? "" : par.substring(igual + 1);
+            campos.putIfAbsent(URLDecoder.decode(clave, StandardCharsets.UTF_8),
+                    URLDecoder.decode(valor, StandardCharsets.UTF_8));
+        }
+        return campos;
+    }
+}
@@ -0,0 +1,259 @@
+package org.solid.servidor;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.solid.metricas.RegistroMetricas;
+import org.solid.metricas.ServidorMetricas;
+import org.solid.models.Permiso;
+import org.solid.models.TipoRol;
+import org.solid.models.Usuario;
+import org.solid.services.ErrorValidacion;
+import org.solid.services.GestorSesiones;
+import org.solid.services.UsuarioService;
+import org.solid.services.ValidadorRegistro;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+
+/**
+ * API HTTP de registro, login y consulta sobre los servicios existentes, sin interfaz gráfica.
+ *
+ * <p>Rutas (cuerpos {@code application/x-www-form-urlencoded}, respuestas en texto plano):</p>
+ * <ul>
+ *   <li>{@code POST /registro} con {@code username}, {@code password} y {@code rol}:
+ *       201, 409 si el username existe o 400 si un dato no cumple las reglas de registro</li>
+ *   <li>{@code POST /login} con {@code username} y {@code password}: 200 con el token de
+ *       sesión en el cuerpo, o 401</li>
+ *   <li>{@code GET /usuarios/{username}} con {@code Authorization: Bearer <token>}:
+ *       200 con username, rol y permisos; 401 sin sesión válida; 404 si no existe</li>
+ *   <li>{@code POST /logout} con {@code Authorization: Bearer <token>}: 204</li>
+ *   <li>{@code GET /metricas} si se entrega un {@link RegistroMetricas}</li>
+ * </ul>
+ *
+ * <p>El servidor HTTP del JDK solo acepta conexiones y lee cabeceras en su hilo despachador;
+ * cada petición se atiende en un hilo virtual propio, así que el hash PBKDF2 de un login
+ * no retiene un hilo de plataforma ni bloquea al resto.</p>
+ *
+ * <p>Conviene lanzar la JVM con {@code -Dsun.net.httpserver.nodelay=true}: sin TCP_NODELAY,
+ * Nagle y el ACK retardado agregan ~40 ms a cada respuesta pequeña. Es una propiedad de
+ * todo el proceso, así que la fija el punto de entrada ({@code ServidorLogin}) y no esta clase.</p>
+ */
+public class ServidorUsuarios implements AutoCloseable {
+
+
+    private static final int LIMITE_CUERPO = 4 * 1024;
+    private static final int ESPERA_CIERRE_SEGUNDOS = 1;
+    private static final String PREFIJO_BEARER = "Bearer ";
+    private static final String RUTA_USUARIOS = "/usuarios/";
+
+    private static final int HTTP_OK = 200;
+    private static final int HTTP_CREADO = 201;
+    private static final int HTTP_SIN_CONTENIDO = 204;
+    private static final int HTTP_SOLICITUD_INVALIDA = 400;
+    private static final int HTTP_NO_AUTORIZADO = 401;
+    private static final int HTTP_NO_ENCONTRADO = 404;
+    private static final int HTTP_METODO_NO_PERMITIDO = 405;
+    private static final int HTTP_CONFLICTO = 409;
+    private static final int HTTP_DEMASIADO_GRANDE = 413;
+    private static final int HTTP_ERROR_INTERNO = 500;
+
+
+    private final UsuarioService usuarioService;
+    private final GestorSesiones sesiones;
+    private final HttpServer servidor;
+    private final ExecutorService executor;
+
+
+    /**
+     * Crea e inicia el servidor.
+     *
+     * @param puerto   Puerto de escucha (0 = puerto libre cualquiera)
+     * @param metricas Registro a publicar en {@code /metricas}, o null para no publicarlo
+     * @throws IOException si el puerto no está disponible
+     */
+    public ServidorUsuarios(UsuarioService usuarioService, GestorSesiones sesiones, int puerto,
+                            RegistroMetricas metricas) throws IOException {
+        this.usuarioService = usuarioService;
+        this.sesiones = sesiones;
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        this.servidor = HttpServer.create(new InetSocketAddress(puerto), 0);
+
+        servidor.createContext("/registro", intercambio -> atender(intercambio, "POST", this::registrar));
+        servidor.createContext("/login", intercambio -> atender(intercambio, "POST", this::login));
+        servidor.createContext("/logout", intercambio -> atender(intercambio, "POST", this::logout));
+        servidor.createContext(RUTA_USUARIOS, intercambio -> atender(intercambio, "GET", this::consultar));
+        if (metricas != null) {
+            ServidorMetricas.montar(servidor, metricas);
+        }
+
+        servidor.setExecutor(executor);
+        servidor.start();
+    }
+
+
+    public int getPuerto() {
+        return servidor.getAddress().getPort();
+    }
+
+
+    /**
+     * Deja de aceptar conexiones y espera brevemente a las peticiones en curso.
+     */
+    @Override
+    public void close() {
+        servidor.stop(ESPERA_CIERRE_SEGUNDOS);
+        executor.close();
+    }
+
+
+    // ================= RUTAS =================
+
+    private void registrar(HttpExchange intercambio) throws IOException {
+        Map<String, String> campos = leerFormulario(intercambio);
+        if (campos == null) {
+            return;
+        }
+        String username = campos.get("username");
+        String password = campos.get("password");
+        TipoRol rol = TipoRol.porNombre(campos.get("rol"));
+
+        ErrorValidacion error = ValidadorRegistro.validarRegistro(username, password);
+        if (error != null) {
+            responder(intercambio, HTTP_SOLICITUD_INVALIDA, error.getMensaje());
+        } else if (rol == null) {
+            responder(intercambio, HTTP_SOLICITUD_INVALIDA, "Rol desconocido");
+        } else if (usuarioService.crearUsuario(username, password, rol.getRol())) {
+            responder(intercambio, HTTP_CREADO, "Usuario creado");
+        } else {
+            responder(intercambio, HTTP_CONFLICTO, "El usuario ya existe");
+        }
+    }
+
+
+    private void login(HttpExchange intercambio) throws IOException {
+        Map<String, String> campos = leerFormulario(intercambio);
+        if (campos == null) {
+            return;
+        }
+        String username = campos.get("username");
+        Usuario usuario = usuarioService.obtenerUsuario(username);
+        String origen = intercambio.getRemoteAddress().getAddress().getHostAddress();
+
+        String token = sesiones.iniciarSesion(usuario, username, campos.get("password"), origen);
+        if (token == null) {
+            responder(intercambio, HTTP_NO_AUTORIZADO, "Credenciales inválidas");
+        } else {
+            responder(intercambio, HTTP_OK, token);
+        }
+    }
+
+
+    private void logout(HttpExchange intercambio) throws IOException {
+        sesiones.cerrarSesion(token(intercambio));
+        intercambio.sendResponseHeaders(HTTP_SIN_CONTENIDO, -1);
+    }
+
+
+    private void consultar(HttpExchange intercambio) throws IOException {
+        if (sesiones.validar(token(intercambio)) == null) {
+            responder(intercambio, HTTP_NO_AUTORIZADO, "Sesión inválida o vencida");
+            return;
+        }
+
+        String ruta = intercambio.getRequestURI().getRawPath();
+        String username = URLDecoder.decode(ruta.substring(RUTA_USUARIOS.length()), StandardCharsets.UTF_8);
+        Usuario usuario = usuarioService.obtenerUsuario(username);
+        if (usuario == null) {
+            responder(intercambio, HTTP_NO_ENCONTRADO, "Usuario no encontrado");
+            return;
+        }
+
+        StringBuilder cuerpo = new StringBuilder()
+                .append("username=").append(usuario.getUsername()).append('\n')
+                .append("rol=").append(usuario.getRol().getNombre()).append('\n')
+                .append("permisos=");
+        String separador = "";
+        for (Permiso permiso : usuario.getRol().getPermisos()) {
+            cuerpo.append(separador).append(permiso.name());
+            separador = ",";
+        }
+        responder(intercambio, HTTP_OK, cuerpo.append('\n').toString());
+    }
+
+
+    // ================= SOPORTE HTTP =================
+
+    /**
+     * Comprueba el método, ejecuta la ruta y garantiza que el intercambio se cierre
+     * con una respuesta aunque la ruta falle.
+     */
+    private static void atender(HttpExchange intercambio, String metodo, Ruta ruta) throws IOException {
+        try (intercambio) {
+            if (!metodo.equals(intercambio.getRequestMethod())) {
+                intercambio.getResponseHeaders().set("Allow", metodo);
+                intercambio.sendResponseHeaders(HTTP_METODO_NO_PERMITIDO, -1);
+                return;
+            }
+            ruta.atender(intercambio);
+        } catch (IllegalArgumentException e) {
+            responderSiPendiente(intercambio, HTTP_SOLICITUD_INVALIDA, "Solicitud inválida");
+        } catch (RuntimeException e) {
+            responderSiPendiente(intercambio, HTTP_ERROR_INTERNO, "Error interno");
+        }
+    }
+
+
+    /**
+     * @return Campos del formulario, o null si ya se respondió con un error
+     */
+    private static Map<String, String> leerFormulario(HttpExchange intercambio) throws IOException {
+        Map<String, String> campos = FormularioHttp.leer(intercambio.getRequestBody(), LIMITE_CUERPO);
+        if (campos == null) {
+            responder(intercambio, HTTP_DEMASIADO_GRANDE, "Cuerpo demasiado grande");
+        }
+        return campos;
+    }
+
+
+    private static String token(HttpExchange intercambio) {
+        String cabecera = intercambio.getRequestHeaders().getFirst("Authorization");
+        if (cabecera == null || !cabecera.startsWith(PREFIJO_BEARER)) {
+            return null;
+        }
+        return cabecera.substring(PREFIJO_BEARER.length()).trim();
+    }
+
+
+    private static void responder(HttpExchange intercambio, int estado, String texto) throws IOException {
+        byte[] cuerpo = texto.getBytes(StandardCharsets.UTF_8);
+        intercambio.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        intercambio.sendResponseHeaders(estado, cuerpo.length);
+        try (OutputStream salida = intercambio.getResponseBody()) {
+            salida.write(cuerpo);
+        }
+    }
+
+
+    /**
+     * Responde solo si la ruta no alcanzó a enviar las cabeceras.
+     */
+    private static void responderSiPendiente(HttpExchange intercambio, int estado, String texto) throws IOException {
+        if (intercambio.getResponseCode() == -1) {
+            responder(intercambio, estado, texto);
+        }
+    }
+
+
+    /** Manejador de una ruta ya validada */
+    @FunctionalInterface
+    private interface Ruta {
+        void atender(HttpExchange intercambio) throws IOException;
+    }
+}
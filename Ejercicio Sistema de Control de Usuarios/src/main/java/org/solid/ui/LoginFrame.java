@@ -1,17 +1,24 @@
 package org.solid.ui;
 
-import org.solid.interfaces.IPermisosAdmin;
-import org.solid.interfaces.IPermisosBasicos;
-import org.solid.interfaces.IPermisosInvitado;
 import org.solid.interfaces.IUsuarioRepositorio;
+import org.solid.models.Permiso;
+import org.solid.models.ResultadoAutenticacion;
+import org.solid.models.Rol;
 import org.solid.models.Usuario;
-import org.solid.repositories.UsuarioRepositorioMemoria;
+import org.solid.repositories.UsuarioRepositorioConcurrente;
+import org.solid.services.AccesoAsincronoService;
+import org.solid.services.AutenticacionLimitada;
 import org.solid.services.AutenticacionService;
+import org.solid.services.ErrorValidacion;
 import org.solid.services.UsuarioService;
+import org.solid.services.ValidadorRegistro;
 
 import javax.swing.*;
 import java.awt.*;
 import java.io.Serial;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Ventana principal de Login del sistema.
@@ -24,7 +31,11 @@ import java.io.Serial;
  * <p>Principios aplicados:
  * - SRP: Solo maneja UI, delega lógica a servicios
  * - DIP: Depende de IUsuarioRepositorio (abstracción)
- * - ISP: Verifica permisos según interfaces específicas</p>
+ * - ISP: Muestra los permisos que otorgan las interfaces del rol</p>
+ *
+ * <p>La autenticación corre fuera del hilo de eventos de Swing (EDT) mediante
+ * {@link AccesoAsincronoService}; mientras tanto se muestra una barra de progreso
+ * y un botón para cancelar.</p>
  *
  * @author Sistema SOLID
  * @version 2.0
@@ -34,19 +45,22 @@ public class LoginFrame extends JFrame {
     @Serial
     private static final long serialVersionUID = 1L;
 
-    // Constantes para validación
-    private static final int MIN_USERNAME_LENGTH = 3;
-    private static final int MIN_PASSWORD_LENGTH = 4;
     private static final int WINDOW_WIDTH = 420;
     private static final int WINDOW_HEIGHT = 280;
 
     // Componentes UI
     private JTextField userField;
     private JPasswordField passField;
+    private JButton loginButton;
+    private JButton registerButton;
+    private JButton cancelButton;
+    private JProgressBar progresoBar;
 
     // Servicios (inyección de dependencias)
-    private final transient AutenticacionService authService;
-    private final transient UsuarioService usuarioService;
+    private final transient AccesoAsincronoService accesoService;
+
+    // Operación asíncrona en curso (solo se accede desde el EDT)
+    private transient CompletableFuture<ResultadoAutenticacion> autenticacionEnCurso;
 
 
     /**
@@ -58,9 +72,9 @@ public class LoginFrame extends JFrame {
         super("Sistema de Control de Usuarios - Inicio de Sesión");
 
         // Inicialización de servicios (DIP: depende de abstracción IUsuarioRepositorio)
-        IUsuarioRepositorio repo = new UsuarioRepositorioMemoria();
-        this.usuarioService = new UsuarioService(repo);
-        this.authService = new AutenticacionService();
+        IUsuarioRepositorio repo = new UsuarioRepositorioConcurrente();
+        this.accesoService = new AccesoAsincronoService(new UsuarioService(repo),
+                new AutenticacionLimitada(new AutenticacionService()));
 
         // Configuración de ventana
         configurarVentana();
@@ -115,12 +129,12 @@ public class LoginFrame extends JFrame {
         // Campo usuario
         JLabel userLabel = new JLabel("Usuario:");
         userField = new JTextField(20);
-        userField.setToolTipText("Ingrese su nombre de usuario (mínimo " + MIN_USERNAME_LENGTH + " caracteres)");
+        userField.setToolTipText("Ingrese su nombre de usuario (mínimo " + ValidadorRegistro.MIN_USERNAME + " caracteres)");
 
         // Campo contraseña
         JLabel passLabel = new JLabel("Contraseña:");
         passField = new JPasswordField(20);
-        passField.setToolTipText("Ingrese su contraseña (mínimo " + MIN_PASSWORD_LENGTH + " caracteres)");
+        passField.setToolTipText("Ingrese su contraseña (mínimo " + ValidadorRegistro.MIN_PASSWORD + " caracteres)");
 
         // Enter para login
         passField.addActionListener(e -> intentarAutenticacion());
@@ -134,18 +148,29 @@ public class LoginFrame extends JFrame {
     }
 
     /**
-     * Crea el panel de botones (Ingresar y Registrar).
+     * Crea el panel de botones (Ingresar y Registrar) junto con el indicador de progreso.
      *
      * @return Panel con botones de acción
      */
     private JPanel crearPanelBotones() {
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 10, 0));
 
-        JButton registerButton = new JButton("Registrar Nuevo Usuario");
+        progresoBar = new JProgressBar();
+        progresoBar.setIndeterminate(true);
+        progresoBar.setString("Verificando...");
+        progresoBar.setStringPainted(true);
+        progresoBar.setVisible(false);
+
+        cancelButton = new JButton("Cancelar");
+        cancelButton.addActionListener(e -> cancelarAutenticacion());
+        cancelButton.setToolTipText("Dejar de esperar la verificación en curso");
+        cancelButton.setVisible(false);
+
+        registerButton = new JButton("Registrar Nuevo Usuario");
         registerButton.addActionListener(e -> abrirVentanaRegistro());
         registerButton.setToolTipText("Crear una nueva cuenta en el sistema");
 
-        JButton loginButton = new JButton("Ingresar");
+        loginButton = new JButton("Ingresar");
         loginButton.addActionListener(e -> intentarAutenticacion());
         loginButton.setToolTipText("Iniciar sesión con sus credenciales");
 
@@ -154,6 +179,8 @@ public class LoginFrame extends JFrame {
         loginButton.setForeground(Color.WHITE);
         loginButton.setFocusPainted(false);
 
+        buttonPanel.add(progresoBar);
+        buttonPanel.add(cancelButton);
         buttonPanel.add(registerButton);
         buttonPanel.add(loginButton);
 
@@ -161,69 +188,102 @@ public class LoginFrame extends JFrame {
     }
 
     /**
-     * Valida credenciales y autentica al usuario.
+     * Valida credenciales e inicia la autenticación asíncrona.
      * Aplica SRP: método específico para lógica de autenticación.
      * Aplica ISP: Verifica permisos según interfaces específicas del rol.
      */
     private void intentarAutenticacion() {
-        String username = userField.getText();
+        if (autenticacionEnCurso != null) {
+            return;
+        }
+
+        String usernameTrim = userField.getText().trim();
         char[] passwordChars = passField.getPassword();
-        String password = new String(passwordChars);
 
         // Validación de entrada
-        if (!validarEntrada(username, password)) {
+        if (!validarEntrada(usernameTrim, passwordChars)) {
             limpiarPassword(passwordChars);
             return;
         }
 
-        // Buscar usuario en repositorio
-        Usuario usuario = usuarioService.obtenerUsuario(username.trim());
+        // El servicio copia la contraseña, así que se puede limpiar de inmediato
+        CompletableFuture<ResultadoAutenticacion> operacion =
+                accesoService.autenticar(usernameTrim, passwordChars);
+        limpiarPassword(passwordChars);
 
-        // Intentar autenticación
-        boolean autenticado = usuario != null &&
-                authService.autenticar(usuario, username.trim(), password);
+        autenticacionEnCurso = operacion;
+        mostrarProgreso(true);
+        operacion.whenComplete((resultado, error) ->
+                SwingUtilities.invokeLater(() -> finalizarAutenticacion(operacion, resultado, error)));
+    }
 
-        // Limpiar contraseña de memoria por seguridad
-        limpiarPassword(passwordChars);
+    /**
+     * Procesa el resultado de la autenticación en el EDT.
+     * Ignora resultados de operaciones canceladas o reemplazadas.
+     */
+    private void finalizarAutenticacion(CompletableFuture<ResultadoAutenticacion> operacion,
+                                        ResultadoAutenticacion resultado, Throwable error) {
+        if (operacion != autenticacionEnCurso) {
+            return;
+        }
+        autenticacionEnCurso = null;
+        mostrarProgreso(false);
+
+        if (error != null) {
+            Throwable causa = error instanceof CompletionException ? error.getCause() : error;
+            if (!(causa instanceof CancellationException)) {
+                mostrarAdvertencia("No se pudo completar la autenticación: " + causa.getMessage());
+            }
+            return;
+        }
 
-        if (autenticado) {
-            mostrarPanelBienvenida(usuario);
+        if (resultado.exitoso()) {
+            mostrarPanelBienvenida(resultado.usuario());
             limpiarCampos();
         } else {
             mostrarErrorAutenticacion();
         }
     }
 
+    /**
+     * Cancela la autenticación en curso y devuelve el formulario a su estado normal.
+     */
+    private void cancelarAutenticacion() {
+        if (autenticacionEnCurso != null) {
+            autenticacionEnCurso.cancel(true);
+            autenticacionEnCurso = null;
+        }
+        mostrarProgreso(false);
+    }
+
+    /**
+     * Alterna entre el estado "verificando" y el formulario normal.
+     *
+     * @param activo true mientras hay una autenticación en curso
+     */
+    private void mostrarProgreso(boolean activo) {
+        progresoBar.setVisible(activo);
+        cancelButton.setVisible(activo);
+        loginButton.setEnabled(!activo);
+        registerButton.setEnabled(!activo);
+        userField.setEnabled(!activo);
+        passField.setEnabled(!activo);
+        setCursor(activo ? Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR) : Cursor.getDefaultCursor());
+    }
+
     /**
      * Valida que las credenciales cumplan requisitos mínimos.
      *
-     * @param username Nombre de usuario ingresado
+     * @param username Nombre de usuario ingresado, sin espacios alrededor
      * @param password Contraseña ingresada
      * @return true si las credenciales son válidas
      */
-    private boolean validarEntrada(String username, String password) {
-        if (username == null || username.trim().isEmpty()) {
-            mostrarAdvertencia("El nombre de usuario es obligatorio.");
-            return false;
-        }
-
-        if (username.trim().length() < MIN_USERNAME_LENGTH) {
-            mostrarAdvertencia("El usuario debe tener al menos " +
-                    MIN_USERNAME_LENGTH + " caracteres.");
-            return false;
-        }
-
-        if (password.isEmpty()) {
-            mostrarAdvertencia("La contraseña es obligatoria.");
-            return false;
-        }
-
-        if (password.length() < MIN_PASSWORD_LENGTH) {
-            mostrarAdvertencia("La contraseña debe tener al menos " +
-                    MIN_PASSWORD_LENGTH + " caracteres.");
+    private boolean validarEntrada(String username, char[] password) {
+        ErrorValidacion error = ValidadorRegistro.validarLogin(username, password);
+        if (error != null) {
+            mostrarAdvertencia(error.getMensaje());
             return false;
         }
-
         return true;
     }
 
@@ -259,7 +319,8 @@ public class LoginFrame extends JFrame {
 
     /**
      * Crea un panel que muestra los permisos específicos del usuario.
-     * Demuestra ISP: Solo verifica las interfaces que el rol implementa.
+     * Demuestra ISP: el rol solo expone los permisos de las interfaces que implementa,
+     * ya calculados al crearlo.
      *
      * @param usuario Usuario autenticado
      * @return Panel con lista de permisos
@@ -270,17 +331,10 @@ public class LoginFrame extends JFrame {
 
         DefaultListModel<String> permisosModel = new DefaultListModel<>();
 
-        // ISP: Verificar solo las interfaces que necesita cada rol
-        if (usuario.getRol() instanceof IPermisosBasicos basicos) {
-            permisosModel.addElement("• " + basicos.acceder());
-        }
-
-        if (usuario.getRol() instanceof IPermisosAdmin admin) {
-            permisosModel.addElement("• " + admin.gestionarUsuarios());
-        }
-
-        if (usuario.getRol() instanceof IPermisosInvitado invitado) {
-            permisosModel.addElement("• " + invitado.vistaPublica());
+        // ISP: Solo los permisos que otorgan las interfaces del rol
+        Rol rol = usuario.getRol();
+        for (Permiso permiso : rol.getPermisos()) {
+            permisosModel.addElement("• " + permiso.describir(rol));
         }
 
         JList<String> permisosList = new JList<>(permisosModel);
@@ -326,10 +380,10 @@ public class LoginFrame extends JFrame {
 
     /**
      * Abre la ventana de registro de nuevos usuarios.
-     * Pasa la misma instancia de UsuarioService para mantener consistencia.
+     * Pasa la misma fachada de servicios para mantener consistencia.
      */
     private void abrirVentanaRegistro() {
-        RegistroFrame registroFrame = new RegistroFrame(usuarioService);
+        RegistroFrame registroFrame = new RegistroFrame(accesoService);
         registroFrame.setLocationRelativeTo(this);
         registroFrame.setVisible(true);
     }
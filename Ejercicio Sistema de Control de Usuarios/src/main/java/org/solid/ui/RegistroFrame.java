@@ -1,15 +1,17 @@
 package org.solid.ui;
 
-import org.solid.models.Administrador;
-import org.solid.models.Invitado;
 import org.solid.models.Rol;
-import org.solid.models.UsuarioRegular;
-import org.solid.services.UsuarioService;
+import org.solid.models.TipoRol;
+import org.solid.services.AccesoAsincronoService;
+import org.solid.services.ErrorValidacion;
+import org.solid.services.ValidadorRegistro;
 
 import javax.swing.*;
 import java.awt.*;
 import java.io.Serial;
-import java.util.regex.Pattern;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Ventana para registro de nuevos usuarios en el sistema.
@@ -21,9 +23,12 @@ import java.util.regex.Pattern;
  *
  * <p>Principios aplicados:
  * - SRP: Solo maneja UI de registro
- * - DIP: Recibe UsuarioService por constructor (abstracción)
+ * - DIP: Recibe AccesoAsincronoService por constructor (abstracción)
  * - OCP: Fácil agregar nuevos roles al combo sin modificar lógica</p>
  *
+ * <p>La creación del usuario corre fuera del EDT; mientras tanto se muestra
+ * una barra de progreso y el botón Cancelar deja de esperar el resultado.</p>
+ *
  * @author Sistema SOLID
  * @version 2.0
  */
@@ -62,15 +67,6 @@ public class RegistroFrame extends JFrame {
 
     // ================= CONSTANTES PARA MENSAJES =================
 
-    private static final String MSG_USERNAME_REQUIRED = "El nombre de usuario es obligatorio.";
-    private static final String MSG_USERNAME_MIN = "El usuario debe tener al menos %d caracteres.";
-    private static final String MSG_USERNAME_MAX = "El usuario no puede exceder %d caracteres.";
-    private static final String MSG_USERNAME_PATTERN = "El usuario solo puede contener letras, números y guión bajo.";
-
-    private static final String MSG_PASSWORD_REQUIRED = "La contraseña es obligatoria.";
-    private static final String MSG_PASSWORD_MIN = "La contraseña debe tener al menos %d caracteres.";
-    private static final String MSG_PASSWORD_MAX = "La contraseña no puede exceder %d caracteres.";
-
     private static final String MSG_PASSWORD_NO_MATCH = """
         Las contraseñas no coinciden.
 
@@ -80,13 +76,6 @@ public class RegistroFrame extends JFrame {
     @Serial
     private static final long serialVersionUID = 1L;
 
-    // Constantes de validación
-    private static final int MIN_USERNAME_LENGTH = 3;
-    private static final int MAX_USERNAME_LENGTH = 20;
-    private static final int MIN_PASSWORD_LENGTH = 4;
-    private static final int MAX_PASSWORD_LENGTH = 50;
-    private static final Pattern USERNAME_PATTERN = Pattern.compile("^\\w+$");
-
     // Dimensiones de ventana
     private static final int WINDOW_WIDTH = 450;
     private static final int WINDOW_HEIGHT = 320;
@@ -97,24 +86,29 @@ public class RegistroFrame extends JFrame {
     private JPasswordField confirmPassField;
     private JComboBox<String> rolCombo;
     private JTextArea descripcionRolArea;
+    private JButton crearButton;
+    private JProgressBar progresoBar;
 
     // Servicio (inyección de dependencias)
-    private final transient UsuarioService usuarioService;
+    private final transient AccesoAsincronoService accesoService;
+
+    // Registro asíncrono en curso (solo se accede desde el EDT)
+    private transient CompletableFuture<Boolean> registroEnCurso;
 
     /**
-     * Constructor principal. Recibe el servicio de usuarios por inyección.
+     * Constructor principal. Recibe la fachada de servicios por inyección.
      *
-     * @param usuarioService Servicio para gestionar usuarios (no puede ser null)
-     * @throws IllegalArgumentException si usuarioService es null
+     * @param accesoService Fachada asíncrona de registro (no puede ser null)
+     * @throws IllegalArgumentException si accesoService es null
      */
-    public RegistroFrame(final UsuarioService usuarioService) {
+    public RegistroFrame(final AccesoAsincronoService accesoService) {
         super("Registro de Nuevo Usuario");
 
         // Validación de dependencia (fail-fast)
-        if (usuarioService == null) {
+        if (accesoService == null) {
             throw new IllegalArgumentException("El servicio de usuarios no puede ser nulo");
         }
-        this.usuarioService = usuarioService;
+        this.accesoService = accesoService;
 
         // Configuración de ventana
         configurarVentana();
@@ -173,13 +167,13 @@ public class RegistroFrame extends JFrame {
         formPanel.add(new JLabel("Usuario:"));
         userField = new JTextField();
         userField.setToolTipText("Solo letras, números y guión bajo (" +
-                MIN_USERNAME_LENGTH + "-" + MAX_USERNAME_LENGTH + " caracteres)");
+                ValidadorRegistro.MIN_USERNAME + "-" + ValidadorRegistro.MAX_USERNAME + " caracteres)");
         formPanel.add(userField);
 
         // Campo contraseña
         formPanel.add(new JLabel("Contraseña:"));
         passField = new JPasswordField();
-        passField.setToolTipText("Mínimo " + MIN_PASSWORD_LENGTH + " caracteres");
+        passField.setToolTipText("Mínimo " + ValidadorRegistro.MIN_PASSWORD + " caracteres");
         formPanel.add(passField);
 
         // Campo confirmar contraseña
@@ -191,7 +185,11 @@ public class RegistroFrame extends JFrame {
 
         // Selector de rol
         formPanel.add(new JLabel("Rol:"));
-        rolCombo = new JComboBox<>(new String[]{"Usuario", "Administrador", "Invitado"});
+        rolCombo = new JComboBox<>(new String[]{
+                TipoRol.USUARIO_REGULAR.getEtiqueta(),
+                TipoRol.ADMINISTRADOR.getEtiqueta(),
+                TipoRol.INVITADO.getEtiqueta()
+        });
         rolCombo.setToolTipText("Seleccione el nivel de acceso del usuario");
         rolCombo.addActionListener(e -> actualizarDescripcionRol());
         formPanel.add(rolCombo);
@@ -230,18 +228,14 @@ public class RegistroFrame extends JFrame {
      * Aplica OCP: Fácil agregar nuevos roles sin modificar este método.
      */
     private void actualizarDescripcionRol() {
-        String rolSeleccionado = (String) rolCombo.getSelectedItem();
-        Rol rol = mapearRol(rolSeleccionado);
-
-        String permisos = "";
+        TipoRol tipo = mapearTipoRol((String) rolCombo.getSelectedItem());
+        Rol rol = tipo.getRol();
 
-        if (rol instanceof Administrador) {
-            permisos = PERMISOS_ADMIN;
-        } else if (rol instanceof UsuarioRegular) {
-            permisos = PERMISOS_USUARIO;
-        } else if (rol instanceof Invitado) {
-            permisos = PERMISOS_INVITADO;
-        }
+        String permisos = switch (tipo) {
+            case ADMINISTRADOR -> PERMISOS_ADMIN;
+            case USUARIO_REGULAR -> PERMISOS_USUARIO;
+            case INVITADO -> PERMISOS_INVITADO;
+        };
 
         String descripcionFinal = String.format(
                 DESCRIPCION_ROL_TEMPLATE,
@@ -263,11 +257,17 @@ public class RegistroFrame extends JFrame {
     private JPanel crearPanelBotones() {
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 10, 0));
 
+        progresoBar = new JProgressBar();
+        progresoBar.setIndeterminate(true);
+        progresoBar.setString("Creando...");
+        progresoBar.setStringPainted(true);
+        progresoBar.setVisible(false);
+
         JButton cancelButton = new JButton("Cancelar");
-        cancelButton.addActionListener(e -> dispose());
+        cancelButton.addActionListener(e -> cancelar());
         cancelButton.setToolTipText("Cerrar sin crear usuario");
 
-        JButton crearButton = new JButton("Crear Usuario");
+        crearButton = new JButton("Crear Usuario");
         crearButton.addActionListener(e -> intentarRegistro());
         crearButton.setToolTipText("Registrar nuevo usuario en el sistema");
 
@@ -276,6 +276,7 @@ public class RegistroFrame extends JFrame {
         crearButton.setForeground(Color.WHITE);
         crearButton.setFocusPainted(false);
 
+        buttonPanel.add(progresoBar);
         buttonPanel.add(cancelButton);
         buttonPanel.add(crearButton);
 
@@ -283,114 +284,126 @@ public class RegistroFrame extends JFrame {
     }
 
     /**
-     * Valida los datos y solicita la creación del usuario al servicio.
+     * Valida los datos y solicita la creación asíncrona del usuario al servicio.
      * Aplica SRP: Método específico para lógica de registro.
      */
     private void intentarRegistro() {
+        if (registroEnCurso != null) {
+            return;
+        }
+
         // Obtener datos del formulario
-        String username = userField.getText();
+        String usernameTrim = userField.getText().trim();
         char[] passwordChars = passField.getPassword();
         char[] confirmPasswordChars = confirmPassField.getPassword();
-        String password = new String(passwordChars);
-        String confirmPassword = new String(confirmPasswordChars);
 
-        // Validar entrada
-        if (!validarDatosRegistro(username, password, confirmPassword)) {
+        // Validar entrada (sin copiar las contraseñas a un String)
+        if (!validarDatosRegistro(usernameTrim, passwordChars, confirmPasswordChars)) {
             limpiarPasswordsMemoria(passwordChars, confirmPasswordChars);
             return;
         }
 
         // Mapear rol seleccionado (OCP: extensible a nuevos roles)
         String rolSeleccionado = (String) rolCombo.getSelectedItem();
-        Rol rol = mapearRol(rolSeleccionado);
+        Rol rol = mapearTipoRol(rolSeleccionado).getRol();
 
-        // Intentar crear usuario (DIP: delegado al servicio)
-        boolean creado = usuarioService.crearUsuario(username.trim(), password, rol);
+        // Intentar crear usuario (DIP: delegado al servicio, que copia la contraseña)
+        CompletableFuture<Boolean> operacion = accesoService.registrar(usernameTrim, passwordChars, rol);
 
         // Limpiar contraseñas de memoria
         limpiarPasswordsMemoria(passwordChars, confirmPasswordChars);
 
-        if (creado) {
-            mostrarExito(username.trim(), rol.getNombre());
-            dispose();
-        } else {
-            mostrarErrorUsuarioExistente(username.trim());
-        }
+        registroEnCurso = operacion;
+        mostrarProgreso(true);
+        operacion.whenComplete((creado, error) -> SwingUtilities.invokeLater(
+                () -> finalizarRegistro(operacion, usernameTrim, rol.getNombre(), creado, error)));
     }
 
     /**
-     * Valida todos los campos del formulario de registro.
-     *
-     * @param username Nombre de usuario ingresado
-     * @param password Contraseña ingresada
-     * @param confirmPassword Confirmación de contraseña
-     * @return true si todos los datos son válidos
+     * Procesa el resultado del registro en el EDT.
+     * Ignora resultados de operaciones canceladas.
      */
-    private boolean validarDatosRegistro(String username, String password, String confirmPassword) {
-
-        // ===== Validar username =====
-        if (username == null || username.trim().isEmpty()) {
-            mostrarAdvertencia(MSG_USERNAME_REQUIRED);
-            return false;
-        }
-
-        String usernameTrim = username.trim();
-
-        if (usernameTrim.length() < MIN_USERNAME_LENGTH) {
-            mostrarAdvertencia(String.format(MSG_USERNAME_MIN, MIN_USERNAME_LENGTH));
-            return false;
-        }
-
-        if (usernameTrim.length() > MAX_USERNAME_LENGTH) {
-            mostrarAdvertencia(String.format(MSG_USERNAME_MAX, MAX_USERNAME_LENGTH));
-            return false;
+    private void finalizarRegistro(CompletableFuture<Boolean> operacion, String username, String rolNombre,
+                                   Boolean creado, Throwable error) {
+        if (operacion != registroEnCurso) {
+            return;
         }
-
-        if (!USERNAME_PATTERN.matcher(usernameTrim).matches()) {
-            mostrarAdvertencia(MSG_USERNAME_PATTERN);
-            return false;
+        registroEnCurso = null;
+        mostrarProgreso(false);
+
+        if (error != null) {
+            Throwable causa = error instanceof CompletionException ? error.getCause() : error;
+            if (!(causa instanceof CancellationException)) {
+                mostrarAdvertencia("No se pudo completar el registro: " + causa.getMessage());
+            }
+            return;
         }
 
-        // ===== Validar password =====
-        if (password == null || password.isEmpty()) {
-            mostrarAdvertencia(MSG_PASSWORD_REQUIRED);
-            return false;
+        if (Boolean.TRUE.equals(creado)) {
+            mostrarExito(username, rolNombre);
+            dispose();
+        } else {
+            mostrarErrorUsuarioExistente(username);
         }
+    }
 
-        if (password.length() < MIN_PASSWORD_LENGTH) {
-            mostrarAdvertencia(String.format(MSG_PASSWORD_MIN, MIN_PASSWORD_LENGTH));
-            return false;
+    /**
+     * Cancela el registro en curso; si no hay ninguno, cierra la ventana.
+     */
+    private void cancelar() {
+        if (registroEnCurso == null) {
+            dispose();
+            return;
         }
+        registroEnCurso.cancel(true);
+        registroEnCurso = null;
+        mostrarProgreso(false);
+    }
 
-        if (password.length() > MAX_PASSWORD_LENGTH) {
-            mostrarAdvertencia(String.format(MSG_PASSWORD_MAX, MAX_PASSWORD_LENGTH));
-            return false;
-        }
+    /**
+     * Alterna entre el estado "creando" y el formulario normal.
+     *
+     * @param activo true mientras hay un registro en curso
+     */
+    private void mostrarProgreso(boolean activo) {
+        progresoBar.setVisible(activo);
+        crearButton.setEnabled(!activo);
+        userField.setEnabled(!activo);
+        passField.setEnabled(!activo);
+        confirmPassField.setEnabled(!activo);
+        rolCombo.setEnabled(!activo);
+        setCursor(activo ? Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR) : Cursor.getDefaultCursor());
+    }
 
-        // ===== Validar confirmación =====
-        if (!password.equals(confirmPassword)) {
-            mostrarAdvertencia(MSG_PASSWORD_NO_MATCH);
-            return false;
+    /**
+     * Valida todos los campos del formulario de registro.
+     * Las reglas viven en ValidadorRegistro; aquí solo se elige el mensaje.
+     *
+     * @param username Nombre de usuario ingresado, sin espacios alrededor
+     * @param password Contraseña ingresada
+     * @param confirmPassword Confirmación de contraseña
+     * @return true si todos los datos son válidos
+     */
+    private boolean validarDatosRegistro(String username, char[] password, char[] confirmPassword) {
+        ErrorValidacion error = ValidadorRegistro.validarRegistro(username, password, confirmPassword);
+        if (error == null) {
+            return true;
         }
-
-        return true;
+        mostrarAdvertencia(error == ErrorValidacion.PASSWORD_NO_COINCIDE ? MSG_PASSWORD_NO_MATCH : error.getMensaje());
+        return false;
     }
 
 
     /**
-     * Mapea el nombre del rol a su implementación concreta.
-     * Aplica OCP: Fácil agregar nuevos casos sin modificar la estructura.
+     * Mapea el nombre del rol a su tipo registrado, que expone la instancia compartida.
+     * Aplica OCP: nuevos roles se agregan en TipoRol sin modificar este método.
      *
      * @param nombreRol Nombre del rol seleccionado en el combo
-     * @return Instancia concreta del rol
+     * @return Tipo del rol (Usuario Regular si no se reconoce)
      */
-    private Rol mapearRol(final String nombreRol) {
-        return switch (nombreRol) {
-            case "Administrador" -> new Administrador();
-            case "Usuario" -> new UsuarioRegular();
-            case "Invitado" -> new Invitado();
-            default -> new UsuarioRegular(); // Valor por defecto seguro
-        };
+    private TipoRol mapearTipoRol(final String nombreRol) {
+        TipoRol tipo = TipoRol.porNombre(nombreRol);
+        return tipo != null ? tipo : TipoRol.USUARIO_REGULAR; // Valor por defecto seguro
     }
 
     /**
@@ -0,0 +1,268 @@
+package org.solid.auditoria;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.solid.models.TipoEvento;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+/**
+ * Buffer lleno con cada política, vaciado al cerrar, rotación y numeración de los archivos.
+ */
+class RegistroAuditoriaTest {
+
+
+    private static final int CAPACIDAD = 4;
+    private static final long SIN_ROTAR = Long.MAX_VALUE;
+
+    @TempDir
+    Path directorio;
+
+
+    @Test
+    void bufferLlenoDescartaYCuenta() throws Exception {
+        RegistroAuditoria registro = new RegistroAuditoria(directorio, CAPACIDAD, PoliticaLlenado.DESCARTAR, SIN_ROTAR);
+        UsernameRetenido retenido = new UsernameRetenido("primero");
+        CompletableFuture<Boolean> primero = publicarRetenido(registro, retenido);
+
+        for (int i = 1; i < CAPACIDAD; i++) {
+            assertTrue(registro.publicar(TipoEvento.LOGIN_FALLIDO, "usuario" + i, "10.0.0.1"));
+        }
+        assertFalse(registro.publicar(TipoEvento.LOGIN_FALLIDO, "sobrante1", null));
+        assertFalse(registro.publicar(TipoEvento.LOGIN_FALLIDO, "sobrante2", null));
+        assertEquals(2, registro.getDescartados());
+        assertEquals(CAPACIDAD, registro.getPendientes());
+
+        retenido.liberar();
+        assertTrue(primero.get(10, TimeUnit.SECONDS));
+        registro.close();
+
+        List<String[]> lineas = leerTodo();
+        assertEquals(List.of("primero", "usuario1", "usuario2", "usuario3"), columna(lineas, 2));
+        assertEquals(List.of("-", "10.0.0.1", "10.0.0.1", "10.0.0.1"), columna(lineas, 3));
+        assertEquals(CAPACIDAD, registro.getEscritos());
+        assertEquals(0, registro.getErrores());
+    }
+
+
+    @Test
+    void bufferLlenoBloqueaHastaQueHayaLugar() throws Exception {
+        RegistroAuditoria registro = new RegistroAuditoria(directorio, CAPACIDAD, PoliticaLlenado.BLOQUEAR, SIN_ROTAR);
+        UsernameRetenido retenido = new UsernameRetenido("primero");
+        CompletableFuture<Boolean> primero = publicarRetenido(registro, retenido);
+        for (int i = 1; i < CAPACIDAD; i++) {
+            assertTrue(registro.publicar(TipoEvento.USUARIO_CREADO, "usuario" + i, null));
+        }
+
+        CompletableFuture<Boolean> bloqueado = enOtroHilo(
+                () -> registro.publicar(TipoEvento.USUARIO_CREADO, "esperando", null));
+        Thread.sleep(200);
+        assertFalse(bloqueado.isDone(), "Con el buffer lleno el productor debe esperar");
+
+        retenido.liberar();
+        assertTrue(primero.get(10, TimeUnit.SECONDS));
+        assertTrue(bloqueado.get(10, TimeUnit.SECONDS));
+        registro.close();
+
+        assertEquals(0, registro.getDescartados());
+        assertEquals(List.of("primero", "usuario1", "usuario2", "usuario3", "esperando"), columna(leerTodo(), 2));
+    }
+
+
+    @Test
+    void cerrarEscribeLosPendientesYRechazaLosNuevos() throws Exception {
+        RegistroAuditoria registro = new RegistroAuditoria(directorio, 1024, PoliticaLlenado.DESCARTAR, SIN_ROTAR);
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(registro.publicar(TipoEvento.LOGIN_EXITOSO, "usuario" + i, "origen" + i));
+        }
+        registro.close();
+
+        assertEquals(0, registro.getPendientes());
+        assertFalse(registro.publicar(TipoEvento.LOGIN_EXITOSO, "tarde", null));
+        assertEquals(1, registro.getDescartados());
+
+        List<String[]> lineas = leerTodo();
+        assertEquals(1000, lineas.size());
+        for (int i = 0; i < lineas.size(); i++) {
+            String[] campos = lineas.get(i);
+            assertTrue(campos[0].matches("\\d{4}-\\d{2}-\\d{2}T\\d{2}:\\d{2}:\\d{2}\\.\\d{3}Z"), campos[0]);
+            assertEquals("LOGIN_EXITOSO", campos[1]);
+            assertEquals("usuario" + i, campos[2]);
+            assertEquals("origen" + i, campos[3]);
+        }
+    }
+
+
+    @Test
+    void camposSaneadosYTruncados() throws Exception {
+        String largo = "x".repeat(RegistroAuditoria.MAX_CARACTERES + 10);
+        try (RegistroAuditoria registro = new RegistroAuditoria(directorio)) {
+            registro.publicar(TipoEvento.LOGIN_FALLIDO, "ana\nLOGIN_EXITOSO\tadmin", largo);
+        }
+
+        String[] campos = leerTodo().get(0);
+        assertEquals(4, campos.length);
+        assertEquals("ana?LOGIN_EXITOSO?admin", campos[2]);
+        assertEquals(RegistroAuditoria.MAX_CARACTERES, campos[3].length());
+    }
+
+
+    @Test
+    void rotaPorTamanoYContinuaLaNumeracionAlReabrir() throws Exception {
+        Files.createFile(directorio.resolve("auditoria-ajeno.log.gz"));
+        try (RegistroAuditoria registro = new RegistroAuditoria(directorio, 64, PoliticaLlenado.BLOQUEAR, 100)) {
+            for (int i = 0; i < 6; i++) {
+                registro.publicar(TipoEvento.LOGIN_EXITOSO, "usuario" + i, "origen");
+            }
+        }
+        // Cada línea ronda los 55 bytes: el archivo se rota cada dos eventos
+        assertEquals(List.of("auditoria-000001.log.gz", "auditoria-000002.log.gz", "auditoria-000003.log.gz"),
+                archivosDeAuditoria());
+
+        try (RegistroAuditoria registro = new RegistroAuditoria(directorio, 64, PoliticaLlenado.BLOQUEAR, 100)) {
+            registro.publicar(TipoEvento.LOGIN_EXITOSO, "reabierto", "origen");
+        }
+        assertEquals("auditoria-000004.log.gz", archivosDeAuditoria().get(3));
+        assertEquals(List.of("usuario0", "usuario1", "usuario2", "usuario3", "usuario4", "usuario5", "reabierto"),
+                columna(leerTodo(), 2));
+    }
+
+
+    @Test
+    void parametrosInvalidos() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new RegistroAuditoria(directorio, 0, PoliticaLlenado.DESCARTAR, SIN_ROTAR));
+        assertThrows(IllegalArgumentException.class,
+                () -> new RegistroAuditoria(directorio, CAPACIDAD, PoliticaLlenado.DESCARTAR, 0));
+    }
+
+
+    // ================= AUXILIARES =================
+
+    /**
+     * Publica desde otro hilo con un username que retiene al productor antes de publicar
+     * su ranura: el consumidor no puede pasar de ella y el buffer se llena detrás.
+     */
+    private static CompletableFuture<Boolean> publicarRetenido(RegistroAuditoria registro,
+                                                               UsernameRetenido retenido) throws Exception {
+        CompletableFuture<Boolean> resultado = enOtroHilo(
+                () -> registro.publicar(TipoEvento.LOGIN_FALLIDO, retenido, null));
+        assertTrue(retenido.copiando.await(10, TimeUnit.SECONDS));
+        return resultado;
+    }
+
+
+    /**
+     * Un hilo propio por tarea: el pool común puede tener un solo hilo y serializarlas.
+     */
+    private static CompletableFuture<Boolean> enOtroHilo(BooleanSupplier tarea) {
+        CompletableFuture<Boolean> resultado = new CompletableFuture<>();
+        Thread.ofPlatform().daemon(true).start(() -> resultado.complete(tarea.getAsBoolean()));
+        return resultado;
+    }
+
+
+    private List<String> archivosDeAuditoria() throws Exception {
+        try (Stream<Path> rutas = Files.list(directorio)) {
+            return rutas.map(ruta -> ruta.getFileName().toString())
+                    .filter(nombre -> nombre.matches("auditoria-\\d+\\.log\\.gz"))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+
+    /**
+     * @return Las líneas de todos los archivos en orden, separadas en campos
+     */
+    private List<String[]> leerTodo() throws Exception {
+        List<String[]> lineas = new ArrayList<>();
+        for (String nombre : archivosDeAuditoria()) {
+            try (BufferedReader lector = new BufferedReader(new InputStreamReader(
+                    new GZIPInputStream(Files.newInputStream(directorio.resolve(nombre))), StandardCharsets.UTF_8))) {
+                String linea;
+                while ((linea = lector.readLine()) != null) {
+                    lineas.add(linea.split("\t", -1));
+                }
+            }
+        }
+        return lineas;
+    }
+
+
+    private static List<String> columna(List<String[]> lineas, int campo) {
+        return lineas.stream().map(campos -> campos[campo]).toList();
+    }
+
+
+    /**
+     * Username que deja al productor esperando mientras lo copia, hasta {@link #liberar()}.
+     */
+    private static final class UsernameRetenido implements CharSequence {
+
+
+        private final String texto;
+        private final CountDownLatch copiando = new CountDownLatch(1);
+        private final CountDownLatch liberado = new CountDownLatch(1);
+
+
+        UsernameRetenido(String texto) {
+            this.texto = texto;
+        }
+
+
+        void liberar() {
+            liberado.countDown();
+        }
+
+
+        @Override
+        public int length() {
+            return texto.length();
+        }
+
+
+        @Override
+        public char charAt(int indice) {
+            if (indice == 0) {
+                copiando.countDown();
+                try {
+                    liberado.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return texto.charAt(indice);
+        }
+
+
+        @Override
+        public CharSequence subSequence(int desde, int hasta) {
+            return texto.subSequence(desde, hasta);
+        }
+
+
+        @Override
+        public String toString() {
+            return texto;
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package org.solid.repositories;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.solid.models.Invitado;
+import org.solid.models.PaginaUsuarios;
+import org.solid.models.Usuario;
+import org.solid.models.UsuarioRegular;
+
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+
+
+/**
+ * Recuperación, truncado de la cola, compactación y lecturas concurrentes del log mapeado.
+ */
+class UsuarioRepositorioArchivoTest {
+
+
+    private static final int CABECERA = 2 * Integer.BYTES;
+
+    @TempDir
+    Path directorio;
+
+
+    @Test
+    void reabrirReconstruyeElIndice() throws Exception {
+        Path ruta = directorio.resolve("usuarios.log");
+        try (UsuarioRepositorioArchivo repo = new UsuarioRepositorioArchivo(ruta)) {
+            repo.agregarUsuario(usuario("ana", "uno"));
+            repo.agregarUsuario(usuario("beto", "dos"));
+            repo.agregarUsuario(usuario("ANA", "tres"));
+        }
+
+        try (UsuarioRepositorioArchivo repo = new UsuarioRepositorioArchivo(ruta)) {
+            assertEquals(Set.of("ANA", "beto"), nombres(repo.obtenerTodos()));
+            assertEquals("tres", repo.buscarPorUsername("ana").getPassword());
+            assertEquals(1, repo.getRegistrosObsoletos());
+        }
+    }
+
+
+    @Test
+    void registroIncompletoAlFinalSeTrunca() throws Exception {
+        Path ruta = directorio.resolve("usuarios.log");
+        try (UsuarioRepositorioArchivo repo = new UsuarioRepositorioArchivo(ruta)) {
+            repo.agregarUsuario(usuario("ana", "uno"));
+            repo.agregarUsuario(usuario("beto", "dos"));
+        }
+
+        // Caída a mitad de una escritura: cabecera completa, datos a medias
+        int fin = finDelLog(ruta);
+        try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.WRITE)) {
+            ByteBuffer cola = ByteBuffer.allocate(CABECERA + 3).putInt(64).putInt(0x1234).put(new byte[]{1, 2, 3});
+            canal.write(cola.flip(), fin);
+        }
+
+        verificarRecuperacion(ruta, Set.of("ana", "beto"));
+    }
+
+
+    @Test
+    void registroConCrcInvalidoSeDescarta() throws Exception {
+        Path ruta = directorio.resolve("usuarios.log");
+        try (UsuarioRepositorioArchivo repo = new UsuarioRepositorioArchivo(ruta)) {
+            repo.agregarUsuario(usuario("ana", "uno"));
+            repo.agregarUsuario(usuario("beto", "dos"));
+            repo.agregarUsuario(usuario("carla", "tres"));
+        }
+
+        // Se altera el último byte de datos del último registro
+        int fin = finDelLog(ruta);
+        try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer ultimo = ByteBuffer.allocate(1);
+            canal.read(ultimo, fin - 1);
+            canal.write(ByteBuffer.wrap(new byte[]{(byte) ~ultimo.get(0)}), fin - 1);
+        }
+
+        verificarRecuperacion(ruta, Set.of("ana", "beto"));
+    }
+
+
+    @Test
+    void compactarConservaSoloLosVigentes() throws Exception {
+        Path ruta = directorio.resolve("usuarios.log");
+        try (UsuarioRepositorioArchivo repo = new UsuarioRepositorioArchivo(ruta)) {
+            repo.agregarUsuario(usuario("ana", "uno"));
+            repo.agregarUsuario(usuario("beto", "dos"));
+            repo.agregarUsuario(usuario("ana", "tres"));
+            repo.agregarUsuario(usuario("ana", "cuatro"));
+            int antes = finDelLog(ruta);
+            assertEquals(2, repo.getRegistrosObsoletos());
+            long cursorPrevio = repo.paginar(PaginaUsuarios.INICIO, 4).siguienteCursor();
+
+            repo.compactar();
+
+            assertEquals(0, repo.getRegistrosObsoletos());
+            assertEquals(Set.of("ana", "beto"), nombres(repo.obtenerTodos()));
+            assertEquals("cuatro", repo.buscarPorUsername("ana").getPassword());
+            PaginaUsuarios pagina = repo.paginar(PaginaUsuarios.INICIO, 10);
+            assertEquals(2, pagina.usuarios().size());
+            assertFalse(pagina.hayMas());
+            assertTrue(finDelLog(ruta) < antes, "El log compactado debe ser más corto");
+
+            // El cursor previo a la compactación queda más allá del log renumerado
+            PaginaUsuarios ultima = repo.paginar(cursorPrevio, 10);
+            assertTrue(ultima.usuarios().isEmpty());
+            assertFalse(ultima.hayMas());
+            assertEquals(2, ultima.siguienteCursor());
+
+            repo.agregarUsuario(usuario("carla", "cinco"));
+        }
+
+        try (UsuarioRepositorioArchivo repo = new UsuarioRepositorioArchivo(ruta)) {
+            assertEquals(Set.of("ana", "beto", "carla"), nombres(repo.obtenerTodos()));
+            assertEquals("cuatro", repo.buscarPorUsername("ana").getPassword());
+            assertEquals(0, repo.getRegistrosObsoletos());
+        }
+    }
+
+
+    @Test
+    void compactarSinPoderReemplazarReabreElOriginal() throws Exception {
+        Path ruta = directorio.resolve("usuarios.log");
+        Path temporal = directorio.resolve("usuarios.log.compactando");
+        try (UsuarioRepositorioArchivo repo = new UsuarioRepositorioArchivo(ruta)) {
+            repo.agregarUsuario(usuario("ana", "uno"));
+            repo.agregarUsuario(usuario("ana", "dos"));
+
+            // Sin permiso de escritura en el directorio el temporal existente se puede
+            // reescribir, pero no renombrar sobre el log
+            Files.createFile(temporal);
+            Files.setPosixFilePermissions(directorio, PosixFilePermissions.fromString("r-xr-xr-x"));
+            try {
+                assumeFalse(Files.isWritable(directorio), "El usuario actual ignora los permisos del directorio");
+                assertThrows(UncheckedIOException.class, repo::compactar);
+            } finally {
+                Files.setPosixFilePermissions(directorio, PosixFilePermissions.fromString("rwxr-xr-x"));
+            }
+
+            assertEquals(1, repo.getRegistrosObsoletos());
+            repo.agregarUsuario(usuario("beto", "tres"));
+            assertEquals(Set.of("ana", "beto"), nombres(repo.obtenerTodos()));
+        }
+
+        try (UsuarioRepositorioArchivo repo = new UsuarioRepositorioArchivo(ruta)) {
+            assertEquals(Set.of("ana", "beto"), nombres(repo.obtenerTodos()));
+            assertEquals("dos", repo.buscarPorUsername("ana").getPassword());
+        }
+    }
+
+
+    @Test
+    void compactarInformaTambienElFalloAlReabrir() throws Exception {
+        Path ruta = directorio.resolve("usuarios.log");
+        UsuarioRepositorioArchivo repo = new UsuarioRepositorioArchivo(ruta);
+        repo.agregarUsuario(usuario("ana", "uno"));
+
+        // El log se reemplaza por un directorio no vacío: ni el movimiento ni la reapertura pueden hacerse
+        Files.delete(ruta);
+        Files.createDirectory(ruta);
+        Files.createFile(ruta.resolve("ocupado"));
+
+        UncheckedIOException error = assertThrows(UncheckedIOException.class, repo::compactar);
+        assertEquals(1, error.getCause().getSuppressed().length);
+        assertNotNull(repo.buscarPorUsername("ana"), "La vista anterior debe seguir legible");
+    }
+
+
+    @Test
+    void lecturasConcurrentesMientrasSeAmpliaElMapeo() throws Exception {
+        Path ruta = directorio.resolve("usuarios.log");
+        int usuarios = 200_000;
+        AtomicBoolean terminado = new AtomicBoolean();
+        ExecutorService ejecutor = Executors.newFixedThreadPool(2);
+
+        try (UsuarioRepositorioArchivo repo = new UsuarioRepositorioArchivo(ruta)) {
+            Future<?> lector = ejecutor.submit(() -> {
+                while (!terminado.get()) {
+                    List<Usuario> todos = repo.obtenerTodos();
+                    if (!todos.isEmpty()) {
+                        assertNotNull(repo.buscarPorUsername(todos.get(todos.size() - 1).getUsername()));
+                    }
+                }
+                return null;
+            });
+            Future<?> escritor = ejecutor.submit(() -> {
+                try {
+                    for (int i = 0; i < usuarios; i++) {
+                        repo.agregarUsuario(usuario("usuario" + i, "clave" + i));
+                    }
+                } finally {
+                    terminado.set(true);
+                }
+                return null;
+            });
+
+            escritor.get(2, TimeUnit.MINUTES);
+            lector.get(2, TimeUnit.MINUTES);
+            assertEquals(usuarios, repo.obtenerTodos().size());
+            assertNull(repo.buscarPorUsername("ausente"));
+        } finally {
+            ejecutor.shutdownNow();
+        }
+    }
+
+
+    // ================= AUXILIARES =================
+
+    private static void verificarRecuperacion(Path ruta, Set<String> esperados) throws Exception {
+        try (UsuarioRepositorioArchivo repo = new UsuarioRepositorioArchivo(ruta)) {
+            assertEquals(esperados, nombres(repo.obtenerTodos()));
+            // El siguiente registro se escribe sobre la cola descartada
+            repo.agregarUsuario(usuario("nuevo", "clave"));
+        }
+        try (UsuarioRepositorioArchivo repo = new UsuarioRepositorioArchivo(ruta)) {
+            assertEquals(esperados.size() + 1, repo.obtenerTodos().size());
+            assertEquals("clave", repo.buscarPorUsername("nuevo").getPassword());
+        }
+    }
+
+
+    /**
+     * @return Posición siguiente al último registro escrito; el resto del archivo son ceros
+     */
+    private static int finDelLog(Path ruta) throws Exception {
+        ByteBuffer log = ByteBuffer.wrap(Files.readAllBytes(ruta));
+        int posicion = 0;
+        while (posicion + CABECERA <= log.capacity() && log.getInt(posicion) > 0) {
+            posicion += CABECERA + log.getInt(posicion);
+        }
+        return posicion;
+    }
+
+
+    private static Usuario usuario(String username, String password) {
+        return new Usuario(username, password, username.length() % 2 == 0 ? new Invitado() : new UsuarioRegular());
+    }
+
+
+    private static Set<String> nombres(List<Usuario> usuarios) {
+        return usuarios.stream().map(Usuario::getUsername).collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,195 @@
+package org.solid.repositories;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.solid.models.Invitado;
+import org.solid.models.Usuario;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+
+/**
+ * Recuperación del diario de escritura anticipada: cola, instantánea más cola,
+ * registro final a medias y escrituras concurrentes con instantáneas en curso.
+ */
+class UsuarioRepositorioDurableTest {
+
+
+    private static final int HILOS = 4;
+    private static final int ESCRITURAS_POR_HILO = 2_000;
+
+    @TempDir
+    Path directorio;
+
+
+    @Test
+    void reabrirReaplicaElDiario() throws Exception {
+        try (UsuarioRepositorioDurable repo = new UsuarioRepositorioDurable(directorio)) {
+            repo.agregarUsuario(usuario("ana", "uno"));
+            repo.agregarUsuario(usuario("beto", "dos"));
+            repo.agregarUsuario(usuario("ana", "tres"));
+        }
+
+        try (UsuarioRepositorioDurable repo = new UsuarioRepositorioDurable(directorio)) {
+            assertEquals(2, repo.obtenerTodos().size());
+            assertEquals("tres", repo.buscarPorUsername("ana").getPassword());
+            assertEquals("dos", repo.buscarPorUsername("beto").getPassword());
+        }
+    }
+
+
+    @Test
+    void instantaneaMasColaDelDiario() throws Exception {
+        try (UsuarioRepositorioDurable repo = new UsuarioRepositorioDurable(directorio)) {
+            repo.agregarUsuario(usuario("ana", "uno"));
+            repo.agregarUsuario(usuario("beto", "dos"));
+            repo.tomarInstantanea();
+            repo.agregarUsuario(usuario("ana", "tres"));
+            repo.agregarUsuario(usuario("carla", "cuatro"));
+        }
+
+        // Solo quedan la instantánea y el diario de su generación
+        assertEquals(List.of("diario-1.log", "instantanea-1.dat"), archivos());
+
+        try (UsuarioRepositorioDurable repo = new UsuarioRepositorioDurable(directorio)) {
+            assertEquals(3, repo.obtenerTodos().size());
+            assertEquals("tres", repo.buscarPorUsername("ana").getPassword());
+            assertEquals("dos", repo.buscarPorUsername("beto").getPassword());
+            assertEquals("cuatro", repo.buscarPorUsername("carla").getPassword());
+        }
+    }
+
+
+    @Test
+    void registroFinalAMediasSeDescarta() throws Exception {
+        try (UsuarioRepositorioDurable repo = new UsuarioRepositorioDurable(directorio)) {
+            repo.agregarUsuario(usuario("ana", "uno"));
+            repo.agregarUsuario(usuario("beto", "dos"));
+        }
+
+        // Caída a mitad de una escritura: cabecera completa, datos a medias
+        Path diario = ultimoDiario();
+        long tamano = Files.size(diario);
+        try (FileChannel canal = FileChannel.open(diario, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            canal.write(ByteBuffer.allocate(2 * Integer.BYTES + 3).putInt(40).putInt(0x1234).put(new byte[]{1, 2, 3}).flip());
+        }
+
+        try (UsuarioRepositorioDurable repo = new UsuarioRepositorioDurable(directorio)) {
+            assertEquals(2, repo.obtenerTodos().size());
+            assertEquals(tamano, Files.size(diario), "La cola incompleta debe truncarse");
+            repo.agregarUsuario(usuario("carla", "tres"));
+        }
+
+        try (UsuarioRepositorioDurable repo = new UsuarioRepositorioDurable(directorio)) {
+            assertEquals(3, repo.obtenerTodos().size());
+            assertEquals("tres", repo.buscarPorUsername("carla").getPassword());
+        }
+    }
+
+
+    @Test
+    void escriturasConfirmadasSobrevivenAlAbandono() throws Exception {
+        Map<String, String> confirmados = new ConcurrentHashMap<>();
+        AtomicBoolean terminado = new AtomicBoolean();
+        ExecutorService ejecutor = Executors.newFixedThreadPool(HILOS + 1);
+
+        // Sin close(): el proceso "muere" con lo confirmado ya en disco
+        UsuarioRepositorioDurable abandonado = new UsuarioRepositorioDurable(directorio);
+        try {
+            CountDownLatch largada = new CountDownLatch(1);
+            List<Future<?>> escritores = new ArrayList<>();
+            for (int h = 0; h < HILOS; h++) {
+                int hilo = h;
+                escritores.add(ejecutor.submit(() -> {
+                    largada.await();
+                    for (int i = 0; i < ESCRITURAS_POR_HILO; i++) {
+                        // Cada hilo reescribe sus usernames: solo vale la última versión confirmada
+                        String username = "usuario" + hilo + "_" + (i % 500);
+                        String password = "clave" + i;
+                        abandonado.agregarUsuario(usuario(username, password));
+                        confirmados.put(username, password);
+                    }
+                    return null;
+                }));
+            }
+            // Las instantáneas cortan el diario mientras llegan escrituras
+            Future<?> instantaneas = ejecutor.submit(() -> {
+                largada.await();
+                while (!terminado.get()) {
+                    abandonado.tomarInstantanea();
+                }
+                return null;
+            });
+
+            largada.countDown();
+            try {
+                for (Future<?> escritor : escritores) {
+                    escritor.get(2, TimeUnit.MINUTES);
+                }
+            } finally {
+                terminado.set(true);
+            }
+            instantaneas.get(2, TimeUnit.MINUTES);
+
+            try (UsuarioRepositorioDurable recuperado = new UsuarioRepositorioDurable(directorio)) {
+                assertEquals(confirmados.size(), recuperado.obtenerTodos().size());
+                confirmados.forEach((username, password) -> {
+                    Usuario usuario = recuperado.buscarPorUsername(username);
+                    assertNotNull(usuario, username);
+                    assertEquals(password, usuario.getPassword(), username);
+                });
+            }
+        } finally {
+            ejecutor.shutdownNow();
+            abandonado.close();
+        }
+    }
+
+
+    // ================= AUXILIARES =================
+
+    private List<String> archivos() throws Exception {
+        try (Stream<Path> rutas = Files.list(directorio)) {
+            return rutas.map(ruta -> ruta.getFileName().toString()).sorted().toList();
+        }
+    }
+
+
+    private Path ultimoDiario() throws Exception {
+        try (Stream<Path> rutas = Files.list(directorio)) {
+            return rutas.filter(ruta -> ruta.getFileName().toString().startsWith("diario-"))
+                    .max(Comparator.comparingLong(UsuarioRepositorioDurableTest::generacion))
+                    .orElseThrow();
+        }
+    }
+
+
+    private static long generacion(Path diario) {
+        String nombre = diario.getFileName().toString();
+        return Long.parseLong(nombre.substring("diario-".length(), nombre.length() - ".log".length()));
+    }
+
+
+    private static Usuario usuario(String username, String password) {
+        return new Usuario(username, password, new Invitado());
+    }
+}
@@ -0,0 +1,80 @@
+package org.solid.services;
+
+import org.junit.jupiter.api.Test;
+import org.solid.interfaces.IUsuarioRepositorio;
+import org.solid.models.UsuarioRegular;
+import org.solid.repositories.UsuarioRepositorioConcurrente;
+import org.solid.repositories.UsuarioRepositorioMemoria;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+
+/**
+ * Registra el mismo username desde muchos hilos a la vez: solo uno debe crearlo.
+ */
+class UsuarioServiceConcurrenciaTest {
+
+
+    private static final int HILOS = Math.max(8, 2 * Runtime.getRuntime().availableProcessors());
+    private static final int RONDAS = 20;
+
+    /** Costo mínimo de PBKDF2: la prueba mide la carrera, no el hash */
+    private static final HashContrasenasService HASHER = new HashContrasenasService(1);
+
+
+    @Test
+    void repositorioConcurrenteNoCreaDuplicados() throws Exception {
+        verificarSinDuplicados(UsuarioRepositorioConcurrente::new);
+    }
+
+
+    @Test
+    void repositorioMemoriaNoCreaDuplicados() throws Exception {
+        verificarSinDuplicados(UsuarioRepositorioMemoria::new);
+    }
+
+
+    private static void verificarSinDuplicados(Supplier<IUsuarioRepositorio> fabrica) throws Exception {
+        ExecutorService ejecutor = Executors.newFixedThreadPool(HILOS);
+        try {
+            for (int ronda = 0; ronda < RONDAS; ronda++) {
+                IUsuarioRepositorio repo = fabrica.get();
+                UsuarioService servicio = new UsuarioService(repo, HASHER);
+                String username = "usuario" + ronda;
+                String password = "clave" + ronda;
+
+                CountDownLatch largada = new CountDownLatch(1);
+                List<Future<Boolean>> intentos = new ArrayList<>();
+                for (int i = 0; i < HILOS; i++) {
+                    intentos.add(ejecutor.submit(() -> {
+                        largada.await();
+                        return servicio.crearUsuario(username, password, new UsuarioRegular());
+                    }));
+                }
+                largada.countDown();
+
+                int creados = 0;
+                for (Future<Boolean> intento : intentos) {
+                    if (intento.get()) {
+                        creados++;
+                    }
+                }
+
+                assertEquals(1, creados, "Registros aceptados para " + username);
+                assertEquals(1, repo.obtenerTodos().size(), "Usuarios guardados para " + username);
+                assertNotNull(repo.buscarPorUsername(username));
+            }
+        } finally {
+            ejecutor.shutdownNow();
+        }
+    }
+}